@@ -0,0 +1,64 @@
+package com.example.hideshowviewexample.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of finding the anchor nearest to the dragged view, done once per move
+ * event while anchors are set, compared to scanning all anchors.
+ * 
+ * @author Philipp Jahoda
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AnchorLookupBenchmark {
+
+    @Param({
+            "16", "1000", "5000"
+    })
+    public int anchors;
+
+    private final AnchorIndex mIndex = new AnchorIndex();
+
+    private float mX = 0;
+    private float mY = 0;
+
+    @Setup
+    public void setup() {
+
+        mIndex.clear();
+
+        for (int i = 0; i < anchors; i++)
+            mIndex.add((i * 7919) % 1080, (i * 104729) % 1920);
+
+        // builds the tree outside of the measurement
+        mIndex.nearest(0, 0);
+    }
+
+    @Benchmark
+    public int nearest() {
+        step();
+        return mIndex.nearest(mX, mY);
+    }
+
+    @Benchmark
+    public int nearestLinear() {
+        step();
+        return mIndex.nearestLinear(mX, mY);
+    }
+
+    /** moves the query point like a finger dragging diagonally */
+    private void step() {
+        mX = (mX + 3.5f) % 1080f;
+        mY = (mY + 6.25f) % 1920f;
+    }
+}
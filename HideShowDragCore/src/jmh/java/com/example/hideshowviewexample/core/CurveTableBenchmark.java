@@ -0,0 +1,62 @@
+package com.example.hideshowviewexample.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of one sample of an easing curve read from a CurveTable compared to
+ * the formula of the framework interpolator. The accuracy of the table is
+ * printed once per trial.
+ * 
+ * @author Philipp Jahoda
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CurveTableBenchmark {
+
+    /** curve and factor, e.g. "1:0.5" for DecelerateInterpolator(0.5f) */
+    @Param({
+            "1:0.5", "1:2.5", "0:1.5", "2:1"
+    })
+    public String curve;
+
+    private CurveTable mTable;
+
+    private float mFraction = 0f;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        String[] parts = curve.split(":");
+        mTable = new CurveTable(Integer.parseInt(parts[0]), Float.parseFloat(parts[1]));
+
+        System.out.println("max error of curve " + curve + ": " + mTable.maxError(100000));
+    }
+
+    private float nextFraction() {
+        mFraction += 0.0137f;
+        if (mFraction > 1f)
+            mFraction -= 1f;
+        return mFraction;
+    }
+
+    @Benchmark
+    public float table() {
+        return mTable.valueAt(nextFraction());
+    }
+
+    @Benchmark
+    public float formula() {
+        return mTable.exactValueAt(nextFraction());
+    }
+}
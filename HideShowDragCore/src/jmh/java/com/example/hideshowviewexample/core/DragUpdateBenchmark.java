@@ -0,0 +1,109 @@
+package com.example.hideshowviewexample.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of the position math done for one move event of a drag, in margin and
+ * in translation mode, with touch prediction and with drag bounds that the
+ * drag runs past.
+ * 
+ * @author Philipp Jahoda
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DragUpdateBenchmark {
+
+    private static final int EVENTS = 1024;
+
+    /** recorded finger positions of a drag across the screen */
+    private float[] mRawX;
+    private float[] mRawY;
+
+    private float mOffsetX, mOffsetY;
+
+    private int mEvent = 0;
+
+    private final TouchPredictor mPredictor = new TouchPredictor();
+
+    /** bounds the second half of the drag is rubber-banded past */
+    private final DragConstraints mConstraints = new DragConstraints();
+
+    /** time of the latest sample fed into the predictor, 4ms apart */
+    private long mSampleNanos = 0;
+
+    @Setup
+    public void setup() {
+
+        mRawX = new float[EVENTS];
+        mRawY = new float[EVENTS];
+
+        for (int i = 0; i < EVENTS; i++) {
+            mRawX[i] = 100f + i * 0.75f + (float) Math.sin(i * 0.1) * 4f;
+            mRawY[i] = 300f + i * 0.5f + (float) Math.cos(i * 0.1) * 4f;
+        }
+
+        mOffsetX = DragMath.touchOffset(mRawX[0], 80);
+        mOffsetY = DragMath.touchOffset(mRawY[0], 280);
+
+        mConstraints.begin(80, 280);
+        mConstraints.setBounds(0, 0, 500, 600);
+        mConstraints.setOverDrag(60f);
+    }
+
+    private int nextEvent() {
+        mEvent = (mEvent + 1) & (EVENTS - 1);
+        return mEvent;
+    }
+
+    @Benchmark
+    public long marginUpdate() {
+        int i = nextEvent();
+        int left = DragMath.dragMargin(mRawX[i], mOffsetX);
+        int top = DragMath.dragMargin(mRawY[i], mOffsetY);
+        return ((long) left << 32) | (top & 0xffffffffL);
+    }
+
+    @Benchmark
+    public float translationUpdate() {
+        int i = nextEvent();
+        int left = DragMath.dragMargin(mRawX[i], mOffsetX);
+        int top = DragMath.dragMargin(mRawY[i], mOffsetY);
+        return DragMath.dragTranslation(0f, left, 80) + DragMath.dragTranslation(0f, top, 280);
+    }
+
+    @Benchmark
+    public long constrainedUpdate() {
+        int i = nextEvent();
+        int left = mConstraints.constrainLeft(DragMath.dragMargin(mRawX[i], mOffsetX));
+        int top = mConstraints.constrainTop(DragMath.dragMargin(mRawY[i], mOffsetY));
+        return ((long) left << 32) | (top & 0xffffffffL);
+    }
+
+    @Benchmark
+    public float predictedUpdate() {
+        int i = nextEvent();
+        mSampleNanos += 4000000L;
+
+        if (i == 0)
+            mPredictor.reset();
+
+        mPredictor.addSample(mSampleNanos, mRawX[i], mRawY[i]);
+        mPredictor.predict(mSampleNanos + 16666667L);
+        return mPredictor.getPredictedX() + mPredictor.getPredictedY();
+    }
+
+    @Benchmark
+    public int dropPosition() {
+        int i = nextEvent();
+        return DragMath.screenToAnimationY((int) mRawY[i], 270, 75);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.hideshowviewexample.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of sampling the position of a hide / show animation for one frame.
+ * 
+ * @author Philipp Jahoda
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InterpolationBenchmark {
+
+    /** 500ms animation sampled at 120 frames per second */
+    private static final long DURATION_NANOS = 500000000L;
+    private static final long FRAME_NANOS = 8333333L;
+
+    private long mElapsed = 0;
+
+    private long nextFrame() {
+        mElapsed += FRAME_NANOS;
+        if (mElapsed > DURATION_NANOS)
+            mElapsed = 0;
+        return mElapsed;
+    }
+
+    @Benchmark
+    public float linearPosition() {
+        float fraction = DragMath.animationFraction(nextFrame(), DURATION_NANOS);
+        return DragMath.interpolate(44f, 500f, fraction) + DragMath.interpolate(107f, 500f, fraction);
+    }
+
+    @Benchmark
+    public float deceleratedPosition() {
+        float fraction = DragMath.animationFraction(nextFrame(), DURATION_NANOS);
+
+        // same curve as DecelerateInterpolator(0.5f), the default of the view
+        float value = (float) (1.0 - Math.pow(1.0 - fraction, 2 * 0.5f));
+        return DragMath.interpolate(44f, 500f, value) + DragMath.interpolate(107f, 500f, value);
+    }
+}
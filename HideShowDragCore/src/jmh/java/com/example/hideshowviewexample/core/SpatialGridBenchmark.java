@@ -0,0 +1,82 @@
+package com.example.hideshowviewexample.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of hit testing and moving tiles of a dashboard with many draggable
+ * views in the spatial grid of the HideShowDragContainer, and of pushing a
+ * dragged tile out of the tiles it overlaps.
+ * 
+ * @author Philipp Jahoda
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpatialGridBenchmark {
+
+    private static final int TILE_SIZE = 200;
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    @Param({
+            "50", "250", "1000"
+    })
+    public int tiles;
+
+    private SpatialGrid mGrid;
+
+    private final int[] mHits = new int[64];
+
+    private final OverlapResolver mResolver = new OverlapResolver(32);
+
+    private int mStep = 0;
+
+    @Setup
+    public void setup() {
+
+        mGrid = new SpatialGrid(TILE_SIZE);
+        mGrid.setBounds(WIDTH, HEIGHT);
+
+        for (int i = 0; i < tiles; i++) {
+            int left = (i * 37) % (WIDTH - TILE_SIZE);
+            int top = (i * 53) % (HEIGHT - TILE_SIZE);
+            mGrid.put(i, left, top, left + TILE_SIZE, top + TILE_SIZE);
+        }
+    }
+
+    @Benchmark
+    public int hitTest() {
+        mStep = (mStep + 1) & 1023;
+        return mGrid.queryPoint((mStep * 7) % WIDTH, (mStep * 13) % HEIGHT, mHits);
+    }
+
+    @Benchmark
+    public int dragTile() {
+        mStep = (mStep + 1) & 1023;
+        int left = mStep % (WIDTH - TILE_SIZE);
+        int top = (mStep * 2) % (HEIGHT - TILE_SIZE);
+        mGrid.put(0, left, top, left + TILE_SIZE, top + TILE_SIZE);
+        return mGrid.size();
+    }
+
+    @Benchmark
+    public int dragTileAvoidingOverlap() {
+        mStep = (mStep + 1) & 1023;
+        int left = mStep % (WIDTH - TILE_SIZE);
+        int top = (mStep * 2) % (HEIGHT - TILE_SIZE);
+        mResolver.resolve(mGrid, 0, left, top, TILE_SIZE, TILE_SIZE, 8);
+        left = mResolver.getLeft();
+        top = mResolver.getTop();
+        mGrid.put(0, left, top, left + TILE_SIZE, top + TILE_SIZE);
+        return left + top;
+    }
+}
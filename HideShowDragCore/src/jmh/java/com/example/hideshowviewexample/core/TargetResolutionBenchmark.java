@@ -0,0 +1,44 @@
+package com.example.hideshowviewexample.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of deciding where a released view settles and of stepping the settle
+ * spring for one frame.
+ * 
+ * @author Philipp Jahoda
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TargetResolutionBenchmark {
+
+    private final SettleSimulation mSettle = new SettleSimulation();
+
+    private float mReleaseX = 0;
+
+    @Benchmark
+    public boolean nearestTarget() {
+        mReleaseX = (mReleaseX + 7.5f) % 1080f;
+
+        float restX = mSettle.projectRest(mReleaseX, 2400f);
+        float restY = mSettle.projectRest(900f, -800f);
+        return DragMath.isNearerToFirst(restX, restY, 44f, 107f, 800f, 1500f);
+    }
+
+    @Benchmark
+    public float settleFrame() {
+
+        if (!mSettle.step(1 / 120f))
+            mSettle.start(0f, 0f, 2400f, -800f, 800f, 1500f);
+
+        return mSettle.getX();
+    }
+}
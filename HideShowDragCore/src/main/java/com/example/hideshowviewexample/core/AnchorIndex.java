@@ -0,0 +1,274 @@
+package com.example.hideshowviewexample.core;
+
+/**
+ * Set of anchor points a dragged view can dock to, e.g. screen edges, grid
+ * cells or slots in other panels. The anchors are kept in a 2d tree that is
+ * rebuilt lazily after anchors have been added or moved, so the nearest
+ * anchor of a point is found in logarithmic time. Queries do not allocate.
+ * Not thread safe, one index can be shared by all views of the main thread.
+ * 
+ * @author Philipp Jahoda
+ */
+public class AnchorIndex {
+
+    private float[] mX = new float[16];
+    private float[] mY = new float[16];
+
+    private int mSize = 0;
+
+    /**
+     * anchor ids in tree order, the anchor of every range [lo, hi) is stored
+     * at its middle, the smaller coordinates of the split axis before it
+     */
+    private int[] mTree = new int[16];
+
+    /** true if the tree needs to be built before the next query */
+    private boolean mDirty = false;
+
+    /** nearest anchor found by the running query */
+    private int mBest;
+    private float mBestDistance;
+
+    /**
+     * adds an anchor and returns its id, ids are assigned in ascending order
+     * starting at 0
+     * 
+     * @param x
+     * @param y
+     * @return
+     */
+    public int add(float x, float y) {
+
+        if (mSize == mX.length) {
+            int capacity = mSize * 2;
+            mX = grow(mX, capacity);
+            mY = grow(mY, capacity);
+            mTree = new int[capacity];
+        }
+
+        mX[mSize] = x;
+        mY[mSize] = y;
+        mDirty = true;
+        return mSize++;
+    }
+
+    /**
+     * moves the anchor with the given id
+     * 
+     * @param id
+     * @param x
+     * @param y
+     */
+    public void set(int id, float x, float y) {
+
+        if (id < 0 || id >= mSize)
+            throw new IndexOutOfBoundsException("No anchor with id " + id);
+
+        mX[id] = x;
+        mY[id] = y;
+        mDirty = true;
+    }
+
+    /**
+     * removes all anchors
+     */
+    public void clear() {
+        mSize = 0;
+        mDirty = false;
+    }
+
+    /**
+     * returns the number of anchors
+     * 
+     * @return
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * returns the x-position of the anchor with the given id
+     * 
+     * @param id
+     * @return
+     */
+    public float getX(int id) {
+        return mX[id];
+    }
+
+    /**
+     * returns the y-position of the anchor with the given id
+     * 
+     * @param id
+     * @return
+     */
+    public float getY(int id) {
+        return mY[id];
+    }
+
+    /**
+     * returns the id of the anchor nearest to the given point, -1 if there are
+     * no anchors
+     * 
+     * @param x
+     * @param y
+     * @return
+     */
+    public int nearest(float x, float y) {
+
+        if (mSize == 0)
+            return -1;
+
+        if (mDirty)
+            build();
+
+        mBest = -1;
+        mBestDistance = Float.POSITIVE_INFINITY;
+        search(0, mSize, true, x, y);
+        return mBest;
+    }
+
+    /**
+     * returns the id of the anchor nearest to the given point by comparing all
+     * anchors, used as reference for the tree, -1 if there are no anchors
+     * 
+     * @param x
+     * @param y
+     * @return
+     */
+    public int nearestLinear(float x, float y) {
+
+        int best = -1;
+        float bestDistance = Float.POSITIVE_INFINITY;
+
+        for (int i = 0; i < mSize; i++) {
+
+            float distance = DragMath.distanceSquared(x, y, mX[i], mY[i]);
+
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * searches the subtree of the range [lo, hi), the side of the split that
+     * contains the point first, the other one only if it can contain a nearer
+     * anchor
+     * 
+     * @param lo
+     * @param hi
+     * @param splitX
+     * @param x
+     * @param y
+     */
+    private void search(int lo, int hi, boolean splitX, float x, float y) {
+
+        if (lo >= hi)
+            return;
+
+        int mid = (lo + hi) >>> 1;
+        int id = mTree[mid];
+
+        float dx = x - mX[id];
+        float dy = y - mY[id];
+        float distance = dx * dx + dy * dy;
+
+        if (distance < mBestDistance || (distance == mBestDistance && id < mBest)) {
+            mBestDistance = distance;
+            mBest = id;
+        }
+
+        float delta = splitX ? dx : dy;
+
+        if (delta < 0) {
+            search(lo, mid, !splitX, x, y);
+
+            if (delta * delta <= mBestDistance)
+                search(mid + 1, hi, !splitX, x, y);
+        } else {
+            search(mid + 1, hi, !splitX, x, y);
+
+            if (delta * delta <= mBestDistance)
+                search(lo, mid, !splitX, x, y);
+        }
+    }
+
+    /**
+     * orders the anchors into the tree
+     */
+    private void build() {
+
+        for (int i = 0; i < mSize; i++)
+            mTree[i] = i;
+
+        build(0, mSize, true);
+        mDirty = false;
+    }
+
+    private void build(int lo, int hi, boolean splitX) {
+
+        if (hi - lo < 2)
+            return;
+
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, splitX ? mX : mY);
+
+        build(lo, mid, !splitX);
+        build(mid + 1, hi, !splitX);
+    }
+
+    /**
+     * partially sorts the tree range [left, right] so that the anchor with the
+     * k-th smallest coordinate is at position k, smaller ones before it and
+     * larger ones after it
+     * 
+     * @param left
+     * @param right
+     * @param k
+     * @param coords
+     */
+    private void select(int left, int right, int k, float[] coords) {
+
+        int[] tree = mTree;
+
+        while (right > left) {
+
+            float pivot = coords[tree[(left + right) >>> 1]];
+            int i = left;
+            int j = right;
+
+            while (i <= j) {
+
+                while (coords[tree[i]] < pivot)
+                    i++;
+                while (coords[tree[j]] > pivot)
+                    j--;
+
+                if (i <= j) {
+                    int tmp = tree[i];
+                    tree[i] = tree[j];
+                    tree[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j)
+                right = j;
+            else if (k >= i)
+                left = i;
+            else
+                return;
+        }
+    }
+
+    private static float[] grow(float[] array, int capacity) {
+        float[] grown = new float[capacity];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+}
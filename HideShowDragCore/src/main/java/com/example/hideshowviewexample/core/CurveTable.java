@@ -0,0 +1,132 @@
+package com.example.hideshowviewexample.core;
+
+/**
+ * Easing curve sampled once into a table, values between two samples are
+ * interpolated linearly. Evaluating it costs a multiplication and a lerp
+ * instead of e.g. a Math.pow() per frame. The curves match the ones of the
+ * framework interpolators with the same parameters. Immutable, can be shared
+ * between threads.
+ * 
+ * @author Philipp Jahoda
+ */
+public final class CurveTable {
+
+    /** same curve as AccelerateInterpolator(factor) */
+    public static final int CURVE_ACCELERATE = 0;
+
+    /** same curve as DecelerateInterpolator(factor) */
+    public static final int CURVE_DECELERATE = 1;
+
+    /** same curve as AccelerateDecelerateInterpolator, the factor is ignored */
+    public static final int CURVE_ACCELERATE_DECELERATE = 2;
+
+    /** number of segments between the samples */
+    private static final int SEGMENTS = 256;
+
+    private final int mCurve;
+
+    private final float mFactor;
+
+    private final float[] mValues = new float[SEGMENTS + 1];
+
+    /**
+     * @param curve CURVE_ACCELERATE, CURVE_DECELERATE or
+     *            CURVE_ACCELERATE_DECELERATE
+     * @param factor
+     */
+    public CurveTable(int curve, float factor) {
+
+        if (curve < CURVE_ACCELERATE || curve > CURVE_ACCELERATE_DECELERATE)
+            throw new IllegalArgumentException("Unknown curve " + curve);
+
+        this.mCurve = curve;
+        this.mFactor = factor;
+
+        for (int i = 0; i <= SEGMENTS; i++)
+            mValues[i] = exactValueAt(i / (float) SEGMENTS);
+    }
+
+    /**
+     * returns the curve of the table
+     * 
+     * @return
+     */
+    public int getCurve() {
+        return mCurve;
+    }
+
+    /**
+     * returns the factor of the curve
+     * 
+     * @return
+     */
+    public float getFactor() {
+        return mFactor;
+    }
+
+    /**
+     * returns the value of the curve at the given fraction, read from the
+     * table
+     * 
+     * @param fraction between 0 and 1, values outside are clamped
+     * @return
+     */
+    public float valueAt(float fraction) {
+
+        if (fraction <= 0f)
+            return mValues[0];
+
+        if (fraction >= 1f)
+            return mValues[SEGMENTS];
+
+        float position = fraction * SEGMENTS;
+        int index = (int) position;
+        float start = mValues[index];
+
+        return start + (mValues[index + 1] - start) * (position - index);
+    }
+
+    /**
+     * returns the value of the curve at the given fraction, calculated with
+     * the formula of the framework interpolator
+     * 
+     * @param fraction
+     * @return
+     */
+    public float exactValueAt(float fraction) {
+
+        switch (mCurve) {
+            case CURVE_ACCELERATE:
+                if (mFactor == 1f)
+                    return fraction * fraction;
+                return (float) Math.pow(fraction, 2 * mFactor);
+
+            case CURVE_DECELERATE:
+                if (mFactor == 1f)
+                    return 1f - (1f - fraction) * (1f - fraction);
+                return (float) (1f - Math.pow(1f - fraction, 2 * mFactor));
+
+            default:
+                return (float) (Math.cos((fraction + 1) * Math.PI) / 2f) + 0.5f;
+        }
+    }
+
+    /**
+     * returns the largest difference between the table and the formula,
+     * checked at the given number of evenly spaced fractions
+     * 
+     * @param checks
+     * @return
+     */
+    public float maxError(int checks) {
+
+        float max = 0f;
+
+        for (int i = 0; i <= checks; i++) {
+            float fraction = i / (float) checks;
+            max = Math.max(max, Math.abs(valueAt(fraction) - exactValueAt(fraction)));
+        }
+
+        return max;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.hideshowviewexample.core;
+
+/**
+ * Limits the layout margins a view is dragged to: an axis lock keeps one of
+ * the margins at its value from the start of the drag, bounds keep the view
+ * inside an area. The bounds are set once per drag, so constraining a move
+ * only takes a few comparisons and, while the view is over-dragged with a
+ * rubber band, one division. Does not allocate.
+ * 
+ * @author Philipp Jahoda
+ */
+public class DragConstraints {
+
+    /** the view can be dragged in both directions */
+    public static final int AXIS_BOTH = 0;
+
+    /** the view can only be dragged horizontally */
+    public static final int AXIS_HORIZONTAL = 1;
+
+    /** the view can only be dragged vertically */
+    public static final int AXIS_VERTICAL = 2;
+
+    private int mAxis = AXIS_BOTH;
+
+    /** how far the view can be dragged past the bounds, 0 for none */
+    private float mOverDrag = 0f;
+
+    private boolean mBounded = false;
+
+    /** range of the margins, inclusive */
+    private int mMinLeft, mMinTop, mMaxLeft, mMaxTop;
+
+    /** margins at the start of the drag */
+    private int mStartLeft, mStartTop;
+
+    /**
+     * sets the direction the view can be dragged in, AXIS_BOTH,
+     * AXIS_HORIZONTAL or AXIS_VERTICAL, default: AXIS_BOTH
+     * 
+     * @param axis
+     */
+    public void setAxis(int axis) {
+        this.mAxis = axis;
+    }
+
+    public int getAxis() {
+        return mAxis;
+    }
+
+    /**
+     * sets how far in pixels the view can be dragged past the bounds, the
+     * further it is dragged out the more it resists like a rubber band, 0 to
+     * stop it at the bounds, default: 0
+     * 
+     * @param overDrag
+     */
+    public void setOverDrag(float overDrag) {
+        this.mOverDrag = Math.max(0f, overDrag);
+    }
+
+    public float getOverDrag() {
+        return mOverDrag;
+    }
+
+    /**
+     * starts a drag from the given margins, the locked axis keeps them
+     * 
+     * @param left
+     * @param top
+     */
+    public void begin(int left, int top) {
+        mStartLeft = left;
+        mStartTop = top;
+    }
+
+    /**
+     * sets the range of the margins for the current drag, if the area is
+     * smaller than the view the view is kept at the minimum
+     * 
+     * @param minLeft
+     * @param minTop
+     * @param maxLeft
+     * @param maxTop
+     */
+    public void setBounds(int minLeft, int minTop, int maxLeft, int maxTop) {
+        mBounded = true;
+        mMinLeft = minLeft;
+        mMinTop = minTop;
+        mMaxLeft = Math.max(minLeft, maxLeft);
+        mMaxTop = Math.max(minTop, maxTop);
+    }
+
+    /**
+     * removes the bounds, the view can be dragged anywhere
+     */
+    public void clearBounds() {
+        mBounded = false;
+    }
+
+    public boolean hasBounds() {
+        return mBounded;
+    }
+
+    /**
+     * returns the left margin the view is dragged to for the given one,
+     * over-dragged with a rubber band past the bounds
+     * 
+     * @param left
+     * @return
+     */
+    public int constrainLeft(int left) {
+
+        if (mAxis == AXIS_VERTICAL)
+            return mStartLeft;
+
+        return mBounded ? rubberBand(left, mMinLeft, mMaxLeft) : left;
+    }
+
+    /**
+     * returns the top margin the view is dragged to for the given one,
+     * over-dragged with a rubber band past the bounds
+     * 
+     * @param top
+     * @return
+     */
+    public int constrainTop(int top) {
+
+        if (mAxis == AXIS_HORIZONTAL)
+            return mStartTop;
+
+        return mBounded ? rubberBand(top, mMinTop, mMaxTop) : top;
+    }
+
+    /**
+     * returns the left margin inside the bounds that is nearest to the given
+     * one, used when the view is dropped
+     * 
+     * @param left
+     * @return
+     */
+    public int clampLeft(int left) {
+
+        if (mAxis == AXIS_VERTICAL)
+            return mStartLeft;
+
+        return mBounded ? clamp(left, mMinLeft, mMaxLeft) : left;
+    }
+
+    /**
+     * returns the top margin inside the bounds that is nearest to the given
+     * one, used when the view is dropped
+     * 
+     * @param top
+     * @return
+     */
+    public int clampTop(int top) {
+
+        if (mAxis == AXIS_HORIZONTAL)
+            return mStartTop;
+
+        return mBounded ? clamp(top, mMinTop, mMaxTop) : top;
+    }
+
+    /**
+     * returns the value inside the range, a value outside of it is moved
+     * towards the range so that it approaches, but never reaches, the over
+     * drag distance
+     */
+    private int rubberBand(int value, int min, int max) {
+
+        if (value < min)
+            return min - resist(min - value);
+        if (value > max)
+            return max + resist(value - max);
+
+        return value;
+    }
+
+    private int resist(int overshoot) {
+
+        if (mOverDrag == 0f)
+            return 0;
+
+        // moves 1:1 at the bound and ever slower towards mOverDrag
+        return Math.round(overshoot * mOverDrag / (overshoot + mOverDrag));
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return value < min ? min : value > max ? max : value;
+    }
+}
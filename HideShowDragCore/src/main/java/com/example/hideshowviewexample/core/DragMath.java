@@ -0,0 +1,125 @@
+package com.example.hideshowviewexample.core;
+
+/**
+ * Position math of the HideShowDragView without any Android dependencies, so
+ * that it can be benchmarked and reused off-device. All methods are pure and
+ * do not allocate.
+ * 
+ * @author Philipp Jahoda
+ */
+public final class DragMath {
+
+    private DragMath() {
+    }
+
+    /**
+     * returns the distance between the dragging finger and the edge of the
+     * view at the start of a drag
+     * 
+     * @param raw position of the finger on the screen
+     * @param margin layout margin of the view
+     * @return
+     */
+    public static float touchOffset(float raw, int margin) {
+        return raw - margin;
+    }
+
+    /**
+     * returns the layout margin that keeps the dragging finger at its offset
+     * to the edge of the view
+     * 
+     * @param raw position of the finger on the screen
+     * @param offset offset taken at the start of the drag
+     * @return
+     */
+    public static int dragMargin(float raw, float offset) {
+        return (int) (raw - offset);
+    }
+
+    /**
+     * returns the translation that moves a view with the given committed
+     * margin to the dragged margin
+     * 
+     * @param startTranslation translation at the start of the drag
+     * @param dragMargin margin the view is dragged to
+     * @param committedMargin margin the view is currently layouted with
+     * @return
+     */
+    public static float dragTranslation(float startTranslation, int dragMargin,
+            int committedMargin) {
+        return startTranslation + dragMargin - committedMargin;
+    }
+
+    /**
+     * converts the y-position of the view on the screen into the coordinate
+     * the view is animated to, taking statusbar and view height into
+     * consideration
+     * 
+     * @param screenY
+     * @param viewHeight
+     * @param statusBarHeight
+     * @return
+     */
+    public static int screenToAnimationY(int screenY, int viewHeight, int statusBarHeight) {
+        return screenY - viewHeight / 2 - statusBarHeight;
+    }
+
+    /**
+     * returns the value between from and to at the given fraction
+     * 
+     * @param from
+     * @param to
+     * @param fraction
+     * @return
+     */
+    public static float interpolate(float from, float to, float fraction) {
+        return from + (to - from) * fraction;
+    }
+
+    /**
+     * returns the fraction of an animation that has passed, between 0 and 1
+     * 
+     * @param elapsedNanos
+     * @param durationNanos
+     * @return
+     */
+    public static float animationFraction(long elapsedNanos, long durationNanos) {
+
+        if (durationNanos <= 0)
+            return 1f;
+
+        return Math.max(0f, Math.min(1f, elapsedNanos / (float) durationNanos));
+    }
+
+    /**
+     * returns the squared distance between two points
+     * 
+     * @param x1
+     * @param y1
+     * @param x2
+     * @param y2
+     * @return
+     */
+    public static float distanceSquared(float x1, float y1, float x2, float y2) {
+        float dx = x1 - x2;
+        float dy = y1 - y2;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * returns true if the point (x, y) is at least as close to the first
+     * target as to the second one
+     * 
+     * @param x
+     * @param y
+     * @param firstX
+     * @param firstY
+     * @param secondX
+     * @param secondY
+     * @return
+     */
+    public static boolean isNearerToFirst(float x, float y, float firstX, float firstY,
+            float secondX, float secondY) {
+        return distanceSquared(x, y, firstX, firstY) <= distanceSquared(x, y, secondX, secondY);
+    }
+}
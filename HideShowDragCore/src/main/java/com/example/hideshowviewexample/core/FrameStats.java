@@ -0,0 +1,187 @@
+package com.example.hideshowviewexample.core;
+
+/**
+ * Smoothness of one animation or drag gesture, collected from the frame
+ * timestamps: frames rendered, frames that came later than the frame budget
+ * allows, the longest frame and the latency between a touch event and the
+ * start of the frame that showed it. The latency ends at the frame time of
+ * the vsync, not when the frame reaches the display, so it leaves out the
+ * time for drawing and composing. Updating it is a few arithmetic operations
+ * per frame, so it can be collected all the time. One instance is reused for
+ * every animation or gesture.
+ * 
+ * @author Philipp Jahoda
+ */
+public class FrameStats {
+
+    /** default frame budget, 60 frames per second */
+    private static final long DEFAULT_FRAME_BUDGET_NANOS = 16666667L;
+
+    private long mFrameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+
+    private int mFrames = 0;
+    private int mFramesOverBudget = 0;
+    private long mLongestFrameNanos = 0;
+
+    private long mFirstFrameNanos = 0;
+    private long mLastFrameNanos = 0;
+
+    private int mLatencies = 0;
+    private long mLatencySumNanos = 0;
+    private long mMaxLatencyNanos = 0;
+
+    /**
+     * sets the time one frame may take, e.g. 16.6ms at 60 or 8.3ms at 120
+     * frames per second
+     * 
+     * @param nanos
+     */
+    public void setFrameBudgetNanos(long nanos) {
+        this.mFrameBudgetNanos = nanos;
+    }
+
+    /**
+     * returns the time one frame may take
+     * 
+     * @return
+     */
+    public long getFrameBudgetNanos() {
+        return mFrameBudgetNanos;
+    }
+
+    /**
+     * clears the stats at the start of an animation or gesture
+     */
+    public void begin() {
+        mFrames = 0;
+        mFramesOverBudget = 0;
+        mLongestFrameNanos = 0;
+        mFirstFrameNanos = 0;
+        mLastFrameNanos = 0;
+        mLatencies = 0;
+        mLatencySumNanos = 0;
+        mMaxLatencyNanos = 0;
+    }
+
+    /**
+     * records a frame of an animation, which has work for every frame
+     * 
+     * @param frameTimeNanos
+     */
+    public void onFrame(long frameTimeNanos) {
+        onFrame(frameTimeNanos, 0);
+    }
+
+    /**
+     * records a frame that shows work which was ready at the given time, e.g.
+     * a touch event, the frame is only as long as the time since the previous
+     * frame or since the work was ready, whatever is later, so a pause of the
+     * finger is not counted as a long frame
+     * 
+     * @param frameTimeNanos
+     * @param readyNanos 0 if the work was ready at the previous frame
+     */
+    public void onFrame(long frameTimeNanos, long readyNanos) {
+
+        if (mFrames == 0)
+            mFirstFrameNanos = frameTimeNanos;
+
+        mFrames++;
+
+        long since = Math.max(readyNanos, mLastFrameNanos);
+
+        if (since > 0) {
+
+            long duration = frameTimeNanos - since;
+            mLongestFrameNanos = Math.max(mLongestFrameNanos, duration);
+
+            // allow for some jitter of the frame times before counting a
+            // frame as dropped
+            if (duration > mFrameBudgetNanos * 3 / 2)
+                mFramesOverBudget++;
+        }
+
+        mLastFrameNanos = frameTimeNanos;
+    }
+
+    /**
+     * records the time between a touch event and the start of the frame that
+     * showed it, an event that came in after the frame had started, e.g. a
+     * batched or late one, is counted with 0
+     * 
+     * @param nanos
+     */
+    public void onLatency(long nanos) {
+
+        if (nanos < 0)
+            nanos = 0;
+
+        mLatencies++;
+        mLatencySumNanos += nanos;
+        mMaxLatencyNanos = Math.max(mMaxLatencyNanos, nanos);
+    }
+
+    /**
+     * returns the number of rendered frames
+     * 
+     * @return
+     */
+    public int getFrames() {
+        return mFrames;
+    }
+
+    /**
+     * returns the number of frames that came more than one and a half frame
+     * budgets after the previous one, meaning at least one frame was dropped
+     * 
+     * @return
+     */
+    public int getFramesOverBudget() {
+        return mFramesOverBudget;
+    }
+
+    /**
+     * returns the longest time between two frames in nanoseconds
+     * 
+     * @return
+     */
+    public long getLongestFrameNanos() {
+        return mLongestFrameNanos;
+    }
+
+    /**
+     * returns the time between the first and the last frame in nanoseconds
+     * 
+     * @return
+     */
+    public long getDurationNanos() {
+        return mLastFrameNanos - mFirstFrameNanos;
+    }
+
+    /**
+     * returns the average time between a touch event and the start of the
+     * frame that showed it in nanoseconds, 0 for animations
+     * 
+     * @return
+     */
+    public long getMeanLatencyNanos() {
+        return mLatencies == 0 ? 0 : mLatencySumNanos / mLatencies;
+    }
+
+    /**
+     * returns the longest time between a touch event and the start of the
+     * frame that showed it in nanoseconds, 0 for animations
+     * 
+     * @return
+     */
+    public long getMaxLatencyNanos() {
+        return mMaxLatencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "frames: " + mFrames + ", over budget: " + mFramesOverBudget + ", longest: "
+                + mLongestFrameNanos / 1000000f + "ms, latency: " + getMeanLatencyNanos()
+                / 1000000f + "ms (max " + mMaxLatencyNanos / 1000000f + "ms)";
+    }
+}
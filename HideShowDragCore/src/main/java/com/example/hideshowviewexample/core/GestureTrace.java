@@ -0,0 +1,408 @@
+package com.example.hideshowviewexample.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A recorded stream of touch events and hide / show calls. Every event
+ * consists of one or more samples (the historical samples of a MotionEvent
+ * followed by its current one) with a position for every pointer of the
+ * event. Samples are kept in primitive arrays and are written as a compact
+ * binary trace: times as millisecond deltas and positions as 1/16 pixel deltas
+ * per pointer, both as variable length integers.
+ * 
+ * @author Philipp Jahoda
+ */
+public class GestureTrace {
+
+    /** action of an entry that is a call of show() instead of a touch event */
+    public static final int ACTION_SHOW = 0x40;
+
+    /** action of an entry that is a call of hide() instead of a touch event */
+    public static final int ACTION_HIDE = 0x41;
+
+    private static final int MAGIC = 0x48534754; // "HSGT"
+
+    private static final int VERSION = 1;
+
+    /** fixed point precision of the stored positions */
+    private static final float POSITION_SCALE = 16f;
+
+    private int mEventCount = 0;
+    private int[] mActions = new int[64];
+    private int[] mActionIndices = new int[64];
+    private int[] mFirstSample = new int[65];
+    private int[] mFirstPointer = new int[65];
+    private int[] mFirstPosition = new int[65];
+
+    private int mPointerIdCount = 0;
+    private int[] mPointerIds = new int[64];
+
+    private int mSampleCount = 0;
+    private long[] mTimes = new long[256];
+
+    private int mPositionCount = 0;
+    private float[] mX = new float[256];
+    private float[] mY = new float[256];
+
+    /**
+     * starts a new event with a single pointer with id 0, the samples of the
+     * event are added via addSample() afterwards
+     * 
+     * @param action the masked MotionEvent action, ACTION_SHOW or ACTION_HIDE
+     */
+    public void beginEvent(int action) {
+        beginEvent(action, 0);
+        addPointer(0);
+    }
+
+    /**
+     * starts a new event, its pointers are added via addPointer() and then
+     * its samples via addSample()
+     * 
+     * @param action the masked MotionEvent action, ACTION_SHOW or ACTION_HIDE
+     * @param actionIndex index of the pointer that went down or up
+     */
+    public void beginEvent(int action, int actionIndex) {
+
+        if (mEventCount + 1 == mActions.length) {
+            mActions = grow(mActions);
+            mActionIndices = grow(mActionIndices);
+            mFirstSample = grow(mFirstSample);
+            mFirstPointer = grow(mFirstPointer);
+            mFirstPosition = grow(mFirstPosition);
+        }
+
+        mActions[mEventCount] = action;
+        mActionIndices[mEventCount] = actionIndex;
+        mFirstSample[mEventCount] = mSampleCount;
+        mFirstPointer[mEventCount] = mPointerIdCount;
+        mFirstPosition[mEventCount] = mPositionCount;
+        mEventCount++;
+        mFirstSample[mEventCount] = mSampleCount;
+        mFirstPointer[mEventCount] = mPointerIdCount;
+        mFirstPosition[mEventCount] = mPositionCount;
+    }
+
+    /**
+     * adds a pointer to the event that has been started last, all pointers
+     * have to be added before the first sample
+     * 
+     * @param id the pointer id
+     */
+    public void addPointer(int id) {
+
+        checkEvent();
+
+        if (getSampleCount(mEventCount - 1) > 0)
+            throw new IllegalStateException("pointers need to be added before the samples");
+
+        if (mPointerIdCount == mPointerIds.length)
+            mPointerIds = grow(mPointerIds);
+
+        mPointerIds[mPointerIdCount++] = id;
+        mFirstPointer[mEventCount] = mPointerIdCount;
+    }
+
+    /**
+     * adds a sample to the event that has been started last, which needs to
+     * have a single pointer
+     * 
+     * @param timeMillis
+     * @param x raw x-position of the pointer
+     * @param y raw y-position of the pointer
+     */
+    public void addSample(long timeMillis, float x, float y) {
+
+        checkEvent();
+
+        if (getPointerCount(mEventCount - 1) != 1)
+            throw new IllegalStateException("the event does not have a single pointer");
+
+        addTime(timeMillis);
+        addPosition(x, y);
+    }
+
+    /**
+     * adds a sample to the event that has been started last with the
+     * positions of all of its pointers, in the order they were added
+     * 
+     * @param timeMillis
+     * @param x raw x-positions of the pointers
+     * @param y raw y-positions of the pointers
+     */
+    public void addSample(long timeMillis, float[] x, float[] y) {
+
+        checkEvent();
+        addTime(timeMillis);
+
+        for (int p = 0, count = getPointerCount(mEventCount - 1); p < count; p++)
+            addPosition(x[p], y[p]);
+    }
+
+    private void checkEvent() {
+        if (mEventCount == 0)
+            throw new IllegalStateException("beginEvent() needs to be called before addSample()");
+    }
+
+    private void addTime(long timeMillis) {
+
+        if (mSampleCount == mTimes.length) {
+            long[] times = new long[mSampleCount * 2];
+            System.arraycopy(mTimes, 0, times, 0, mSampleCount);
+            mTimes = times;
+        }
+
+        mTimes[mSampleCount++] = timeMillis;
+        mFirstSample[mEventCount] = mSampleCount;
+    }
+
+    private void addPosition(float x, float y) {
+
+        if (mPositionCount == mX.length) {
+            mX = grow(mX);
+            mY = grow(mY);
+        }
+
+        mX[mPositionCount] = x;
+        mY[mPositionCount] = y;
+        mPositionCount++;
+        mFirstPosition[mEventCount] = mPositionCount;
+    }
+
+    /**
+     * removes all events
+     */
+    public void clear() {
+        mEventCount = 0;
+        mSampleCount = 0;
+        mPointerIdCount = 0;
+        mPositionCount = 0;
+        mFirstSample[0] = 0;
+        mFirstPointer[0] = 0;
+        mFirstPosition[0] = 0;
+    }
+
+    public int getEventCount() {
+        return mEventCount;
+    }
+
+    public int getAction(int event) {
+        return mActions[event];
+    }
+
+    /**
+     * returns the index of the pointer that went down or up in the given
+     * event, 0 for all other events
+     * 
+     * @param event
+     * @return
+     */
+    public int getActionIndex(int event) {
+        return mActionIndices[event];
+    }
+
+    public int getPointerCount(int event) {
+        return mFirstPointer[event + 1] - mFirstPointer[event];
+    }
+
+    public int getPointerId(int event, int pointer) {
+        return mPointerIds[mFirstPointer[event] + pointer];
+    }
+
+    /**
+     * returns the number of samples of the given event, the last one is the
+     * current sample, the ones before are historical
+     * 
+     * @param event
+     * @return
+     */
+    public int getSampleCount(int event) {
+        return mFirstSample[event + 1] - mFirstSample[event];
+    }
+
+    public long getTime(int event, int sample) {
+        return mTimes[mFirstSample[event] + sample];
+    }
+
+    /**
+     * returns the x-position of the first pointer of the given sample
+     * 
+     * @param event
+     * @param sample
+     * @return
+     */
+    public float getX(int event, int sample) {
+        return getX(event, sample, 0);
+    }
+
+    /**
+     * returns the y-position of the first pointer of the given sample
+     * 
+     * @param event
+     * @param sample
+     * @return
+     */
+    public float getY(int event, int sample) {
+        return getY(event, sample, 0);
+    }
+
+    public float getX(int event, int sample, int pointer) {
+        return mX[mFirstPosition[event] + sample * getPointerCount(event) + pointer];
+    }
+
+    public float getY(int event, int sample, int pointer) {
+        return mY[mFirstPosition[event] + sample * getPointerCount(event) + pointer];
+    }
+
+    /**
+     * returns the time of the given event, the time of its current sample
+     * 
+     * @param event
+     * @return
+     */
+    public long getEventTime(int event) {
+        return mTimes[mFirstSample[event + 1] - 1];
+    }
+
+    /**
+     * writes the trace in its binary format
+     * 
+     * @param out
+     * @throws IOException
+     */
+    public void write(OutputStream out) throws IOException {
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        VarInts.write(data, mEventCount);
+
+        long lastTime = mSampleCount > 0 ? mTimes[0] : 0;
+
+        // the positions are stored as deltas to the last position of the
+        // pointer at the same index
+        int maxPointers = 0;
+        for (int e = 0; e < mEventCount; e++)
+            maxPointers = Math.max(maxPointers, getPointerCount(e));
+
+        int[] lastX = new int[maxPointers];
+        int[] lastY = new int[maxPointers];
+
+        data.writeLong(lastTime);
+
+        for (int e = 0; e < mEventCount; e++) {
+
+            int pointers = getPointerCount(e);
+
+            data.writeByte(mActions[e]);
+            VarInts.write(data, mActionIndices[e]);
+            VarInts.write(data, pointers);
+
+            for (int p = 0; p < pointers; p++)
+                VarInts.write(data, getPointerId(e, p));
+
+            VarInts.write(data, getSampleCount(e));
+
+            for (int s = 0; s < getSampleCount(e); s++) {
+
+                long time = getTime(e, s);
+                VarInts.write(data, VarInts.zigZag((int) (time - lastTime)));
+                lastTime = time;
+
+                for (int p = 0; p < pointers; p++) {
+
+                    int x = Math.round(getX(e, s, p) * POSITION_SCALE);
+                    int y = Math.round(getY(e, s, p) * POSITION_SCALE);
+
+                    VarInts.write(data, VarInts.zigZag(x - lastX[p]));
+                    VarInts.write(data, VarInts.zigZag(y - lastY[p]));
+
+                    lastX[p] = x;
+                    lastY[p] = y;
+                }
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * reads a trace that has been written by write()
+     * 
+     * @param in
+     * @return
+     * @throws IOException if the data is not a valid trace
+     */
+    public static GestureTrace read(InputStream in) throws IOException {
+
+        DataInputStream data = new DataInputStream(in);
+
+        if (data.readInt() != MAGIC)
+            throw new IOException("not a gesture trace");
+
+        int version = data.readUnsignedByte();
+        if (version != VERSION)
+            throw new IOException("unsupported gesture trace version " + version);
+
+        GestureTrace trace = new GestureTrace();
+        int events = VarInts.read(data);
+
+        long lastTime = data.readLong();
+        int[] lastX = new int[1];
+        int[] lastY = new int[1];
+        float[] x = new float[1];
+        float[] y = new float[1];
+
+        for (int e = 0; e < events; e++) {
+
+            trace.beginEvent(data.readUnsignedByte(), VarInts.read(data));
+            int pointers = VarInts.read(data);
+
+            for (int p = 0; p < pointers; p++)
+                trace.addPointer(VarInts.read(data));
+
+            if (pointers > lastX.length) {
+                lastX = copyOf(lastX, pointers);
+                lastY = copyOf(lastY, pointers);
+                x = new float[pointers];
+                y = new float[pointers];
+            }
+
+            int samples = VarInts.read(data);
+
+            for (int s = 0; s < samples; s++) {
+
+                lastTime += VarInts.unZigZag(VarInts.read(data));
+
+                for (int p = 0; p < pointers; p++) {
+                    lastX[p] += VarInts.unZigZag(VarInts.read(data));
+                    lastY[p] += VarInts.unZigZag(VarInts.read(data));
+                    x[p] = lastX[p] / POSITION_SCALE;
+                    y[p] = lastY[p] / POSITION_SCALE;
+                }
+
+                trace.addSample(lastTime, x, y);
+            }
+        }
+        return trace;
+    }
+
+    private static int[] copyOf(int[] array, int length) {
+        int[] copy = new int[length];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static int[] grow(int[] array) {
+        return copyOf(array, array.length * 2);
+    }
+
+    private static float[] grow(float[] array) {
+        float[] grown = new float[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.hideshowviewexample.core;
+
+/**
+ * Moves a rectangle out of the rectangles of a SpatialGrid it overlaps. The
+ * rectangle is pushed out of every overlapping rectangle along the axis and
+ * direction that needs the shortest move, which makes a dragged rectangle
+ * slide along the edges of the rectangles it runs into. Only the rectangles
+ * near the moved one are looked at, so the cost does not depend on the number
+ * of rectangles in the grid. Optional bounds keep the pushes inside an area.
+ * Does not allocate.
+ * 
+ * @author Philipp Jahoda
+ */
+public class OverlapResolver {
+
+    /** pushing out of one rectangle may push into another one */
+    private static final int MAX_PASSES = 4;
+
+    private final int[] mHits;
+
+    private int mLeft, mTop;
+
+    private boolean mBounded = false;
+
+    /** range of the left and top edge the rectangle is pushed within */
+    private int mMinLeft, mMinTop, mMaxLeft, mMaxTop;
+
+    /**
+     * @param maxNeighbors maximum number of rectangles looked at per pass
+     */
+    public OverlapResolver(int maxNeighbors) {
+        mHits = new int[maxNeighbors];
+    }
+
+    /**
+     * keeps the pushes within the given range of the left and top edge of the
+     * rectangle, a push that would move the rectangle out of the range, or
+     * further out of it if it already is outside, is not made, an overlap
+     * that can only be resolved that way remains
+     * 
+     * @param minLeft
+     * @param minTop
+     * @param maxLeft
+     * @param maxTop
+     */
+    public void setBounds(int minLeft, int minTop, int maxLeft, int maxTop) {
+        mBounded = true;
+        mMinLeft = minLeft;
+        mMinTop = minTop;
+        mMaxLeft = Math.max(minLeft, maxLeft);
+        mMaxTop = Math.max(minTop, maxTop);
+    }
+
+    /**
+     * removes the bounds, the rectangle can be pushed anywhere
+     */
+    public void clearBounds() {
+        mBounded = false;
+    }
+
+    /**
+     * moves the given rectangle out of all rectangles of the grid it overlaps,
+     * the resolved position is available via getLeft() and getTop()
+     * 
+     * @param grid
+     * @param self id of the rectangle in the grid, it is ignored, -1 if it is
+     *            not in the grid
+     * @param left
+     * @param top
+     * @param width
+     * @param height
+     * @param gap space that is kept to the other rectangles
+     * @return true if the rectangle has been moved
+     */
+    public boolean resolve(SpatialGrid grid, int self, int left, int top, int width, int height,
+            int gap) {
+
+        mLeft = left;
+        mTop = top;
+
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+
+            int hits = grid.queryRect(mLeft - gap, mTop - gap, mLeft + width + gap, mTop
+                    + height + gap, mHits);
+
+            boolean moved = false;
+
+            for (int i = 0; i < hits; i++) {
+
+                int id = mHits[i];
+
+                if (id == self)
+                    continue;
+
+                int otherLeft = grid.getLeft(id) - gap;
+                int otherTop = grid.getTop(id) - gap;
+                int otherRight = grid.getRight(id) + gap;
+                int otherBottom = grid.getBottom(id) + gap;
+
+                // an earlier push of this pass may have resolved the overlap
+                if (mLeft >= otherRight || mLeft + width <= otherLeft || mTop >= otherBottom
+                        || mTop + height <= otherTop)
+                    continue;
+
+                int toLeft = otherLeft - (mLeft + width);
+                int toRight = otherRight - mLeft;
+                int toTop = otherTop - (mTop + height);
+                int toBottom = otherBottom - mTop;
+
+                // the shortest allowed push, on a tie vertical before
+                // horizontal and down / right before up / left
+                int dx = 0;
+                int dy = 0;
+                int shortest = Integer.MAX_VALUE;
+
+                if (-toTop < shortest && isAllowed(mTop, mTop + toTop, mMinTop, mMaxTop)) {
+                    shortest = -toTop;
+                    dy = toTop;
+                }
+                if (toBottom <= shortest
+                        && isAllowed(mTop, mTop + toBottom, mMinTop, mMaxTop)) {
+                    shortest = toBottom;
+                    dy = toBottom;
+                }
+                if (toRight < shortest
+                        && isAllowed(mLeft, mLeft + toRight, mMinLeft, mMaxLeft)) {
+                    shortest = toRight;
+                    dx = toRight;
+                    dy = 0;
+                }
+                if (-toLeft < shortest
+                        && isAllowed(mLeft, mLeft + toLeft, mMinLeft, mMaxLeft)) {
+                    dx = toLeft;
+                    dy = 0;
+                }
+
+                if (dx == 0 && dy == 0)
+                    continue;
+
+                mLeft += dx;
+                mTop += dy;
+                moved = true;
+            }
+
+            if (!moved)
+                break;
+        }
+
+        return mLeft != left || mTop != top;
+    }
+
+    /**
+     * returns true if an edge may be pushed from the given position to the
+     * other one
+     * 
+     * @param from
+     * @param to
+     * @param min
+     * @param max
+     * @return
+     */
+    private boolean isAllowed(int from, int to, int min, int max) {
+
+        if (!mBounded)
+            return true;
+
+        return (to >= min || to >= from) && (to <= max || to <= from);
+    }
+
+    /**
+     * returns the resolved left edge of the last resolve() call
+     * 
+     * @return
+     */
+    public int getLeft() {
+        return mLeft;
+    }
+
+    /**
+     * returns the resolved top edge of the last resolve() call
+     * 
+     * @return
+     */
+    public int getTop() {
+        return mTop;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.hideshowviewexample.core;
+
+/**
+ * Positions along a curved path between two points, sampled at equal arc
+ * length, so that a fraction of the path maps to the same fraction of its
+ * length. The shape of the path is given in a unit space in which it starts
+ * at (0, 0) and ends at (1, 0), it is rotated and scaled onto the line between
+ * the two points, positive y-values bend a path that runs from left to right
+ * downwards like on the screen. Looking up a position is a lerp between two
+ * samples. Immutable, built on a background thread and read on the main
+ * thread.
+ * 
+ * @author Philipp Jahoda
+ */
+public final class PathKeyframes {
+
+    private final float mFromX, mFromY, mToX, mToY;
+
+    private final float[] mX;
+    private final float[] mY;
+
+    /**
+     * @param unitX x-values of the samples in unit space, at equal arc length
+     * @param unitY y-values of the samples in unit space, at equal arc length
+     * @param fromX
+     * @param fromY
+     * @param toX
+     * @param toY
+     */
+    public PathKeyframes(float[] unitX, float[] unitY, float fromX, float fromY, float toX,
+            float toY) {
+
+        if (unitX.length < 2 || unitX.length != unitY.length)
+            throw new IllegalArgumentException("At least two samples per axis needed");
+
+        this.mFromX = fromX;
+        this.mFromY = fromY;
+        this.mToX = toX;
+        this.mToY = toY;
+
+        float dx = toX - fromX;
+        float dy = toY - fromY;
+
+        mX = new float[unitX.length];
+        mY = new float[unitY.length];
+
+        for (int i = 0; i < mX.length; i++) {
+            mX[i] = fromX + unitX[i] * dx - unitY[i] * dy;
+            mY[i] = fromY + unitX[i] * dy + unitY[i] * dx;
+        }
+    }
+
+    /**
+     * returns true if the path has been built for the given end points
+     * 
+     * @param fromX
+     * @param fromY
+     * @param toX
+     * @param toY
+     * @return
+     */
+    public boolean matches(float fromX, float fromY, float toX, float toY) {
+        return mFromX == fromX && mFromY == fromY && mToX == toX && mToY == toY;
+    }
+
+    /**
+     * returns the number of samples
+     * 
+     * @return
+     */
+    public int size() {
+        return mX.length;
+    }
+
+    /**
+     * returns the x-position at the given fraction of the length of the path
+     * 
+     * @param fraction between 0 and 1, values outside are clamped
+     * @return
+     */
+    public float getX(float fraction) {
+        return lookup(mX, fraction);
+    }
+
+    /**
+     * returns the y-position at the given fraction of the length of the path
+     * 
+     * @param fraction between 0 and 1, values outside are clamped
+     * @return
+     */
+    public float getY(float fraction) {
+        return lookup(mY, fraction);
+    }
+
+    private static float lookup(float[] values, float fraction) {
+
+        int last = values.length - 1;
+
+        if (fraction <= 0f)
+            return values[0];
+
+        if (fraction >= 1f)
+            return values[last];
+
+        float position = fraction * last;
+        int index = (int) position;
+
+        return DragMath.interpolate(values[index], values[index + 1], position - index);
+    }
+}
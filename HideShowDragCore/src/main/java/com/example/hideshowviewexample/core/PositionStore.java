@@ -0,0 +1,354 @@
+package com.example.hideshowviewexample.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Show and hide positions and the shown state of views, keyed by view id.
+ * Entries are kept sorted by id in primitive arrays, so a lookup is a binary
+ * search and thousands of views take a few bytes each. The binary format
+ * stores the ids as deltas and the positions in 1/16 pixels, both as variable
+ * length integers. Not thread-safe.
+ * 
+ * @author Philipp Jahoda
+ */
+public class PositionStore {
+
+    private static final int MAGIC = 0x48535053; // "HSPS"
+
+    private static final int VERSION = 1;
+
+    /** fixed point precision of the stored positions */
+    private static final float POSITION_SCALE = 16f;
+
+    private int mSize = 0;
+    private int[] mIds = new int[16];
+    private float[] mShowX = new float[16];
+    private float[] mShowY = new float[16];
+    private float[] mHideX = new float[16];
+    private float[] mHideY = new float[16];
+    private boolean[] mShown = new boolean[16];
+
+    /** true if an entry has changed since the store was read or written */
+    private boolean mModified = false;
+
+    /**
+     * stores the positions and the state of the view with the given id,
+     * replaces the entry stored before
+     * 
+     * @param id
+     * @param showX
+     * @param showY
+     * @param hideX
+     * @param hideY
+     * @param shown
+     */
+    public void put(int id, float showX, float showY, float hideX, float hideY, boolean shown) {
+
+        int index = binarySearch(id);
+
+        if (index < 0) {
+
+            index = -index - 1;
+
+            if (mSize == mIds.length)
+                grow();
+
+            int moved = mSize - index;
+            System.arraycopy(mIds, index, mIds, index + 1, moved);
+            System.arraycopy(mShowX, index, mShowX, index + 1, moved);
+            System.arraycopy(mShowY, index, mShowY, index + 1, moved);
+            System.arraycopy(mHideX, index, mHideX, index + 1, moved);
+            System.arraycopy(mHideY, index, mHideY, index + 1, moved);
+            System.arraycopy(mShown, index, mShown, index + 1, moved);
+
+            mIds[index] = id;
+            mSize++;
+
+        } else if (mShowX[index] == showX && mShowY[index] == showY
+                && mHideX[index] == hideX && mHideY[index] == hideY
+                && mShown[index] == shown) {
+            return;
+        }
+
+        mShowX[index] = showX;
+        mShowY[index] = showY;
+        mHideX[index] = hideX;
+        mHideY[index] = hideY;
+        mShown[index] = shown;
+        mModified = true;
+    }
+
+    /**
+     * removes the entry of the view with the given id
+     * 
+     * @param id
+     */
+    public void remove(int id) {
+
+        int index = binarySearch(id);
+
+        if (index < 0)
+            return;
+
+        int moved = mSize - index - 1;
+        System.arraycopy(mIds, index + 1, mIds, index, moved);
+        System.arraycopy(mShowX, index + 1, mShowX, index, moved);
+        System.arraycopy(mShowY, index + 1, mShowY, index, moved);
+        System.arraycopy(mHideX, index + 1, mHideX, index, moved);
+        System.arraycopy(mHideY, index + 1, mHideY, index, moved);
+        System.arraycopy(mShown, index + 1, mShown, index, moved);
+
+        mSize--;
+        mModified = true;
+    }
+
+    /**
+     * removes all entries
+     */
+    public void clear() {
+
+        if (mSize > 0)
+            mModified = true;
+
+        mSize = 0;
+    }
+
+    /**
+     * returns the number of stored views
+     * 
+     * @return
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * returns the index of the entry of the view with the given id, -1 if
+     * there is none, the index is valid until the store is changed
+     * 
+     * @param id
+     * @return
+     */
+    public int indexOf(int id) {
+        int index = binarySearch(id);
+        return index < 0 ? -1 : index;
+    }
+
+    public int getId(int index) {
+        return mIds[index];
+    }
+
+    public float getShowX(int index) {
+        return mShowX[index];
+    }
+
+    public float getShowY(int index) {
+        return mShowY[index];
+    }
+
+    public float getHideX(int index) {
+        return mHideX[index];
+    }
+
+    public float getHideY(int index) {
+        return mHideY[index];
+    }
+
+    public boolean isShown(int index) {
+        return mShown[index];
+    }
+
+    /**
+     * returns true if an entry has changed since the store was last read or
+     * written, so that writing can be skipped otherwise
+     * 
+     * @return
+     */
+    public boolean isModified() {
+        return mModified;
+    }
+
+    /**
+     * writes the store in its binary format
+     * 
+     * @param out
+     * @throws IOException
+     */
+    public void write(OutputStream out) throws IOException {
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        VarInts.write(data, mSize);
+
+        int lastId = 0;
+
+        for (int i = 0; i < mSize; i++) {
+
+            // ids are sorted, only the first delta can be negative
+            VarInts.write(data, VarInts.zigZag(mIds[i] - lastId));
+            data.writeByte(mShown[i] ? 1 : 0);
+            writePosition(data, mShowX[i]);
+            writePosition(data, mShowY[i]);
+            writePosition(data, mHideX[i]);
+            writePosition(data, mHideY[i]);
+
+            lastId = mIds[i];
+        }
+        data.flush();
+
+        mModified = false;
+    }
+
+    /**
+     * reads a store that has been written by write()
+     * 
+     * @param in
+     * @return
+     * @throws IOException if the data is not a valid store
+     */
+    public static PositionStore read(InputStream in) throws IOException {
+
+        DataInputStream data = new DataInputStream(in);
+
+        if (data.readInt() != MAGIC)
+            throw new IOException("not a position store");
+
+        int version = data.readUnsignedByte();
+        if (version != VERSION)
+            throw new IOException("unsupported position store version " + version);
+
+        PositionStore store = new PositionStore();
+        int size = VarInts.read(data);
+        int lastId = 0;
+
+        for (int i = 0; i < size; i++) {
+
+            lastId += VarInts.unZigZag(VarInts.read(data));
+            boolean shown = data.readUnsignedByte() != 0;
+
+            float showX = readPosition(data);
+            float showY = readPosition(data);
+            float hideX = readPosition(data);
+            float hideY = readPosition(data);
+
+            store.put(lastId, showX, showY, hideX, hideY, shown);
+        }
+
+        store.mModified = false;
+        return store;
+    }
+
+    /**
+     * writes the store into the given file, the file is replaced at once so
+     * that a process that dies while writing does not leave half a store
+     * behind
+     * 
+     * @param file
+     * @throws IOException
+     */
+    public void writeTo(File file) throws IOException {
+
+        File temp = new File(file.getPath() + ".tmp");
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(temp));
+
+        try {
+            write(out);
+        } finally {
+            out.close();
+        }
+
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("could not replace " + file);
+        }
+    }
+
+    /**
+     * reads the store from the given file, returns an empty store if the file
+     * does not exist yet
+     * 
+     * @param file
+     * @return
+     * @throws IOException if the file is not a valid store
+     */
+    public static PositionStore readFrom(File file) throws IOException {
+
+        InputStream in;
+
+        try {
+            in = new BufferedInputStream(new FileInputStream(file));
+        } catch (FileNotFoundException e) {
+            return new PositionStore();
+        }
+
+        try {
+            return read(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private int binarySearch(int id) {
+
+        int low = 0;
+        int high = mSize - 1;
+
+        while (low <= high) {
+
+            int mid = (low + high) >>> 1;
+            int midId = mIds[mid];
+
+            if (midId < id)
+                low = mid + 1;
+            else if (midId > id)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -(low + 1);
+    }
+
+    private void grow() {
+
+        int capacity = mIds.length * 2;
+
+        int[] ids = new int[capacity];
+        System.arraycopy(mIds, 0, ids, 0, mSize);
+        mIds = ids;
+
+        mShowX = grow(mShowX, capacity);
+        mShowY = grow(mShowY, capacity);
+        mHideX = grow(mHideX, capacity);
+        mHideY = grow(mHideY, capacity);
+
+        boolean[] shown = new boolean[capacity];
+        System.arraycopy(mShown, 0, shown, 0, mSize);
+        mShown = shown;
+    }
+
+    private float[] grow(float[] values, int capacity) {
+
+        float[] grown = new float[capacity];
+        System.arraycopy(values, 0, grown, 0, mSize);
+        return grown;
+    }
+
+    private static void writePosition(DataOutputStream out, float position) throws IOException {
+        VarInts.write(out, VarInts.zigZag(Math.round(position * POSITION_SCALE)));
+    }
+
+    private static float readPosition(DataInputStream in) throws IOException {
+        return VarInts.unZigZag(VarInts.read(in)) / POSITION_SCALE;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.hideshowviewexample.core;
+
+import java.util.Arrays;
+
+/**
+ * Result of replaying a GestureTrace: the time spent handling every event and
+ * counters of what the replay caused.
+ * 
+ * @author Philipp Jahoda
+ */
+public class ReplayReport {
+
+    private final long[] mEventNanos;
+
+    private int mEventCount = 0;
+
+    private long mLayoutRequests = 0;
+    private long mFrames = 0;
+
+    private int mShowCallbacks = 0;
+    private int mHideCallbacks = 0;
+    private int mDragStartCallbacks = 0;
+    private int mDragFinishedCallbacks = 0;
+
+    /**
+     * @param capacity the number of events that will be reported
+     */
+    public ReplayReport(int capacity) {
+        mEventNanos = new long[capacity];
+    }
+
+    /**
+     * records the CPU time handling one event took
+     * 
+     * @param nanos
+     */
+    public void addEventTime(long nanos) {
+        mEventNanos[mEventCount++] = nanos;
+    }
+
+    public void setLayoutRequests(long layoutRequests) {
+        this.mLayoutRequests = layoutRequests;
+    }
+
+    public void setFrames(long frames) {
+        this.mFrames = frames;
+    }
+
+    public void onShowCallback() {
+        mShowCallbacks++;
+    }
+
+    public void onHideCallback() {
+        mHideCallbacks++;
+    }
+
+    public void onDragStartCallback() {
+        mDragStartCallbacks++;
+    }
+
+    public void onDragFinishedCallback() {
+        mDragFinishedCallbacks++;
+    }
+
+    public int getEventCount() {
+        return mEventCount;
+    }
+
+    /**
+     * returns the CPU time handling the given event took in nanoseconds
+     * 
+     * @param event
+     * @return
+     */
+    public long getEventNanos(int event) {
+        return mEventNanos[event];
+    }
+
+    public long getTotalNanos() {
+
+        long total = 0;
+        for (int i = 0; i < mEventCount; i++)
+            total += mEventNanos[i];
+
+        return total;
+    }
+
+    /**
+     * returns the CPU time per event below which the given share of events
+     * was handled
+     * 
+     * @param percentile between 0 and 100
+     * @return
+     */
+    public long getPercentileNanos(float percentile) {
+
+        if (mEventCount == 0)
+            return 0;
+
+        long[] sorted = Arrays.copyOf(mEventNanos, mEventCount);
+        Arrays.sort(sorted);
+
+        int index = (int) Math.ceil(percentile / 100f * mEventCount) - 1;
+        return sorted[Math.max(0, Math.min(mEventCount - 1, index))];
+    }
+
+    /**
+     * returns the number of layout passes the replay requested
+     * 
+     * @return
+     */
+    public long getLayoutRequests() {
+        return mLayoutRequests;
+    }
+
+    /**
+     * returns the number of frames that were stepped during the replay
+     * 
+     * @return
+     */
+    public long getFrames() {
+        return mFrames;
+    }
+
+    public int getShowCallbacks() {
+        return mShowCallbacks;
+    }
+
+    public int getHideCallbacks() {
+        return mHideCallbacks;
+    }
+
+    public int getDragStartCallbacks() {
+        return mDragStartCallbacks;
+    }
+
+    public int getDragFinishedCallbacks() {
+        return mDragFinishedCallbacks;
+    }
+
+    @Override
+    public String toString() {
+        return "events: " + mEventCount + ", total: " + getTotalNanos() / 1000 + "us, p50: "
+                + getPercentileNanos(50) / 1000 + "us, p99: " + getPercentileNanos(99) / 1000
+                + "us, layout requests: " + mLayoutRequests + ", frames: " + mFrames
+                + ", show: " + mShowCallbacks + ", hide: " + mHideCallbacks + ", drag start: "
+                + mDragStartCallbacks + ", drag finished: " + mDragFinishedCallbacks;
+    }
+}
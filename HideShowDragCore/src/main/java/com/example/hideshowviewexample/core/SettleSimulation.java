@@ -0,0 +1,193 @@
+package com.example.hideshowviewexample.core;
+
+/**
+ * Physics used to settle a view after it has been released. The release
+ * velocity is decayed by friction to predict where a fling would come to rest,
+ * the view is then moved to its target by a damped spring that starts with the
+ * release velocity. The spring is solved analytically, so stepping is stable
+ * for any frame interval and does not allocate.
+ * 
+ * @author Philipp Jahoda
+ */
+public class SettleSimulation {
+
+    /** distance in pixels below which the spring counts as settled */
+    private static final float REST_DISTANCE = 0.5f;
+
+    /** velocity in pixels per second below which the spring counts as settled */
+    private static final float REST_VELOCITY = 20f;
+
+    /** friction of the fling, 1 / seconds */
+    private float mFriction = 4f;
+
+    /** angular frequency of the spring, sqrt(stiffness) */
+    private float mOmega = (float) Math.sqrt(200f);
+
+    /** damping ratio of the spring, 1 is critically damped */
+    private float mDampingRatio = 0.8f;
+
+    private float mX, mY;
+    private float mVelocityX, mVelocityY;
+    private float mTargetX, mTargetY;
+
+    private boolean mRunning = false;
+
+    /**
+     * sets the friction that slows down a fling, higher values make flings
+     * shorter, default: 4
+     * 
+     * @param friction
+     */
+    public void setFriction(float friction) {
+        this.mFriction = friction;
+    }
+
+    /**
+     * sets the stiffness and the damping ratio (0 - 1, 1 means no overshoot)
+     * of the spring, default: 200 / 0.8
+     * 
+     * @param stiffness
+     * @param dampingRatio
+     */
+    public void setSpring(float stiffness, float dampingRatio) {
+        this.mOmega = (float) Math.sqrt(stiffness);
+        this.mDampingRatio = Math.max(0.01f, Math.min(1f, dampingRatio));
+    }
+
+    /**
+     * returns the position at which a fling with the given velocity would
+     * come to rest if only friction was applied
+     * 
+     * @param position
+     * @param velocity in pixels per second
+     * @return
+     */
+    public float projectRest(float position, float velocity) {
+        return position + velocity / mFriction;
+    }
+
+    /**
+     * starts settling from the given position and velocity towards the target
+     * 
+     * @param x
+     * @param y
+     * @param velocityX
+     * @param velocityY
+     * @param targetX
+     * @param targetY
+     */
+    public void start(float x, float y, float velocityX, float velocityY, float targetX,
+            float targetY) {
+        mX = x;
+        mY = y;
+        mVelocityX = velocityX;
+        mVelocityY = velocityY;
+        mTargetX = targetX;
+        mTargetY = targetY;
+        mRunning = true;
+    }
+
+    /**
+     * advances the simulation, returns false once the target has been reached
+     * 
+     * @param seconds
+     * @return
+     */
+    public boolean step(float seconds) {
+
+        if (!mRunning)
+            return false;
+
+        float dx = mX - mTargetX;
+        float dy = mY - mTargetY;
+
+        float vx = mVelocityX;
+        float vy = mVelocityY;
+
+        mX = mTargetX + displacement(dx, vx, seconds);
+        mVelocityX = velocity(dx, vx, seconds);
+        mY = mTargetY + displacement(dy, vy, seconds);
+        mVelocityY = velocity(dy, vy, seconds);
+
+        if (Math.abs(mX - mTargetX) < REST_DISTANCE && Math.abs(mY - mTargetY) < REST_DISTANCE
+                && Math.abs(mVelocityX) < REST_VELOCITY && Math.abs(mVelocityY) < REST_VELOCITY) {
+            stop();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * ends the simulation at the target position
+     */
+    public void stop() {
+        mX = mTargetX;
+        mY = mTargetY;
+        mVelocityX = 0;
+        mVelocityY = 0;
+        mRunning = false;
+    }
+
+    /**
+     * returns true if the simulation has not reached its target yet
+     * 
+     * @return
+     */
+    public boolean isRunning() {
+        return mRunning;
+    }
+
+    public float getX() {
+        return mX;
+    }
+
+    public float getY() {
+        return mY;
+    }
+
+    public float getTargetX() {
+        return mTargetX;
+    }
+
+    public float getTargetY() {
+        return mTargetY;
+    }
+
+    /**
+     * displacement from the target after t seconds
+     */
+    private float displacement(float d, float v, float t) {
+
+        float zw = mDampingRatio * mOmega;
+        float decay = (float) Math.exp(-zw * t);
+
+        if (mDampingRatio >= 1f)
+            return (d + (v + mOmega * d) * t) * decay;
+
+        float wd = mOmega * (float) Math.sqrt(1f - mDampingRatio * mDampingRatio);
+        float b = (v + zw * d) / wd;
+
+        return decay * (d * (float) Math.cos(wd * t) + b * (float) Math.sin(wd * t));
+    }
+
+    /**
+     * velocity after t seconds
+     */
+    private float velocity(float d, float v, float t) {
+
+        float zw = mDampingRatio * mOmega;
+        float decay = (float) Math.exp(-zw * t);
+
+        if (mDampingRatio >= 1f) {
+            float b = v + mOmega * d;
+            return (b - mOmega * (d + b * t)) * decay;
+        }
+
+        float wd = mOmega * (float) Math.sqrt(1f - mDampingRatio * mDampingRatio);
+        float b = (v + zw * d) / wd;
+        float cos = (float) Math.cos(wd * t);
+        float sin = (float) Math.sin(wd * t);
+
+        return decay * (-zw * (d * cos + b * sin) + wd * (b * cos - d * sin));
+    }
+}
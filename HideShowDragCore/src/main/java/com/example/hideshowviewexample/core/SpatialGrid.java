@@ -0,0 +1,327 @@
+package com.example.hideshowviewexample.core;
+
+/**
+ * Uniform grid of rectangles identified by small non-negative int ids. Every
+ * rectangle is registered in the cells it overlaps, so point and rectangle
+ * queries only look at the rectangles near the queried area. Moving a
+ * rectangle only touches the cells it leaves and enters. Rectangles outside
+ * of the grid bounds are kept in the border cells. Queries do not allocate.
+ * 
+ * @author Philipp Jahoda
+ */
+public class SpatialGrid {
+
+    private static final int INITIAL_BUCKET_SIZE = 4;
+
+    private final int mCellSize;
+
+    private int mColumns = 1;
+    private int mRows = 1;
+
+    /** ids registered in every cell, row by row */
+    private int[][] mCells = new int[1][INITIAL_BUCKET_SIZE];
+    private int[] mCellCounts = new int[1];
+
+    /** bounds of every id, only valid if mPresent is set */
+    private int[] mLeft = new int[16];
+    private int[] mTop = new int[16];
+    private int[] mRight = new int[16];
+    private int[] mBottom = new int[16];
+    private boolean[] mPresent = new boolean[16];
+
+    /** cell range every id is registered in */
+    private int[] mCellLeft = new int[16];
+    private int[] mCellTop = new int[16];
+    private int[] mCellRight = new int[16];
+    private int[] mCellBottom = new int[16];
+
+    /** marks ids that have already been reported by the running query */
+    private int[] mQueryStamps = new int[16];
+    private int mQueryStamp = 0;
+
+    private int mSize = 0;
+
+    /**
+     * @param cellSize edge length of a cell, should be about the size of the
+     *            stored rectangles
+     */
+    public SpatialGrid(int cellSize) {
+        this.mCellSize = Math.max(1, cellSize);
+    }
+
+    /**
+     * sets the area covered by the grid, all rectangles are registered again
+     * 
+     * @param width
+     * @param height
+     */
+    public void setBounds(int width, int height) {
+
+        int columns = Math.max(1, (width + mCellSize - 1) / mCellSize);
+        int rows = Math.max(1, (height + mCellSize - 1) / mCellSize);
+
+        if (columns == mColumns && rows == mRows)
+            return;
+
+        mColumns = columns;
+        mRows = rows;
+        mCells = new int[columns * rows][];
+        mCellCounts = new int[columns * rows];
+
+        for (int id = 0; id < mPresent.length; id++) {
+            if (mPresent[id])
+                register(id);
+        }
+    }
+
+    /**
+     * adds the rectangle with the given id or moves it if it is already
+     * stored
+     * 
+     * @param id
+     * @param left
+     * @param top
+     * @param right
+     * @param bottom
+     */
+    public void put(int id, int left, int top, int right, int bottom) {
+
+        ensureCapacity(id + 1);
+
+        mLeft[id] = left;
+        mTop[id] = top;
+        mRight[id] = right;
+        mBottom[id] = bottom;
+
+        if (mPresent[id]) {
+
+            // only touch the cells if the rectangle changed cells
+            if (column(left) == mCellLeft[id] && row(top) == mCellTop[id]
+                    && column(right) == mCellRight[id] && row(bottom) == mCellBottom[id])
+                return;
+
+            unregister(id);
+        } else {
+            mPresent[id] = true;
+            mSize++;
+        }
+
+        register(id);
+    }
+
+    /**
+     * removes the rectangle with the given id
+     * 
+     * @param id
+     */
+    public void remove(int id) {
+
+        if (!contains(id))
+            return;
+
+        unregister(id);
+        mPresent[id] = false;
+        mSize--;
+    }
+
+    /**
+     * returns true if a rectangle with the given id is stored
+     * 
+     * @param id
+     * @return
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < mPresent.length && mPresent[id];
+    }
+
+    /**
+     * returns the number of stored rectangles
+     * 
+     * @return
+     */
+    public int size() {
+        return mSize;
+    }
+
+    public int getLeft(int id) {
+        return mLeft[id];
+    }
+
+    public int getTop(int id) {
+        return mTop[id];
+    }
+
+    public int getRight(int id) {
+        return mRight[id];
+    }
+
+    public int getBottom(int id) {
+        return mBottom[id];
+    }
+
+    /**
+     * writes the ids of all rectangles containing the given point into out
+     * 
+     * @param x
+     * @param y
+     * @param out
+     * @return the number of ids written, at most out.length
+     */
+    public int queryPoint(int x, int y, int[] out) {
+
+        int cell = row(y) * mColumns + column(x);
+        int[] bucket = mCells[cell];
+        int found = 0;
+
+        for (int i = 0; i < mCellCounts[cell] && found < out.length; i++) {
+
+            int id = bucket[i];
+
+            if (x >= mLeft[id] && x < mRight[id] && y >= mTop[id] && y < mBottom[id])
+                out[found++] = id;
+        }
+        return found;
+    }
+
+    /**
+     * writes the ids of all rectangles intersecting the given rectangle into
+     * out, every id is reported once
+     * 
+     * @param left
+     * @param top
+     * @param right
+     * @param bottom
+     * @param out
+     * @return the number of ids written, at most out.length
+     */
+    public int queryRect(int left, int top, int right, int bottom, int[] out) {
+
+        int stamp = nextQueryStamp();
+        int found = 0;
+
+        for (int row = row(top); row <= row(bottom); row++) {
+            for (int column = column(left); column <= column(right); column++) {
+
+                int cell = row * mColumns + column;
+                int[] bucket = mCells[cell];
+
+                for (int i = 0; i < mCellCounts[cell]; i++) {
+
+                    int id = bucket[i];
+
+                    if (mQueryStamps[id] == stamp)
+                        continue;
+
+                    mQueryStamps[id] = stamp;
+
+                    if (left < mRight[id] && right > mLeft[id] && top < mBottom[id]
+                            && bottom > mTop[id]) {
+
+                        if (found == out.length)
+                            return found;
+
+                        out[found++] = id;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private int nextQueryStamp() {
+
+        mQueryStamp++;
+
+        // start over once the counter wraps around
+        if (mQueryStamp == 0) {
+            for (int i = 0; i < mQueryStamps.length; i++)
+                mQueryStamps[i] = 0;
+            mQueryStamp = 1;
+        }
+        return mQueryStamp;
+    }
+
+    private int column(int x) {
+        return Math.max(0, Math.min(mColumns - 1, x / mCellSize));
+    }
+
+    private int row(int y) {
+        return Math.max(0, Math.min(mRows - 1, y / mCellSize));
+    }
+
+    private void register(int id) {
+
+        mCellLeft[id] = column(mLeft[id]);
+        mCellTop[id] = row(mTop[id]);
+        mCellRight[id] = column(mRight[id]);
+        mCellBottom[id] = row(mBottom[id]);
+
+        for (int row = mCellTop[id]; row <= mCellBottom[id]; row++) {
+            for (int column = mCellLeft[id]; column <= mCellRight[id]; column++) {
+
+                int cell = row * mColumns + column;
+                int[] bucket = mCells[cell];
+
+                if (bucket == null) {
+                    bucket = new int[INITIAL_BUCKET_SIZE];
+                    mCells[cell] = bucket;
+                } else if (mCellCounts[cell] == bucket.length) {
+                    int[] grown = new int[bucket.length * 2];
+                    System.arraycopy(bucket, 0, grown, 0, bucket.length);
+                    bucket = grown;
+                    mCells[cell] = bucket;
+                }
+
+                bucket[mCellCounts[cell]++] = id;
+            }
+        }
+    }
+
+    private void unregister(int id) {
+
+        for (int row = mCellTop[id]; row <= mCellBottom[id]; row++) {
+            for (int column = mCellLeft[id]; column <= mCellRight[id]; column++) {
+
+                int cell = row * mColumns + column;
+                int[] bucket = mCells[cell];
+                int count = mCellCounts[cell];
+
+                for (int i = 0; i < count; i++) {
+                    if (bucket[i] == id) {
+                        bucket[i] = bucket[count - 1];
+                        mCellCounts[cell] = count - 1;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+
+        if (capacity <= mPresent.length)
+            return;
+
+        int size = Math.max(capacity, mPresent.length * 2);
+
+        mLeft = grow(mLeft, size);
+        mTop = grow(mTop, size);
+        mRight = grow(mRight, size);
+        mBottom = grow(mBottom, size);
+        mCellLeft = grow(mCellLeft, size);
+        mCellTop = grow(mCellTop, size);
+        mCellRight = grow(mCellRight, size);
+        mCellBottom = grow(mCellBottom, size);
+        mQueryStamps = grow(mQueryStamps, size);
+
+        boolean[] present = new boolean[size];
+        System.arraycopy(mPresent, 0, present, 0, mPresent.length);
+        mPresent = present;
+    }
+
+    private static int[] grow(int[] array, int size) {
+        int[] grown = new int[size];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.hideshowviewexample.core;
+
+/**
+ * Predicts where a dragging finger will be at a time shortly after its latest
+ * touch sample, e.g. at the vsync that displays the next frame, so that the
+ * dragged view does not trail behind the finger. Velocity and acceleration
+ * are estimated by a least squares fit over the samples of the last few
+ * milliseconds, kept in a small ring buffer. The prediction is clamped where
+ * the gesture reverses or decelerates to a stop. Predictions are compared
+ * against the real position once the finger has passed their time, one at a
+ * time. Does not allocate.
+ * 
+ * @author Philipp Jahoda
+ */
+public class TouchPredictor {
+
+    /** number of samples that are kept */
+    private static final int CAPACITY = 8;
+
+    /** only samples this much older than the latest one are used */
+    private static final long WINDOW_NANOS = 40000000L;
+
+    /** predictions are never made further ahead than this */
+    private static final long MAX_HORIZON_NANOS = 50000000L;
+
+    /** samples in a ring buffer, mHead is the index of the latest one */
+    private final long[] mTimes = new long[CAPACITY];
+    private final float[] mX = new float[CAPACITY];
+    private final float[] mY = new float[CAPACITY];
+    private int mHead = -1;
+    private int mCount = 0;
+
+    /** estimated velocity in pixels per millisecond */
+    private float mVelocityX, mVelocityY;
+
+    /** estimated acceleration in pixels per square millisecond */
+    private float mAccelerationX, mAccelerationY;
+
+    private float mPredictedX, mPredictedY;
+
+    /**
+     * the prediction that is compared to the real position once the finger
+     * has passed its time, no other prediction is compared until then
+     */
+    private boolean mPredictionPending = false;
+    private long mPredictionNanos;
+    private float mPendingX, mPendingY;
+
+    /**
+     * removes all samples, called at the start of a gesture
+     */
+    public void reset() {
+        mHead = -1;
+        mCount = 0;
+        mVelocityX = mVelocityY = 0;
+        mAccelerationX = mAccelerationY = 0;
+        mPredictionPending = false;
+    }
+
+    /**
+     * returns the number of samples of the current gesture, at most the size
+     * of the ring buffer
+     * 
+     * @return
+     */
+    public int getSampleCount() {
+        return mCount;
+    }
+
+    /**
+     * adds a touch sample, samples have to be added in the order they were
+     * taken, a sample with the time of the latest one replaces it, returns the
+     * distance between the compared prediction and the real position if this
+     * sample is the first one at or after its time, -1 otherwise
+     * 
+     * @param timeNanos
+     * @param x
+     * @param y
+     * @return
+     */
+    public float addSample(long timeNanos, float x, float y) {
+
+        float error = -1f;
+
+        if (mCount > 0) {
+
+            long lastTime = mTimes[mHead];
+
+            if (timeNanos < lastTime)
+                return error;
+
+            if (mPredictionPending && timeNanos >= mPredictionNanos) {
+                mPredictionPending = false;
+
+                // the real position at the predicted time lies between the
+                // latest sample and this one
+                float fraction = timeNanos == lastTime ? 1f
+                        : (mPredictionNanos - lastTime) / (float) (timeNanos - lastTime);
+                float realX = DragMath.interpolate(mX[mHead], x, fraction);
+                float realY = DragMath.interpolate(mY[mHead], y, fraction);
+
+                error = (float) Math.sqrt(DragMath.distanceSquared(realX, realY, mPendingX,
+                        mPendingY));
+            }
+
+            if (timeNanos == lastTime) {
+                mX[mHead] = x;
+                mY[mHead] = y;
+                estimate();
+                return error;
+            }
+        }
+
+        mHead = (mHead + 1) % CAPACITY;
+        mTimes[mHead] = timeNanos;
+        mX[mHead] = x;
+        mY[mHead] = y;
+
+        if (mCount < CAPACITY)
+            mCount++;
+
+        estimate();
+        return error;
+    }
+
+    /**
+     * predicts the position of the finger at the given time, the result can be
+     * read via getPredictedX() and getPredictedY()
+     * 
+     * @param timeNanos
+     */
+    public void predict(long timeNanos) {
+
+        if (mCount == 0)
+            return;
+
+        long horizon = Math.max(0, Math.min(timeNanos - mTimes[mHead], MAX_HORIZON_NANOS));
+        float h = horizon / 1000000f;
+
+        mPredictedX = mX[mHead] + displacement(mVelocityX, mAccelerationX, h);
+        mPredictedY = mY[mHead] + displacement(mVelocityY, mAccelerationY, h);
+
+        if (!mPredictionPending && horizon > 0) {
+            mPredictionPending = true;
+            mPredictionNanos = mTimes[mHead] + horizon;
+            mPendingX = mPredictedX;
+            mPendingY = mPredictedY;
+        }
+    }
+
+    /**
+     * returns the x-position of the latest prediction
+     * 
+     * @return
+     */
+    public float getPredictedX() {
+        return mPredictedX;
+    }
+
+    /**
+     * returns the y-position of the latest prediction
+     * 
+     * @return
+     */
+    public float getPredictedY() {
+        return mPredictedY;
+    }
+
+    /**
+     * returns the estimated x-velocity in pixels per second
+     * 
+     * @return
+     */
+    public float getVelocityX() {
+        return mVelocityX * 1000f;
+    }
+
+    /**
+     * returns the estimated y-velocity in pixels per second
+     * 
+     * @return
+     */
+    public float getVelocityY() {
+        return mVelocityY * 1000f;
+    }
+
+    /**
+     * returns how far the finger moves within h milliseconds on one axis, a
+     * deceleration only moves it until it would come to a stop
+     * 
+     * @param v
+     * @param a
+     * @param h
+     * @return
+     */
+    private static float displacement(float v, float a, float h) {
+
+        // a deceleration would turn the finger around, it stops instead
+        if (a * v < 0 && -v / a < h)
+            h = -v / a;
+
+        return v * h + 0.5f * a * h * h;
+    }
+
+    /**
+     * fits a parabola to the samples of the last few milliseconds on both
+     * axes, its slope and curvature at the latest sample are the velocity and
+     * acceleration
+     */
+    private void estimate() {
+
+        long now = mTimes[mHead];
+
+        // sums of the powers of the sample times relative to the latest one
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0, s4 = 0;
+        double sx = 0, stx = 0, st2x = 0;
+        double sy = 0, sty = 0, st2y = 0;
+
+        for (int i = 0; i < mCount; i++) {
+
+            int index = (mHead - i + CAPACITY) % CAPACITY;
+            long age = now - mTimes[index];
+
+            if (age > WINDOW_NANOS)
+                break;
+
+            double t = -age / 1000000.0;
+            double t2 = t * t;
+            double x = mX[index];
+            double y = mY[index];
+
+            s0++;
+            s1 += t;
+            s2 += t2;
+            s3 += t2 * t;
+            s4 += t2 * t2;
+            sx += x;
+            stx += t * x;
+            st2x += t2 * x;
+            sy += y;
+            sty += t * y;
+            st2y += t2 * y;
+        }
+
+        mVelocityX = mVelocityY = 0;
+        mAccelerationX = mAccelerationY = 0;
+
+        if (s0 < 2)
+            return;
+
+        // determinant of the normal equations of the parabola
+        double det = s0 * (s2 * s4 - s3 * s3) - s1 * (s1 * s4 - s3 * s2) + s2 * (s1 * s3 - s2 * s2);
+
+        if (s0 >= 3 && Math.abs(det) > 1e-9) {
+
+            mVelocityX = (float) ((s0 * (stx * s4 - s3 * st2x) - sx * (s1 * s4 - s3 * s2) + s2
+                    * (s1 * st2x - stx * s2)) / det);
+            mAccelerationX = (float) (2 * (s0 * (s2 * st2x - stx * s3) - s1
+                    * (s1 * st2x - stx * s2) + sx * (s1 * s3 - s2 * s2)) / det);
+            mVelocityY = (float) ((s0 * (sty * s4 - s3 * st2y) - sy * (s1 * s4 - s3 * s2) + s2
+                    * (s1 * st2y - sty * s2)) / det);
+            mAccelerationY = (float) (2 * (s0 * (s2 * st2y - sty * s3) - s1
+                    * (s1 * st2y - sty * s2) + sy * (s1 * s3 - s2 * s2)) / det);
+        } else {
+
+            // too few samples for a curvature, fit a line instead
+            double lineDet = s0 * s2 - s1 * s1;
+
+            if (Math.abs(lineDet) > 1e-9) {
+                mVelocityX = (float) ((s0 * stx - s1 * sx) / lineDet);
+                mVelocityY = (float) ((s0 * sty - s1 * sy) / lineDet);
+            }
+        }
+
+        // the gesture has just reversed, extrapolating would overshoot in the
+        // old direction
+        int previous = (mHead - 1 + CAPACITY) % CAPACITY;
+
+        if ((mX[mHead] - mX[previous]) * mVelocityX < 0) {
+            mVelocityX = 0;
+            mAccelerationX = 0;
+        }
+
+        if ((mY[mHead] - mY[previous]) * mVelocityY < 0) {
+            mVelocityY = 0;
+            mAccelerationY = 0;
+        }
+    }
+}
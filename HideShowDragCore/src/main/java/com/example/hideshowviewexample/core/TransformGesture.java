@@ -0,0 +1,299 @@
+package com.example.hideshowviewexample.core;
+
+/**
+ * Translation, scale and rotation of a view manipulated by several fingers.
+ * The pointers are kept in primitive arrays indexed by pointer id. Every time
+ * a finger goes down or up the current transform becomes the base of the
+ * gesture, so that adding or lifting a finger does not make the view jump.
+ * The point of the view under the centroid of the fingers stays under the
+ * centroid while it is scaled and rotated. All positions are in the
+ * coordinates of the parent of the view. Does not allocate.
+ * 
+ * @author Philipp Jahoda
+ */
+public class TransformGesture {
+
+    /** pointers with a higher id are ignored */
+    public static final int MAX_POINTERS = 16;
+
+    /** distance below which two fingers are too close to scale or rotate */
+    private static final float MIN_SPAN = 1f;
+
+    private final boolean[] mDown = new boolean[MAX_POINTERS];
+    private final float[] mX = new float[MAX_POINTERS];
+    private final float[] mY = new float[MAX_POINTERS];
+
+    private int mPointerCount = 0;
+
+    private float mMinScale = 0.25f;
+    private float mMaxScale = 4f;
+
+    /** position of the pivot of the view in the parent at a translation of 0 */
+    private float mOriginX, mOriginY;
+
+    private float mTranslationX, mTranslationY;
+    private float mScale = 1f;
+    private float mRotation = 0f;
+
+    /** transform when the pointers last changed */
+    private float mBaseTranslationX, mBaseTranslationY, mBaseScale, mBaseRotation;
+
+    /** centroid, span and angle of the pointers when they last changed */
+    private float mRefCentroidX, mRefCentroidY, mRefSpan, mRefAngle;
+
+    /**
+     * starts a gesture from the current transform of the view
+     * 
+     * @param originX x-position of the pivot of the view in the parent at a
+     *            translation of 0
+     * @param originY y-position of the pivot of the view in the parent at a
+     *            translation of 0
+     * @param translationX
+     * @param translationY
+     * @param scale
+     * @param rotation in degrees
+     */
+    public void begin(float originX, float originY, float translationX, float translationY,
+            float scale, float rotation) {
+
+        for (int i = 0; i < MAX_POINTERS; i++)
+            mDown[i] = false;
+
+        mPointerCount = 0;
+        mOriginX = originX;
+        mOriginY = originY;
+        mTranslationX = translationX;
+        mTranslationY = translationY;
+        mScale = scale;
+        mRotation = rotation;
+    }
+
+    /**
+     * sets the range the scale is clamped to, default: 0.25 to 4
+     * 
+     * @param min
+     * @param max
+     */
+    public void setScaleRange(float min, float max) {
+        this.mMinScale = min;
+        this.mMaxScale = max;
+    }
+
+    /**
+     * adds a finger that went down
+     * 
+     * @param id
+     * @param x
+     * @param y
+     */
+    public void pointerDown(int id, float x, float y) {
+
+        if (id < 0 || id >= MAX_POINTERS || mDown[id])
+            return;
+
+        mDown[id] = true;
+        mX[id] = x;
+        mY[id] = y;
+        mPointerCount++;
+        rebase();
+    }
+
+    /**
+     * updates the position of a finger, the transform is updated by update()
+     * once all fingers of an event have been moved
+     * 
+     * @param id
+     * @param x
+     * @param y
+     */
+    public void pointerMove(int id, float x, float y) {
+
+        if (id < 0 || id >= MAX_POINTERS || !mDown[id])
+            return;
+
+        mX[id] = x;
+        mY[id] = y;
+    }
+
+    /**
+     * removes a finger that went up
+     * 
+     * @param id
+     */
+    public void pointerUp(int id) {
+
+        if (id < 0 || id >= MAX_POINTERS || !mDown[id])
+            return;
+
+        mDown[id] = false;
+        mPointerCount--;
+        rebase();
+    }
+
+    /**
+     * lifts all fingers that are still down, called when the gesture ends or
+     * is cancelled, the transform is kept
+     */
+    public void end() {
+
+        for (int i = 0; i < MAX_POINTERS; i++)
+            mDown[i] = false;
+
+        mPointerCount = 0;
+    }
+
+    /**
+     * calculates the transform from the current positions of the fingers
+     */
+    public void update() {
+
+        if (mPointerCount == 0)
+            return;
+
+        float scale = mBaseScale;
+        float rotation = mBaseRotation;
+
+        int first = firstPointer(0);
+        int second = firstPointer(first + 1);
+
+        if (second >= 0 && mRefSpan >= MIN_SPAN) {
+
+            float dx = mX[second] - mX[first];
+            float dy = mY[second] - mY[first];
+            float span = (float) Math.sqrt(dx * dx + dy * dy);
+
+            if (span >= MIN_SPAN) {
+                scale = Math.max(mMinScale, Math.min(mMaxScale, mBaseScale * span / mRefSpan));
+                rotation = mBaseRotation
+                        + normalizeDegrees((float) Math.toDegrees(Math.atan2(dy, dx))
+                                - mRefAngle);
+            }
+        }
+
+        float centroidX = centroidX();
+        float centroidY = centroidY();
+
+        // vector from the pivot to the point under the centroid at the base,
+        // scaled and rotated like the view
+        float dx = mRefCentroidX - (mOriginX + mBaseTranslationX);
+        float dy = mRefCentroidY - (mOriginY + mBaseTranslationY);
+
+        double radians = Math.toRadians(rotation - mBaseRotation);
+        float cos = (float) Math.cos(radians);
+        float sin = (float) Math.sin(radians);
+        float factor = scale / mBaseScale;
+
+        float rx = (dx * cos - dy * sin) * factor;
+        float ry = (dx * sin + dy * cos) * factor;
+
+        mTranslationX = centroidX - mOriginX - rx;
+        mTranslationY = centroidY - mOriginY - ry;
+        mScale = scale;
+        mRotation = rotation;
+    }
+
+    /**
+     * returns the number of fingers that are down
+     * 
+     * @return
+     */
+    public int getPointerCount() {
+        return mPointerCount;
+    }
+
+    public float getTranslationX() {
+        return mTranslationX;
+    }
+
+    public float getTranslationY() {
+        return mTranslationY;
+    }
+
+    public float getScale() {
+        return mScale;
+    }
+
+    /**
+     * returns the rotation in degrees
+     * 
+     * @return
+     */
+    public float getRotation() {
+        return mRotation;
+    }
+
+    /**
+     * makes the current transform and the current fingers the base of the
+     * gesture
+     */
+    private void rebase() {
+
+        mBaseTranslationX = mTranslationX;
+        mBaseTranslationY = mTranslationY;
+        mBaseScale = mScale;
+        mBaseRotation = mRotation;
+
+        if (mPointerCount == 0)
+            return;
+
+        mRefCentroidX = centroidX();
+        mRefCentroidY = centroidY();
+
+        int first = firstPointer(0);
+        int second = firstPointer(first + 1);
+
+        if (second >= 0) {
+            float dx = mX[second] - mX[first];
+            float dy = mY[second] - mY[first];
+            mRefSpan = (float) Math.sqrt(dx * dx + dy * dy);
+            mRefAngle = (float) Math.toDegrees(Math.atan2(dy, dx));
+        } else {
+            mRefSpan = 0f;
+            mRefAngle = 0f;
+        }
+    }
+
+    private int firstPointer(int from) {
+
+        for (int i = from; i < MAX_POINTERS; i++) {
+            if (mDown[i])
+                return i;
+        }
+        return -1;
+    }
+
+    private float centroidX() {
+
+        float sum = 0;
+
+        for (int i = 0; i < MAX_POINTERS; i++) {
+            if (mDown[i])
+                sum += mX[i];
+        }
+        return sum / mPointerCount;
+    }
+
+    private float centroidY() {
+
+        float sum = 0;
+
+        for (int i = 0; i < MAX_POINTERS; i++) {
+            if (mDown[i])
+                sum += mY[i];
+        }
+        return sum / mPointerCount;
+    }
+
+    /**
+     * returns the given angle in the range of -180 to 180 degrees
+     */
+    private static float normalizeDegrees(float degrees) {
+
+        while (degrees > 180f)
+            degrees -= 360f;
+        while (degrees <= -180f)
+            degrees += 360f;
+
+        return degrees;
+    }
+}
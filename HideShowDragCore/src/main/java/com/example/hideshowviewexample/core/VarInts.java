@@ -0,0 +1,50 @@
+package com.example.hideshowviewexample.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Variable length integers of the binary formats, small values take a single
+ * byte, zig-zag encoding keeps small negative values small as well.
+ * 
+ * @author Philipp Jahoda
+ */
+final class VarInts {
+
+    private VarInts() {
+    }
+
+    static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void write(DataOutputStream out, int value) throws IOException {
+
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int read(DataInputStream in) throws IOException {
+
+        int value = 0;
+
+        for (int shift = 0; shift < 35; shift += 7) {
+
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new EOFException("malformed variable length integer");
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.hideshowviewexample.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Makes sure that the core math the view runs for every event of a drag and
+ * every frame of a hide / show does not allocate: constraints, prediction,
+ * the transform gesture, the settle simulation, curves and paths. The Android
+ * side of those paths (onTouchEvent(), the TransitionAnimator, the
+ * FrameTicker, listener dispatch and layout) is not run here. Each sequence
+ * is first run a few times to load the classes and let the JIT settle, then
+ * the fewest bytes allocated by one of the following runs are counted, a
+ * steady state allocation shows up in every run.
+ * 
+ * @author Philipp Jahoda
+ */
+public class AllocationTest {
+
+    private static final int DRAG_EVENTS = 1000;
+
+    private static final int TOGGLES = 100;
+
+    /** frames of one hide or show at 60 fps and 500 milliseconds */
+    private static final int FRAMES_PER_TOGGLE = 30;
+
+    private static final long FRAME_NANOS = 16666667L;
+
+    private static final int WARM_UP_RUNS = 5;
+
+    private static final int MEASURED_RUNS = 5;
+
+    private com.sun.management.ThreadMXBean mThreads;
+
+    private long mThreadId;
+
+    private final DragConstraints mConstraints = new DragConstraints();
+    private final TouchPredictor mPredictor = new TouchPredictor();
+    private final TransformGesture mGesture = new TransformGesture();
+    private final SettleSimulation mSettle = new SettleSimulation();
+    private final CurveTable mCurve = new CurveTable(CurveTable.CURVE_ACCELERATE_DECELERATE, 1f);
+
+    private final PathKeyframes mPath = new PathKeyframes(new float[] {
+            0f, 0.5f, 1f
+    }, new float[] {
+            0f, 0.25f, 0f
+    }, 0f, 0f, 400f, 800f);
+
+    /** keeps the results alive so that the work is not optimized away */
+    private float mSink;
+
+    @Before
+    public void setUp() {
+
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+
+        mThreads = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(mThreads.isThreadAllocatedMemorySupported());
+
+        mThreads.setThreadAllocatedMemoryEnabled(true);
+        mThreadId = Thread.currentThread().getId();
+    }
+
+    @Test
+    public void dragMathDoesNotAllocate() {
+        assertEquals("bytes allocated by the math of " + DRAG_EVENTS + " drag events", 0,
+                minAllocatedBytes(true));
+    }
+
+    @Test
+    public void toggleMathDoesNotAllocate() {
+        assertEquals("bytes allocated by the math of " + TOGGLES + " toggles", 0,
+                minAllocatedBytes(false));
+    }
+
+    /**
+     * returns the fewest bytes allocated by one run of the drag or of the
+     * toggles after warming up
+     * 
+     * @param drag
+     * @return
+     */
+    private long minAllocatedBytes(boolean drag) {
+
+        for (int i = 0; i < WARM_UP_RUNS; i++)
+            run(drag);
+
+        long overhead = measureOverhead();
+        long min = Long.MAX_VALUE;
+
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long before = allocatedBytes();
+            run(drag);
+            min = Math.min(min, allocatedBytes() - before - overhead);
+        }
+
+        return min;
+    }
+
+    private void run(boolean drag) {
+        if (drag)
+            drag();
+        else
+            toggle();
+    }
+
+    /**
+     * a drag across the screen with the second finger scaling and rotating
+     * the view, released into a settle
+     */
+    private void drag() {
+
+        float offsetX = DragMath.touchOffset(100f, 80);
+        float offsetY = DragMath.touchOffset(300f, 280);
+
+        mConstraints.begin(80, 280);
+        mConstraints.setBounds(0, 0, 500, 600);
+        mConstraints.setOverDrag(60f);
+
+        mPredictor.reset();
+
+        mGesture.begin(200f, 400f, 0f, 0f, 1f, 0f);
+        mGesture.pointerDown(0, 100f, 300f);
+        mGesture.pointerDown(1, 200f, 300f);
+
+        long time = 0;
+        int left = 80;
+        int top = 280;
+
+        for (int i = 0; i < DRAG_EVENTS; i++) {
+
+            time += 4000000L;
+
+            float rawX = 100f + i * 0.75f + (float) Math.sin(i * 0.1) * 4f;
+            float rawY = 300f + i * 0.5f + (float) Math.cos(i * 0.1) * 4f;
+
+            left = mConstraints.constrainLeft(DragMath.dragMargin(rawX, offsetX));
+            top = mConstraints.constrainTop(DragMath.dragMargin(rawY, offsetY));
+            mSink += DragMath.dragTranslation(0f, left, 80);
+
+            mSink += mPredictor.addSample(time, rawX, rawY);
+            mPredictor.predict(time + FRAME_NANOS);
+            mSink += mPredictor.getPredictedX() + mPredictor.getPredictedY();
+
+            mGesture.pointerMove(0, rawX, rawY);
+            mGesture.pointerMove(1, rawX + 100f + i * 0.1f, rawY - i * 0.05f);
+            mGesture.update();
+            mSink += mGesture.getTranslationX() + mGesture.getScale() + mGesture.getRotation();
+        }
+
+        mGesture.pointerUp(1);
+        mGesture.pointerUp(0);
+
+        left = mConstraints.clampLeft(left);
+        top = mConstraints.clampTop(top);
+        mSink += DragMath.screenToAnimationY(top, 200, 75);
+
+        float restX = mSettle.projectRest(left, mPredictor.getVelocityX());
+        float restY = mSettle.projectRest(top, mPredictor.getVelocityY());
+
+        if (DragMath.isNearerToFirst(restX, restY, 0f, 0f, 500f, 600f))
+            mSettle.start(left, top, mPredictor.getVelocityX(), mPredictor.getVelocityY(), 0f, 0f);
+        else
+            mSettle.start(left, top, mPredictor.getVelocityX(), mPredictor.getVelocityY(), 500f,
+                    600f);
+
+        while (mSettle.step(FRAME_NANOS / 1000000000f))
+            mSink += mSettle.getX() + mSettle.getY();
+    }
+
+    /**
+     * hides and shows the view along a curved path with an interpolated
+     * position for every frame
+     */
+    private void toggle() {
+
+        for (int i = 0; i < TOGGLES; i++) {
+
+            boolean show = (i & 1) == 0;
+
+            for (int frame = 0; frame <= FRAMES_PER_TOGGLE; frame++) {
+
+                float fraction = DragMath.animationFraction(frame * FRAME_NANOS,
+                        FRAMES_PER_TOGGLE * FRAME_NANOS);
+                float value = mCurve.valueAt(show ? fraction : 1f - fraction);
+
+                mSink += DragMath.interpolate(0f, 400f, value) + mPath.getX(value)
+                        + mPath.getY(value);
+            }
+        }
+    }
+
+    private long allocatedBytes() {
+        return mThreads.getThreadAllocatedBytes(mThreadId);
+    }
+
+    /**
+     * returns the bytes allocated by reading the allocated bytes, if any
+     * 
+     * @return
+     */
+    private long measureOverhead() {
+        long before = allocatedBytes();
+        return allocatedBytes() - before;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.hideshowviewexample.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author Philipp Jahoda
+ */
+public class AnchorIndexTest {
+
+    @Test
+    public void emptyIndexHasNoNearest() {
+        assertEquals(-1, new AnchorIndex().nearest(0f, 0f));
+    }
+
+    @Test
+    public void nearestMatchesBruteForce() {
+
+        Random random = new Random(3);
+
+        for (int size : new int[] {
+                1, 2, 3, 15, 16, 17, 100, 1000
+        }) {
+
+            AnchorIndex anchors = new AnchorIndex();
+
+            for (int i = 0; i < size; i++)
+                anchors.add(random.nextFloat() * 1080f, random.nextFloat() * 1920f);
+
+            for (int q = 0; q < 500; q++) {
+                float x = random.nextFloat() * 1400f - 160f;
+                float y = random.nextFloat() * 2200f - 140f;
+                assertNearest(anchors, x, y);
+            }
+        }
+    }
+
+    @Test
+    public void nearestAfterMovingAnchors() {
+
+        Random random = new Random(5);
+        AnchorIndex anchors = new AnchorIndex();
+
+        for (int i = 0; i < 64; i++)
+            anchors.add(random.nextFloat() * 1000f, random.nextFloat() * 1000f);
+
+        for (int round = 0; round < 20; round++) {
+
+            anchors.set(random.nextInt(anchors.size()), random.nextFloat() * 1000f,
+                    random.nextFloat() * 1000f);
+
+            for (int q = 0; q < 50; q++)
+                assertNearest(anchors, random.nextFloat() * 1000f, random.nextFloat() * 1000f);
+        }
+    }
+
+    @Test
+    public void duplicateAnchorsReturnTheLowestId() {
+
+        AnchorIndex anchors = new AnchorIndex();
+
+        // a grid has many anchors on the same axis values and at equal
+        // distances
+        for (int i = 0; i < 10; i++)
+            for (int j = 0; j < 10; j++)
+                anchors.add(i * 100f, j * 100f);
+
+        anchors.add(300f, 300f);
+
+        for (int x = -50; x <= 1000; x += 25)
+            for (int y = -50; y <= 1000; y += 25)
+                assertNearest(anchors, x, y);
+
+        assertEquals(33, anchors.nearest(300f, 300f));
+    }
+
+    private static void assertNearest(AnchorIndex anchors, float x, float y) {
+
+        int expected = anchors.nearestLinear(x, y);
+        int actual = anchors.nearest(x, y);
+
+        assertEquals("nearest anchor of " + x + ", " + y, distance(anchors, expected, x, y),
+                distance(anchors, actual, x, y), 0f);
+        assertEquals("nearest anchor of " + x + ", " + y, expected, actual);
+    }
+
+    private static float distance(AnchorIndex anchors, int id, float x, float y) {
+        return DragMath.distanceSquared(x, y, anchors.getX(id), anchors.getY(id));
+    }
+}
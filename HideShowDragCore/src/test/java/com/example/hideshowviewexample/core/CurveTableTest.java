@@ -0,0 +1,65 @@
+package com.example.hideshowviewexample.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @author Philipp Jahoda
+ */
+public class CurveTableTest {
+
+    private static final int[] CURVES = {
+            CurveTable.CURVE_ACCELERATE, CurveTable.CURVE_DECELERATE,
+            CurveTable.CURVE_ACCELERATE_DECELERATE
+    };
+
+    @Test
+    public void tableIsCloseToTheFormula() {
+
+        for (int curve : CURVES) {
+            for (float factor : new float[] {
+                    0.5f, 1f, 2f
+            }) {
+                CurveTable table = new CurveTable(curve, factor);
+                assertTrue(table.maxError(10000) < 0.005f);
+            }
+        }
+    }
+
+    @Test
+    public void endsAreExactAndClamped() {
+
+        for (int curve : CURVES) {
+
+            CurveTable table = new CurveTable(curve, 1f);
+
+            assertEquals(0f, table.valueAt(0f), 0f);
+            assertEquals(1f, table.valueAt(1f), 1e-6f);
+            assertEquals(0f, table.valueAt(-0.5f), 0f);
+            assertEquals(1f, table.valueAt(1.5f), 1e-6f);
+        }
+    }
+
+    @Test
+    public void valuesIncrease() {
+
+        for (int curve : CURVES) {
+
+            CurveTable table = new CurveTable(curve, 1.5f);
+            float last = table.valueAt(0f);
+
+            for (int i = 1; i <= 1000; i++) {
+                float value = table.valueAt(i / 1000f);
+                assertTrue(value >= last);
+                last = value;
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownCurves() {
+        new CurveTable(7, 1f);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.hideshowviewexample.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Philipp Jahoda
+ */
+public class DragConstraintsTest {
+
+    private final DragConstraints mConstraints = new DragConstraints();
+
+    @Before
+    public void setUp() {
+        mConstraints.begin(10, 20);
+    }
+
+    @Test
+    public void unconstrainedByDefault() {
+        assertEquals(-500, mConstraints.constrainLeft(-500));
+        assertEquals(5000, mConstraints.constrainTop(5000));
+        assertEquals(-500, mConstraints.clampLeft(-500));
+    }
+
+    @Test
+    public void stopsAtTheBounds() {
+
+        mConstraints.setBounds(0, 0, 100, 200);
+
+        assertEquals(0, mConstraints.constrainLeft(-5));
+        assertEquals(100, mConstraints.constrainLeft(150));
+        assertEquals(50, mConstraints.constrainTop(50));
+        assertEquals(200, mConstraints.constrainTop(201));
+    }
+
+    @Test
+    public void areaSmallerThanTheViewKeepsTheMinimum() {
+
+        mConstraints.setBounds(30, 40, 10, 20);
+
+        assertEquals(30, mConstraints.constrainLeft(0));
+        assertEquals(30, mConstraints.constrainLeft(100));
+        assertEquals(40, mConstraints.clampTop(100));
+    }
+
+    @Test
+    public void rubberBandResistsAndNeverReachesTheOverDrag() {
+
+        mConstraints.setBounds(0, 0, 100, 200);
+        mConstraints.setOverDrag(40f);
+
+        // moves almost 1:1 right at the bound
+        assertEquals(101, mConstraints.constrainLeft(101));
+
+        int last = 100;
+
+        for (int left = 102; left < 10000; left += 7) {
+
+            int constrained = mConstraints.constrainLeft(left);
+
+            assertTrue(constrained >= last);
+            assertTrue(constrained <= left);
+            assertTrue(constrained <= 140);
+            last = constrained;
+        }
+
+        assertEquals(-20, mConstraints.constrainTop(-40));
+
+        // the release moves the view back into the bounds
+        assertEquals(100, mConstraints.clampLeft(mConstraints.constrainLeft(300)));
+        assertEquals(0, mConstraints.clampTop(mConstraints.constrainTop(-300)));
+    }
+
+    @Test
+    public void axisLockKeepsTheStartMargin() {
+
+        mConstraints.setAxis(DragConstraints.AXIS_HORIZONTAL);
+
+        assertEquals(20, mConstraints.constrainTop(99));
+        assertEquals(50, mConstraints.constrainLeft(50));
+        assertEquals(20, mConstraints.clampTop(-99));
+
+        mConstraints.setAxis(DragConstraints.AXIS_VERTICAL);
+
+        assertEquals(10, mConstraints.constrainLeft(99));
+        assertEquals(99, mConstraints.constrainTop(99));
+    }
+
+    @Test
+    public void clearedBoundsDoNotConstrain() {
+
+        mConstraints.setBounds(0, 0, 100, 200);
+        mConstraints.clearBounds();
+
+        assertEquals(-50, mConstraints.constrainLeft(-50));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.hideshowviewexample.core;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * @author Philipp Jahoda
+ */
+public class FrameStatsTest {
+
+    private static final long MS = 1000000L;
+
+    /** frame times start at an uptime, not at 0 */
+    private static final long START = 5000 * MS;
+
+    private final FrameStats mStats = new FrameStats();
+
+    @Test
+    public void countsFramesOverBudget() {
+
+        mStats.begin();
+        mStats.onFrame(START);
+        mStats.onFrame(START + 17 * MS);
+        mStats.onFrame(START + 33 * MS);
+
+        // two frames dropped
+        mStats.onFrame(START + 83 * MS);
+
+        assertEquals(4, mStats.getFrames());
+        assertEquals(1, mStats.getFramesOverBudget());
+        assertEquals(50 * MS, mStats.getLongestFrameNanos());
+        assertEquals(83 * MS, mStats.getDurationNanos());
+    }
+
+    @Test
+    public void jitterIsNotADroppedFrame() {
+
+        mStats.begin();
+        mStats.onFrame(START);
+        mStats.onFrame(START + 24 * MS);
+
+        assertEquals(0, mStats.getFramesOverBudget());
+    }
+
+    @Test
+    public void budgetOfTheDisplay() {
+
+        // 120 frames per second
+        mStats.setFrameBudgetNanos(8333333L);
+        mStats.begin();
+        mStats.onFrame(START);
+        mStats.onFrame(START + 17 * MS);
+
+        assertEquals(1, mStats.getFramesOverBudget());
+    }
+
+    @Test
+    public void pauseOfTheFingerIsNotALongFrame() {
+
+        mStats.begin();
+        mStats.onFrame(START, START - 5 * MS);
+
+        // the finger rested for half a second, the frame came 10ms after the
+        // event that ended the pause
+        mStats.onFrame(START + 500 * MS, START + 490 * MS);
+
+        assertEquals(2, mStats.getFrames());
+        assertEquals(0, mStats.getFramesOverBudget());
+        assertEquals(10 * MS, mStats.getLongestFrameNanos());
+    }
+
+    @Test
+    public void latencies() {
+
+        mStats.begin();
+
+        assertEquals(0, mStats.getMeanLatencyNanos());
+
+        mStats.onLatency(4 * MS);
+        mStats.onLatency(8 * MS);
+
+        assertEquals(6 * MS, mStats.getMeanLatencyNanos());
+        assertEquals(8 * MS, mStats.getMaxLatencyNanos());
+
+        // an event that came in after the frame had started
+        mStats.onLatency(-3 * MS);
+
+        assertEquals(4 * MS, mStats.getMeanLatencyNanos());
+        assertEquals(8 * MS, mStats.getMaxLatencyNanos());
+    }
+
+    @Test
+    public void beginClears() {
+
+        mStats.onFrame(START);
+        mStats.onFrame(START + 100 * MS);
+        mStats.onLatency(4 * MS);
+
+        mStats.begin();
+
+        assertEquals(0, mStats.getFrames());
+        assertEquals(0, mStats.getFramesOverBudget());
+        assertEquals(0, mStats.getLongestFrameNanos());
+        assertEquals(0, mStats.getDurationNanos());
+        assertEquals(0, mStats.getMeanLatencyNanos());
+        assertEquals(0, mStats.getMaxLatencyNanos());
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.hideshowviewexample.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author Philipp Jahoda
+ */
+public class GestureTraceTest {
+
+    @Test
+    public void keepsEventsAndSamples() {
+
+        GestureTrace trace = new GestureTrace();
+        trace.beginEvent(0);
+        trace.addSample(100, 1f, 2f);
+        trace.beginEvent(2);
+        trace.addSample(104, 3f, 4f);
+        trace.addSample(108, 5f, 6f);
+        trace.beginEvent(GestureTrace.ACTION_SHOW);
+
+        assertEquals(3, trace.getEventCount());
+        assertEquals(2, trace.getAction(1));
+        assertEquals(2, trace.getSampleCount(1));
+        assertEquals(0, trace.getSampleCount(2));
+        assertEquals(108, trace.getEventTime(1));
+        assertEquals(5f, trace.getX(1, 1), 0f);
+        assertEquals(GestureTrace.ACTION_SHOW, trace.getAction(2));
+
+        trace.clear();
+
+        assertEquals(0, trace.getEventCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void sampleNeedsEvent() {
+        new GestureTrace().addSample(0, 0f, 0f);
+    }
+
+    @Test
+    public void roundTripWithGrowthAndNegativeDeltas() throws IOException {
+
+        GestureTrace trace = new GestureTrace();
+        Random random = new Random(11);
+        long time = 1400000000000L;
+
+        // more events and samples than the initial capacities, positions that
+        // jump back and forth and times that may go backwards
+        for (int e = 0; e < 500; e++) {
+
+            if (e % 50 == 49) {
+                trace.beginEvent(random.nextBoolean() ? GestureTrace.ACTION_SHOW
+                        : GestureTrace.ACTION_HIDE);
+                continue;
+            }
+
+            trace.beginEvent(random.nextInt(4));
+
+            for (int s = 1 + random.nextInt(8); s > 0; s--) {
+                time += random.nextInt(40) - 8;
+                trace.addSample(time, (random.nextInt(40000) - 20000) / 16f,
+                        (random.nextInt(40000) - 20000) / 16f);
+            }
+        }
+
+        assertSameTrace(trace, roundTrip(trace));
+    }
+
+    @Test
+    public void keepsPointers() {
+
+        GestureTrace trace = new GestureTrace();
+        trace.beginEvent(5, 1);
+        trace.addPointer(0);
+        trace.addPointer(3);
+        trace.addSample(100, new float[] {
+                1f, 2f
+        }, new float[] {
+                3f, 4f
+        });
+        trace.addSample(104, new float[] {
+                5f, 6f
+        }, new float[] {
+                7f, 8f
+        });
+
+        assertEquals(1, trace.getActionIndex(0));
+        assertEquals(2, trace.getPointerCount(0));
+        assertEquals(3, trace.getPointerId(0, 1));
+        assertEquals(6f, trace.getX(0, 1, 1), 0f);
+        assertEquals(7f, trace.getY(0, 1, 0), 0f);
+        assertEquals(5f, trace.getX(0, 1), 0f);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void pointersNeedToComeFirst() {
+
+        GestureTrace trace = new GestureTrace();
+        trace.beginEvent(0);
+        trace.addSample(0, 0f, 0f);
+        trace.addPointer(1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void singlePositionNeedsSinglePointer() {
+
+        GestureTrace trace = new GestureTrace();
+        trace.beginEvent(5, 1);
+        trace.addPointer(0);
+        trace.addPointer(1);
+        trace.addSample(0, 0f, 0f);
+    }
+
+    @Test
+    public void multiTouchRoundTrip() throws IOException {
+
+        GestureTrace trace = new GestureTrace();
+        Random random = new Random(5);
+        long time = 1400000000000L;
+
+        // a varying number of fingers with ids that are not their indices
+        for (int e = 0; e < 300; e++) {
+
+            int pointers = 1 + random.nextInt(5);
+            float[] x = new float[pointers];
+            float[] y = new float[pointers];
+
+            trace.beginEvent(random.nextInt(7), random.nextInt(pointers));
+
+            for (int p = 0; p < pointers; p++)
+                trace.addPointer(random.nextInt(10));
+
+            for (int s = 1 + random.nextInt(4); s > 0; s--) {
+
+                time += random.nextInt(20);
+
+                for (int p = 0; p < pointers; p++) {
+                    x[p] = (random.nextInt(40000) - 20000) / 16f;
+                    y[p] = (random.nextInt(40000) - 20000) / 16f;
+                }
+
+                trace.addSample(time, x, y);
+            }
+        }
+
+        assertSameTrace(trace, roundTrip(trace));
+    }
+
+    @Test
+    public void emptyRoundTrip() throws IOException {
+        assertEquals(0, roundTrip(new GestureTrace()).getEventCount());
+    }
+
+    @Test
+    public void positionsAreRoundedToSixteenthPixels() throws IOException {
+
+        GestureTrace trace = new GestureTrace();
+        trace.beginEvent(0);
+        trace.addSample(0, 10.03f, -10.03f);
+
+        GestureTrace read = roundTrip(trace);
+
+        assertEquals(10f, read.getX(0, 0), 0f);
+        assertEquals(-10f, read.getY(0, 0), 0f);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherData() throws IOException {
+        GestureTrace.read(new ByteArrayInputStream(new byte[] {
+                1, 2, 3, 4, 5, 6
+        }));
+    }
+
+    private static GestureTrace roundTrip(GestureTrace trace) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trace.write(out);
+        return GestureTrace.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static void assertSameTrace(GestureTrace expected, GestureTrace actual) {
+
+        assertEquals(expected.getEventCount(), actual.getEventCount());
+
+        for (int e = 0; e < expected.getEventCount(); e++) {
+
+            assertEquals(expected.getAction(e), actual.getAction(e));
+            assertEquals(expected.getActionIndex(e), actual.getActionIndex(e));
+            assertEquals(expected.getPointerCount(e), actual.getPointerCount(e));
+            assertEquals(expected.getSampleCount(e), actual.getSampleCount(e));
+
+            for (int p = 0; p < expected.getPointerCount(e); p++)
+                assertEquals(expected.getPointerId(e, p), actual.getPointerId(e, p));
+
+            for (int s = 0; s < expected.getSampleCount(e); s++) {
+
+                assertEquals(expected.getTime(e, s), actual.getTime(e, s));
+
+                for (int p = 0; p < expected.getPointerCount(e); p++) {
+                    assertEquals(expected.getX(e, s, p), actual.getX(e, s, p), 0f);
+                    assertEquals(expected.getY(e, s, p), actual.getY(e, s, p), 0f);
+                }
+            }
+        }
+    }
+}
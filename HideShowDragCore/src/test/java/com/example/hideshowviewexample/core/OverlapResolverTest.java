@@ -0,0 +1,162 @@
+package com.example.hideshowviewexample.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Philipp Jahoda
+ */
+public class OverlapResolverTest {
+
+    private static final int TILE = 100;
+
+    private final OverlapResolver mResolver = new OverlapResolver(32);
+
+    private SpatialGrid mGrid;
+
+    @Before
+    public void setUp() {
+        mGrid = new SpatialGrid(TILE);
+        mGrid.setBounds(1080, 1920);
+    }
+
+    @Test
+    public void freePositionIsKept() {
+
+        mGrid.put(0, 0, 0, TILE, TILE);
+
+        assertFalse(mResolver.resolve(mGrid, -1, 100, 0, TILE, TILE, 0));
+        assertEquals(100, mResolver.getLeft());
+        assertEquals(0, mResolver.getTop());
+    }
+
+    @Test
+    public void ownRectangleIsIgnored() {
+
+        mGrid.put(0, 0, 0, TILE, TILE);
+
+        assertFalse(mResolver.resolve(mGrid, 0, 10, 10, TILE, TILE, 0));
+    }
+
+    @Test
+    public void pushedOutAlongTheShortestAxis() {
+
+        mGrid.put(0, 200, 200, 300, 300);
+
+        // overlaps the left edge by 10 and the top edge by 70
+        assertTrue(mResolver.resolve(mGrid, -1, 110, 130, TILE, TILE, 0));
+        assertEquals(100, mResolver.getLeft());
+        assertEquals(130, mResolver.getTop());
+
+        // overlaps the bottom edge by 5 and the right edge by 60
+        assertTrue(mResolver.resolve(mGrid, -1, 240, 295, TILE, TILE, 0));
+        assertEquals(240, mResolver.getLeft());
+        assertEquals(300, mResolver.getTop());
+    }
+
+    @Test
+    public void gapIsKept() {
+
+        mGrid.put(0, 200, 200, 300, 300);
+
+        assertTrue(mResolver.resolve(mGrid, -1, 95, 200, TILE, TILE, 8));
+        assertEquals(92, mResolver.getLeft());
+
+        // touching at the gap is no overlap
+        assertFalse(mResolver.resolve(mGrid, -1, 308, 200, TILE, TILE, 8));
+    }
+
+    @Test
+    public void slidesBetweenTwoNeighbours() {
+
+        // a gap of exactly one tile between two tiles
+        mGrid.put(0, 0, 0, TILE, TILE);
+        mGrid.put(1, 2 * TILE, 0, 3 * TILE, TILE);
+
+        assertTrue(mResolver.resolve(mGrid, -1, TILE - 20, 30, TILE, TILE, 0));
+        assertNoOverlap(mResolver.getLeft(), mResolver.getTop(), 0);
+    }
+
+    @Test
+    public void pushedInsideTheBounds() {
+
+        mGrid.put(0, 0, 200, TILE, 300);
+
+        // the shortest push, up, would leave the bounds
+        mResolver.setBounds(0, 150, 980, 1820);
+        assertTrue(mResolver.resolve(mGrid, -1, 10, 160, TILE, TILE, 0));
+        assertEquals(100, mResolver.getLeft());
+        assertEquals(160, mResolver.getTop());
+
+        // no push stays inside, the overlap remains
+        mResolver.setBounds(0, 160, 0, 160);
+        assertFalse(mResolver.resolve(mGrid, -1, 0, 160, TILE, TILE, 0));
+
+        mResolver.clearBounds();
+        assertTrue(mResolver.resolve(mGrid, -1, 10, 160, TILE, TILE, 0));
+        assertEquals(10, mResolver.getLeft());
+        assertEquals(100, mResolver.getTop());
+    }
+
+    @Test
+    public void pushedBackTowardsTheBounds() {
+
+        mGrid.put(0, 100, 0, 200, TILE);
+
+        // already over-dragged past the left bound, a push further out is not
+        // made, one back towards the bounds is
+        mResolver.setBounds(120, 0, 980, 0);
+        assertTrue(mResolver.resolve(mGrid, -1, 90, 0, TILE, TILE, 0));
+        assertEquals(200, mResolver.getLeft());
+        assertEquals(0, mResolver.getTop());
+    }
+
+    @Test
+    public void resolvedPositionsDoNotOverlap() {
+
+        Random random = new Random(23);
+
+        // tiles with more free space between them than a tile needs, so one
+        // push always leads to a free position
+        int id = 0;
+        for (int x = 0; x < 1080; x += 3 * TILE)
+            for (int y = 0; y < 1920; y += 3 * TILE)
+                mGrid.put(id++, x, y, x + TILE, y + TILE);
+
+        for (int i = 0; i < 5000; i++) {
+
+            int left = random.nextInt(1080);
+            int top = random.nextInt(1920);
+
+            boolean moved = mResolver.resolve(mGrid, -1, left, top, TILE, TILE, 0);
+
+            assertEquals(moved, left != mResolver.getLeft() || top != mResolver.getTop());
+            assertNoOverlap(mResolver.getLeft(), mResolver.getTop(), 0);
+
+            // the view is pushed along one axis only, never further than the
+            // size of a tile
+            int dx = Math.abs(left - mResolver.getLeft());
+            int dy = Math.abs(top - mResolver.getTop());
+            assertTrue(dx == 0 || dy == 0);
+            assertTrue(dx <= TILE && dy <= TILE);
+        }
+    }
+
+    private void assertNoOverlap(int left, int top, int gap) {
+
+        for (int id = 0; mGrid.contains(id); id++) {
+
+            boolean overlaps = left < mGrid.getRight(id) + gap
+                    && left + TILE > mGrid.getLeft(id) - gap
+                    && top < mGrid.getBottom(id) + gap && top + TILE > mGrid.getTop(id) - gap;
+
+            assertFalse("overlaps " + id + " at " + left + ", " + top, overlaps);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.hideshowviewexample.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Philipp Jahoda
+ */
+public class PositionStoreTest {
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Test
+    public void keepsEntriesSortedById() {
+
+        PositionStore store = new PositionStore();
+        store.put(30, 1f, 2f, 3f, 4f, true);
+        store.put(-5, 5f, 6f, 7f, 8f, false);
+        store.put(10, 9f, 10f, 11f, 12f, true);
+
+        assertEquals(3, store.size());
+        assertEquals(-5, store.getId(0));
+        assertEquals(10, store.getId(1));
+        assertEquals(30, store.getId(2));
+        assertEquals(1, store.indexOf(10));
+        assertEquals(-1, store.indexOf(11));
+
+        store.remove(10);
+
+        assertEquals(2, store.size());
+        assertEquals(-1, store.indexOf(10));
+        assertEquals(30, store.getId(store.indexOf(30)));
+        assertEquals(5f, store.getShowX(store.indexOf(-5)), 0f);
+    }
+
+    @Test
+    public void putOfTheSameValuesIsNoModification() throws IOException {
+
+        PositionStore store = new PositionStore();
+        store.put(1, 1f, 2f, 3f, 4f, true);
+        assertTrue(store.isModified());
+
+        store.write(new ByteArrayOutputStream());
+        assertFalse(store.isModified());
+
+        store.put(1, 1f, 2f, 3f, 4f, true);
+        assertFalse(store.isModified());
+
+        store.put(1, 1f, 2f, 3f, 4f, false);
+        assertTrue(store.isModified());
+    }
+
+    @Test
+    public void roundTripWithGrowthAndNegativeValues() throws IOException {
+
+        PositionStore store = new PositionStore();
+        Random random = new Random(7);
+
+        // far more entries than the initial capacity, inserted out of order,
+        // with negative ids and positions
+        for (int i = 0; i < 1000; i++) {
+            int id = random.nextInt(200000) - 100000;
+            store.put(id, position(random), position(random), position(random),
+                    position(random), random.nextBoolean());
+        }
+
+        store.put(Integer.MIN_VALUE + 1, -0.0625f, 0f, 0f, 0f, false);
+        store.put(Integer.MAX_VALUE, 0f, 0f, 0f, 100000f, true);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        store.write(out);
+
+        PositionStore read = PositionStore.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertSameEntries(store, read);
+        assertFalse(read.isModified());
+    }
+
+    @Test
+    public void positionsAreRoundedToSixteenthPixels() throws IOException {
+
+        PositionStore store = new PositionStore();
+        store.put(1, 10.03f, -10.03f, 0.5f, 0.97f, true);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        store.write(out);
+        PositionStore read = PositionStore.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(10.0f, read.getShowX(0), 0f);
+        assertEquals(-10.0f, read.getShowY(0), 0f);
+        assertEquals(0.5f, read.getHideX(0), 0f);
+        assertEquals(1f, read.getHideY(0), 0f);
+    }
+
+    @Test
+    public void fileRoundTrip() throws IOException {
+
+        File file = new File(mFolder.getRoot(), "positions");
+
+        assertEquals(0, PositionStore.readFrom(file).size());
+
+        PositionStore store = new PositionStore();
+        store.put(42, 1f, 2f, 3f, 4f, false);
+        store.writeTo(file);
+
+        assertSameEntries(store, PositionStore.readFrom(file));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherData() throws IOException {
+        PositionStore.read(new ByteArrayInputStream(new byte[] {
+                1, 2, 3, 4, 5, 6
+        }));
+    }
+
+    /**
+     * returns a random position that can be stored without rounding
+     */
+    private static float position(Random random) {
+        return (random.nextInt(64000) - 32000) / 16f;
+    }
+
+    private static void assertSameEntries(PositionStore expected, PositionStore actual) {
+
+        assertEquals(expected.size(), actual.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getId(i), actual.getId(i));
+            assertEquals(expected.getShowX(i), actual.getShowX(i), 0f);
+            assertEquals(expected.getShowY(i), actual.getShowY(i), 0f);
+            assertEquals(expected.getHideX(i), actual.getHideX(i), 0f);
+            assertEquals(expected.getHideY(i), actual.getHideY(i), 0f);
+            assertEquals(expected.isShown(i), actual.isShown(i));
+        }
+    }
+}
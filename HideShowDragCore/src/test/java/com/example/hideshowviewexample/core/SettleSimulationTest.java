@@ -0,0 +1,68 @@
+package com.example.hideshowviewexample.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @author Philipp Jahoda
+ */
+public class SettleSimulationTest {
+
+    @Test
+    public void reachesTheTarget() {
+
+        SettleSimulation settle = new SettleSimulation();
+        settle.start(0f, 0f, 3000f, -1000f, 400f, 800f);
+
+        int frames = 0;
+
+        while (settle.step(1 / 60f))
+            frames++;
+
+        assertFalse(settle.isRunning());
+        assertEquals(400f, settle.getX(), 0f);
+        assertEquals(800f, settle.getY(), 0f);
+
+        // about a second at the default spring
+        assertTrue(frames > 10 && frames < 120);
+    }
+
+    @Test
+    public void criticallyDampedSpringDoesNotOvershoot() {
+
+        SettleSimulation settle = new SettleSimulation();
+        settle.setSpring(200f, 1f);
+        settle.start(0f, 0f, 0f, 0f, 100f, 0f);
+
+        while (settle.step(1 / 60f))
+            assertTrue(settle.getX() <= 100f);
+    }
+
+    @Test
+    public void longFramesAreStable() {
+
+        SettleSimulation settle = new SettleSimulation();
+        settle.start(0f, 0f, 5000f, 5000f, 100f, 100f);
+
+        // the analytic solution does not blow up with stalled frames
+        for (int i = 0; i < 10 && settle.isRunning(); i++) {
+            settle.step(0.5f);
+            assertTrue(Math.abs(settle.getX()) < 1000f);
+        }
+
+        assertFalse(settle.isRunning());
+    }
+
+    @Test
+    public void projectsTheRestOfAFling() {
+
+        SettleSimulation settle = new SettleSimulation();
+        settle.setFriction(4f);
+
+        assertEquals(350f, settle.projectRest(100f, 1000f), 0.001f);
+        assertEquals(-150f, settle.projectRest(100f, -1000f), 0.001f);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.hideshowviewexample.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Compares the queries of the grid against a brute force check of all
+ * rectangles.
+ * 
+ * @author Philipp Jahoda
+ */
+public class SpatialGridTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    private final int[] mHits = new int[512];
+
+    @Test
+    public void putMoveAndRemove() {
+
+        SpatialGrid grid = new SpatialGrid(100);
+        grid.setBounds(WIDTH, HEIGHT);
+
+        grid.put(3, 10, 10, 110, 110);
+        assertTrue(grid.contains(3));
+        assertFalse(grid.contains(2));
+        assertEquals(1, grid.size());
+
+        grid.put(3, 500, 500, 600, 600);
+        assertEquals(1, grid.size());
+        assertEquals(0, grid.queryPoint(50, 50, mHits));
+        assertEquals(1, grid.queryPoint(550, 550, mHits));
+
+        grid.remove(3);
+        grid.remove(3);
+        assertEquals(0, grid.size());
+        assertEquals(0, grid.queryPoint(550, 550, mHits));
+    }
+
+    @Test
+    public void edgesAreHalfOpen() {
+
+        SpatialGrid grid = new SpatialGrid(100);
+        grid.setBounds(WIDTH, HEIGHT);
+        grid.put(0, 100, 100, 200, 200);
+
+        assertEquals(1, grid.queryPoint(100, 100, mHits));
+        assertEquals(0, grid.queryPoint(200, 150, mHits));
+        assertEquals(0, grid.queryRect(200, 100, 300, 200, mHits));
+        assertEquals(1, grid.queryRect(199, 199, 300, 300, mHits));
+    }
+
+    @Test
+    public void queriesMatchBruteForce() {
+
+        Random random = new Random(17);
+        SpatialGrid grid = new SpatialGrid(96);
+        grid.setBounds(WIDTH, HEIGHT);
+
+        int ids = 300;
+        int[][] rects = new int[ids][];
+
+        for (int round = 0; round < 2000; round++) {
+
+            // grows the grid beyond its initial capacity, moves rectangles
+            // within and across cells and partly outside of the bounds
+            int id = random.nextInt(ids);
+
+            if (rects[id] != null && random.nextInt(5) == 0) {
+                grid.remove(id);
+                rects[id] = null;
+            } else {
+                int[] rect = randomRect(random);
+                grid.put(id, rect[0], rect[1], rect[2], rect[3]);
+                rects[id] = rect;
+            }
+
+            if (round == 1000) {
+                // re-registers all rectangles in a finer grid
+                grid.setBounds(WIDTH * 2, HEIGHT * 2);
+            }
+
+            int x = random.nextInt(WIDTH + 200) - 100;
+            int y = random.nextInt(HEIGHT + 200) - 100;
+            assertArrayEquals(pointBruteForce(rects, x, y),
+                    sorted(grid.queryPoint(x, y, mHits)));
+
+            int[] query = randomRect(random);
+            assertArrayEquals(rectBruteForce(rects, query),
+                    sorted(grid.queryRect(query[0], query[1], query[2], query[3], mHits)));
+        }
+    }
+
+    @Test
+    public void queryStopsAtBufferSize() {
+
+        SpatialGrid grid = new SpatialGrid(100);
+        grid.setBounds(WIDTH, HEIGHT);
+
+        for (int i = 0; i < 10; i++)
+            grid.put(i, 0, 0, 300, 300);
+
+        assertEquals(4, grid.queryRect(0, 0, 300, 300, new int[4]));
+        assertEquals(4, grid.queryPoint(150, 150, new int[4]));
+    }
+
+    private static int[] randomRect(Random random) {
+        int left = random.nextInt(WIDTH + 400) - 200;
+        int top = random.nextInt(HEIGHT + 400) - 200;
+        return new int[] {
+                left, top, left + 1 + random.nextInt(300), top + 1 + random.nextInt(300)
+        };
+    }
+
+    private int[] sorted(int count) {
+        int[] ids = Arrays.copyOf(mHits, count);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private static int[] pointBruteForce(int[][] rects, int x, int y) {
+
+        int[] found = new int[rects.length];
+        int count = 0;
+
+        for (int id = 0; id < rects.length; id++) {
+            int[] r = rects[id];
+            if (r != null && x >= r[0] && x < r[2] && y >= r[1] && y < r[3])
+                found[count++] = id;
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    private static int[] rectBruteForce(int[][] rects, int[] q) {
+
+        int[] found = new int[rects.length];
+        int count = 0;
+
+        for (int id = 0; id < rects.length; id++) {
+            int[] r = rects[id];
+            if (r != null && q[0] < r[2] && q[2] > r[0] && q[1] < r[3] && q[3] > r[1])
+                found[count++] = id;
+        }
+        return Arrays.copyOf(found, count);
+    }
+}
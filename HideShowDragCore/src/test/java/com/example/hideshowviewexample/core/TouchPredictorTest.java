@@ -0,0 +1,115 @@
+package com.example.hideshowviewexample.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Feeds the predictor with samples of known motions and compares the
+ * predictions against the motion itself.
+ * 
+ * @author Philipp Jahoda
+ */
+public class TouchPredictorTest {
+
+    /** touch samples every 4 milliseconds */
+    private static final long SAMPLE_NANOS = 4000000L;
+
+    private static final long FRAME_NANOS = 16000000L;
+
+    private final TouchPredictor mPredictor = new TouchPredictor();
+
+    @Before
+    public void setUp() {
+        mPredictor.reset();
+    }
+
+    @Test
+    public void noSamplesNoVelocity() {
+
+        assertEquals(0, mPredictor.getSampleCount());
+
+        mPredictor.addSample(0, 10f, 20f);
+        mPredictor.predict(FRAME_NANOS);
+
+        assertEquals(10f, mPredictor.getPredictedX(), 0f);
+        assertEquals(20f, mPredictor.getPredictedY(), 0f);
+        assertEquals(0f, mPredictor.getVelocityX(), 0f);
+    }
+
+    @Test
+    public void predictsAParabola() {
+
+        // x accelerates to the right, y moves down at constant speed, in
+        // pixels and milliseconds
+        float vx = 0.5f, ax = 0.004f, vy = 1.2f;
+
+        long time = 0;
+
+        for (int i = 0; i < 20; i++) {
+            time = i * SAMPLE_NANOS;
+            float t = time / 1000000f;
+            mPredictor.addSample(time, 100f + vx * t + 0.5f * ax * t * t, 300f + vy * t);
+        }
+
+        float t = time / 1000000f;
+        float h = FRAME_NANOS / 1000000f;
+
+        assertEquals((vx + ax * t) * 1000f, mPredictor.getVelocityX(), 1f);
+        assertEquals(vy * 1000f, mPredictor.getVelocityY(), 1f);
+
+        mPredictor.predict(time + FRAME_NANOS);
+
+        assertEquals(100f + vx * (t + h) + 0.5f * ax * (t + h) * (t + h),
+                mPredictor.getPredictedX(), 0.05f);
+        assertEquals(300f + vy * (t + h), mPredictor.getPredictedY(), 0.05f);
+    }
+
+    @Test
+    public void reportsTheErrorOfAPrediction() {
+
+        for (int i = 0; i < 10; i++)
+            mPredictor.addSample(i * SAMPLE_NANOS, i * 4f, 0f);
+
+        // predicted two samples ahead, on a straight line the error is 0
+        mPredictor.predict(9 * SAMPLE_NANOS + 2 * SAMPLE_NANOS);
+
+        assertEquals(-1f, mPredictor.addSample(10 * SAMPLE_NANOS, 40f, 0f), 0f);
+        assertEquals(0f, mPredictor.addSample(11 * SAMPLE_NANOS, 44f, 0f), 0.01f);
+    }
+
+    @Test
+    public void deceleratingFingerStopsInsteadOfReversing() {
+
+        // decelerates to a stop at t = 50 ms, x = 100 + 25 = 125
+        float v = 1f, a = -0.02f;
+
+        long time = 0;
+
+        for (int i = 0; i <= 10; i++) {
+            time = i * SAMPLE_NANOS;
+            float t = time / 1000000f;
+            mPredictor.addSample(time, 100f + v * t + 0.5f * a * t * t, 0f);
+        }
+
+        // 40 ms in, the finger comes to rest within the next frame
+        mPredictor.predict(time + FRAME_NANOS);
+
+        assertEquals(125f, mPredictor.getPredictedX(), 0.05f);
+    }
+
+    @Test
+    public void reversalIsNotExtrapolated() {
+
+        for (int i = 0; i < 8; i++)
+            mPredictor.addSample(i * SAMPLE_NANOS, i * 10f, 0f);
+
+        // the finger turns around
+        mPredictor.addSample(8 * SAMPLE_NANOS, 65f, 0f);
+        mPredictor.predict(8 * SAMPLE_NANOS + FRAME_NANOS);
+
+        assertTrue(mPredictor.getPredictedX() <= 65f);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.hideshowviewexample.core;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Philipp Jahoda
+ */
+public class TransformGestureTest {
+
+    private static final float DELTA = 0.01f;
+
+    private final TransformGesture mGesture = new TransformGesture();
+
+    @Before
+    public void setUp() {
+        // pivot of the view at (100, 100)
+        mGesture.begin(100f, 100f, 0f, 0f, 1f, 0f);
+    }
+
+    @Test
+    public void oneFingerMoves() {
+
+        mGesture.pointerDown(0, 90f, 110f);
+        mGesture.pointerMove(0, 140f, 80f);
+        mGesture.update();
+
+        assertEquals(50f, mGesture.getTranslationX(), DELTA);
+        assertEquals(-30f, mGesture.getTranslationY(), DELTA);
+        assertEquals(1f, mGesture.getScale(), 0f);
+        assertEquals(0f, mGesture.getRotation(), 0f);
+    }
+
+    @Test
+    public void rotatesAboutTheCentroid() {
+
+        mGesture.pointerDown(0, 100f, 100f);
+        mGesture.pointerDown(1, 200f, 100f);
+
+        // the fingers turn by 90 degrees about their centroid (150, 100)
+        mGesture.pointerMove(0, 150f, 50f);
+        mGesture.pointerMove(1, 150f, 150f);
+        mGesture.update();
+
+        assertEquals(90f, mGesture.getRotation(), DELTA);
+        assertEquals(1f, mGesture.getScale(), DELTA);
+
+        // the pivot was 50 left of the centroid, it is now 50 above it
+        assertEquals(150f, 100f + mGesture.getTranslationX(), DELTA);
+        assertEquals(50f, 100f + mGesture.getTranslationY(), DELTA);
+    }
+
+    @Test
+    public void scalesAboutTheCentroid() {
+
+        mGesture.pointerDown(0, 100f, 100f);
+        mGesture.pointerDown(1, 200f, 100f);
+
+        mGesture.pointerMove(0, 75f, 100f);
+        mGesture.pointerMove(1, 225f, 100f);
+        mGesture.update();
+
+        assertEquals(1.5f, mGesture.getScale(), DELTA);
+
+        // the pivot was 50 left of the centroid, it is now 75 left of it
+        assertEquals(-25f, mGesture.getTranslationX(), DELTA);
+        assertEquals(0f, mGesture.getTranslationY(), DELTA);
+    }
+
+    @Test
+    public void scaleIsClamped() {
+
+        mGesture.setScaleRange(0.5f, 2f);
+        mGesture.pointerDown(0, 100f, 100f);
+        mGesture.pointerDown(1, 110f, 100f);
+        mGesture.pointerMove(1, 1100f, 100f);
+        mGesture.update();
+
+        assertEquals(2f, mGesture.getScale(), 0f);
+    }
+
+    @Test
+    public void liftingAFingerDoesNotJump() {
+
+        mGesture.pointerDown(0, 100f, 100f);
+        mGesture.pointerDown(1, 200f, 100f);
+        mGesture.pointerMove(1, 250f, 100f);
+        mGesture.update();
+
+        float translationX = mGesture.getTranslationX();
+        float scale = mGesture.getScale();
+
+        mGesture.pointerUp(1);
+        mGesture.update();
+
+        assertEquals(1, mGesture.getPointerCount());
+        assertEquals(translationX, mGesture.getTranslationX(), DELTA);
+        assertEquals(scale, mGesture.getScale(), DELTA);
+
+        // the remaining finger moves the view on from there
+        mGesture.pointerMove(0, 110f, 100f);
+        mGesture.update();
+
+        assertEquals(translationX + 10f, mGesture.getTranslationX(), DELTA);
+    }
+
+    @Test
+    public void endLiftsAllFingers() {
+
+        mGesture.pointerDown(0, 100f, 100f);
+        mGesture.pointerDown(1, 200f, 100f);
+        mGesture.pointerDown(2, 150f, 200f);
+        mGesture.pointerMove(1, 250f, 100f);
+        mGesture.update();
+
+        float scale = mGesture.getScale();
+
+        mGesture.end();
+
+        assertEquals(0, mGesture.getPointerCount());
+        assertEquals(scale, mGesture.getScale(), 0f);
+
+        // the same ids start a new gesture
+        mGesture.pointerDown(1, 0f, 0f);
+        assertEquals(1, mGesture.getPointerCount());
+    }
+
+    @Test
+    public void unknownPointersAreIgnored() {
+
+        mGesture.pointerDown(TransformGesture.MAX_POINTERS, 0f, 0f);
+        mGesture.pointerUp(3);
+        mGesture.pointerDown(0, 100f, 100f);
+        mGesture.pointerDown(0, 300f, 300f);
+
+        assertEquals(1, mGesture.getPointerCount());
+    }
+}
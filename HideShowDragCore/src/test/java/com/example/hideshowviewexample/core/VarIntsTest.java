@@ -0,0 +1,70 @@
+package com.example.hideshowviewexample.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * @author Philipp Jahoda
+ */
+public class VarIntsTest {
+
+    private static final int[] VALUES = {
+            0, 1, -1, 63, -64, 64, 127, 128, 16383, 16384, -16385, Integer.MAX_VALUE,
+            Integer.MIN_VALUE
+    };
+
+    @Test
+    public void zigZagRoundTrip() {
+        for (int value : VALUES)
+            assertEquals(value, VarInts.unZigZag(VarInts.zigZag(value)));
+    }
+
+    @Test
+    public void smallValuesTakeOneByte() throws IOException {
+
+        assertEquals(1, encode(VarInts.zigZag(0)).length);
+        assertEquals(1, encode(VarInts.zigZag(-64)).length);
+        assertEquals(1, encode(VarInts.zigZag(63)).length);
+        assertEquals(2, encode(VarInts.zigZag(64)).length);
+        assertEquals(5, encode(VarInts.zigZag(Integer.MIN_VALUE)).length);
+    }
+
+    @Test
+    public void writeReadRoundTrip() throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        for (int value : VALUES) {
+            VarInts.write(out, value);
+            VarInts.write(out, VarInts.zigZag(value));
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+
+        for (int value : VALUES) {
+            assertEquals(value, VarInts.read(in));
+            assertEquals(value, VarInts.unZigZag(VarInts.read(in)));
+        }
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedValueFails() throws IOException {
+        byte[] encoded = encode(Integer.MAX_VALUE);
+        VarInts.read(new DataInputStream(new ByteArrayInputStream(encoded, 0, 2)));
+    }
+
+    private static byte[] encode(int value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        VarInts.write(new DataOutputStream(bytes), value);
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.hideshowviewexample;
+
+import java.util.WeakHashMap;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.example.hideshowviewexample.core.SpatialGrid;
+
+/**
+ * Bounds of the children of one parent in a spatial grid, shared by all of
+ * its children. A HideShowDragContainer keeps all of its children in its own
+ * index, other parents get one on demand that holds the HideShowDragViews
+ * which avoid overlapping. Must only be used from the main thread.
+ * 
+ * @author Philipp Jahoda
+ */
+final class CollisionIndex {
+
+    /** default cell size of the spatial grid in dp */
+    static final int DEFAULT_CELL_SIZE_DP = 96;
+
+    /** indices of parents other than a HideShowDragContainer */
+    private static final WeakHashMap<ViewGroup, CollisionIndex> sIndices = new WeakHashMap<ViewGroup, CollisionIndex>();
+
+    private final SpatialGrid mGrid;
+
+    /** area covered by the grid */
+    private int mWidth = -1, mHeight = -1;
+
+    /** views by their id */
+    private View[] mViews = new View[16];
+
+    /** reused buffer for the ids found by a query, as large as mViews */
+    private int[] mHits = new int[16];
+
+    CollisionIndex(SpatialGrid grid) {
+        this.mGrid = grid;
+    }
+
+    /**
+     * returns the index shared by the children of the given parent
+     * 
+     * @param parent
+     * @return
+     */
+    static CollisionIndex of(ViewGroup parent) {
+
+        if (parent instanceof HideShowDragContainer)
+            return ((HideShowDragContainer) parent).getCollisionIndex();
+
+        CollisionIndex index = sIndices.get(parent);
+
+        if (index == null) {
+            float density = parent.getResources().getDisplayMetrics().density;
+            index = new CollisionIndex(new SpatialGrid((int) (DEFAULT_CELL_SIZE_DP * density)));
+            sIndices.put(parent, index);
+        }
+
+        return index;
+    }
+
+    /**
+     * adds the view and returns its id, the bounds are set via put()
+     * 
+     * @param view
+     * @return
+     */
+    int add(View view) {
+
+        for (int i = 0; i < mViews.length; i++) {
+            if (mViews[i] == null) {
+                mViews[i] = view;
+                return i;
+            }
+        }
+
+        int id = mViews.length;
+
+        View[] grown = new View[id * 2];
+        System.arraycopy(mViews, 0, grown, 0, id);
+        mViews = grown;
+        mViews[id] = view;
+        mHits = new int[grown.length];
+
+        return id;
+    }
+
+    /**
+     * removes the view with the given id
+     * 
+     * @param id
+     */
+    void remove(int id) {
+        mGrid.remove(id);
+        mViews[id] = null;
+    }
+
+    /**
+     * sets the bounds of the view with the given id
+     * 
+     * @param id
+     * @param left
+     * @param top
+     * @param right
+     * @param bottom
+     */
+    void put(int id, int left, int top, int right, int bottom) {
+        mGrid.put(id, left, top, right, bottom);
+    }
+
+    /**
+     * returns the view with the given id
+     * 
+     * @param id
+     * @return
+     */
+    View getView(int id) {
+        return mViews[id];
+    }
+
+    /**
+     * sets the area covered by the grid, the size of the parent
+     * 
+     * @param width
+     * @param height
+     */
+    void setBounds(int width, int height) {
+
+        if (width == mWidth && height == mHeight)
+            return;
+
+        mWidth = width;
+        mHeight = height;
+        mGrid.setBounds(width, height);
+    }
+
+    SpatialGrid getGrid() {
+        return mGrid;
+    }
+
+    /**
+     * returns a buffer large enough for the ids of all views
+     * 
+     * @return
+     */
+    int[] getHits() {
+        return mHits;
+    }
+}
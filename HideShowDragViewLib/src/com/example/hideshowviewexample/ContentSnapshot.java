@@ -0,0 +1,132 @@
+package com.example.hideshowviewexample;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+
+/**
+ * Bitmap copy of the children of a view that is drawn instead of the children
+ * while the view is moving, so that a frame costs one bitmap draw no matter
+ * how complex the content is. The bitmap is captured again on the next frame
+ * after the content has been invalidated and is reused between snapshots as
+ * long as the size of the view does not change.
+ * 
+ * @author Philipp Jahoda
+ */
+class ContentSnapshot {
+
+    private Bitmap mBitmap;
+
+    private final Canvas mCanvas = new Canvas();
+
+    /** true while the snapshot is drawn instead of the children */
+    private boolean mActive = false;
+
+    /** true if the bitmap shows the current content */
+    private boolean mValid = false;
+
+    /**
+     * starts drawing the snapshot instead of the children, the content is
+     * captured on the next draw
+     */
+    void begin() {
+        mActive = true;
+        mValid = false;
+    }
+
+    /**
+     * switches back to drawing the children, the bitmap is kept for the next
+     * snapshot
+     */
+    void end() {
+        mActive = false;
+        mValid = false;
+    }
+
+    /**
+     * called when the content has changed, it is captured again on the next
+     * draw
+     */
+    void invalidate() {
+        mValid = false;
+    }
+
+    /**
+     * returns true if the snapshot is drawn instead of the children
+     * 
+     * @return
+     */
+    boolean isActive() {
+        return mActive;
+    }
+
+    /**
+     * returns true if the bitmap shows the current content
+     * 
+     * @return
+     */
+    boolean isValid() {
+        return mValid;
+    }
+
+    /**
+     * returns a cleared canvas the content can be drawn into, null if no
+     * bitmap of the given size can be created, the content needs to be drawn
+     * live then
+     * 
+     * @param width
+     * @param height
+     * @return
+     */
+    Canvas beginCapture(int width, int height) {
+
+        if (width <= 0 || height <= 0)
+            return null;
+
+        if (mBitmap == null || mBitmap.getWidth() != width || mBitmap.getHeight() != height) {
+
+            release();
+
+            try {
+                mBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            } catch (OutOfMemoryError e) {
+                return null;
+            }
+
+            mCanvas.setBitmap(mBitmap);
+        } else {
+            mBitmap.eraseColor(Color.TRANSPARENT);
+        }
+
+        return mCanvas;
+    }
+
+    /**
+     * marks the content drawn into the capture canvas as current
+     */
+    void endCapture() {
+        mValid = true;
+    }
+
+    /**
+     * draws the captured content
+     * 
+     * @param canvas
+     */
+    void draw(Canvas canvas) {
+        canvas.drawBitmap(mBitmap, 0, 0, null);
+    }
+
+    /**
+     * frees the bitmap, a new one is created for the next snapshot
+     */
+    void release() {
+
+        mValid = false;
+
+        if (mBitmap != null) {
+            mBitmap.recycle();
+            mBitmap = null;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.hideshowviewexample;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+/**
+ * Delivers one callback per display frame to everything that wants to update
+ * a view once per frame. On API level 16+ the frames are synchronized with the
+ * display vsync via the Choreographer, below a Handler with a fixed frame
+ * interval is used. All pending callbacks share one Choreographer callback.
+ * Must only be used from the main thread.
+ * 
+ * @author Philipp Jahoda
+ */
+class FrameTicker {
+
+    /** frame interval used if no Choreographer is available */
+    private static final long FALLBACK_FRAME_MILLIS = 16;
+
+    private static FrameTicker sInstance;
+
+    /** callbacks waiting for the next frame */
+    private FrameCallback[] mPending = new FrameCallback[8];
+    private int mPendingCount = 0;
+
+    /** callbacks of the frame that is currently dispatched */
+    private FrameCallback[] mRunning = new FrameCallback[8];
+
+    /**
+     * the callbacks that are being dispatched and their count, mRunning may
+     * be replaced by a larger buffer while they are
+     */
+    private FrameCallback[] mDispatched;
+    private int mDispatchedCount = 0;
+
+    /** true if a frame has been requested from the frame source */
+    private boolean mScheduled = false;
+
+    private VsyncSource mVsyncSource;
+
+    private Handler mHandler;
+
+    private final Runnable mFallbackFrame = new Runnable() {
+
+        @Override
+        public void run() {
+            doFrame(System.nanoTime());
+        }
+    };
+
+    /**
+     * returns the ticker of the main thread
+     * 
+     * @return
+     */
+    static FrameTicker getInstance() {
+
+        if (sInstance == null)
+            sInstance = new FrameTicker();
+
+        return sInstance;
+    }
+
+    /**
+     * replaces the ticker of the main thread, e.g. with one that is stepped
+     * manually for a deterministic replay, null restores the default ticker
+     * 
+     * @param ticker
+     */
+    static void setInstance(FrameTicker ticker) {
+        sInstance = ticker;
+    }
+
+    protected FrameTicker() {
+    }
+
+    /**
+     * returns true if at least one callback is waiting for the next frame
+     * 
+     * @return
+     */
+    boolean hasPendingCallbacks() {
+        return mPendingCount > 0;
+    }
+
+    /**
+     * returns true if the given callback is waiting for the next frame
+     * 
+     * @param callback
+     * @return
+     */
+    boolean isPending(FrameCallback callback) {
+
+        for (int i = 0; i < mPendingCount; i++) {
+            if (mPending[i] == callback)
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * requests a single call of the given callback on the next frame, does
+     * nothing if the callback is already waiting for the next frame
+     * 
+     * @param callback
+     */
+    void postFrameCallback(FrameCallback callback) {
+
+        for (int i = 0; i < mPendingCount; i++) {
+            if (mPending[i] == callback)
+                return;
+        }
+
+        if (mPendingCount == mPending.length) {
+            FrameCallback[] grown = new FrameCallback[mPendingCount * 2];
+            System.arraycopy(mPending, 0, grown, 0, mPendingCount);
+            mPending = grown;
+            mRunning = new FrameCallback[grown.length];
+        }
+
+        mPending[mPendingCount++] = callback;
+
+        if (!mScheduled) {
+            mScheduled = true;
+            scheduleFrame();
+        }
+    }
+
+    /**
+     * removes the given callback from the next frame, and from the frame that
+     * is currently dispatched if it has not been called yet
+     * 
+     * @param callback
+     */
+    void removeFrameCallback(FrameCallback callback) {
+
+        for (int i = 0; i < mPendingCount; i++) {
+            if (mPending[i] == callback) {
+                System.arraycopy(mPending, i + 1, mPending, i, mPendingCount - i - 1);
+                mPending[--mPendingCount] = null;
+                break;
+            }
+        }
+
+        // called callbacks have already been cleared from the batch
+        for (int i = 0; i < mDispatchedCount; i++) {
+            if (mDispatched[i] == callback)
+                mDispatched[i] = null;
+        }
+    }
+
+    /**
+     * posts all callbacks waiting for the next frame to the given ticker
+     * instead, e.g. when a replaced ticker is restored
+     * 
+     * @param ticker
+     */
+    void movePendingCallbacks(FrameTicker ticker) {
+
+        for (int i = 0; i < mPendingCount; i++) {
+            ticker.postFrameCallback(mPending[i]);
+            mPending[i] = null;
+        }
+
+        mPendingCount = 0;
+    }
+
+    /**
+     * asks the frame source to call doFrame() once on the next frame
+     */
+    protected void scheduleFrame() {
+
+        if (Build.VERSION.SDK_INT >= 16) {
+
+            if (mVsyncSource == null)
+                mVsyncSource = new VsyncSource(this);
+
+            mVsyncSource.schedule();
+        } else {
+
+            if (mHandler == null)
+                mHandler = new Handler(Looper.getMainLooper());
+
+            mHandler.postDelayed(mFallbackFrame, FALLBACK_FRAME_MILLIS);
+        }
+    }
+
+    /**
+     * dispatches a frame to all callbacks that were posted before it,
+     * callbacks posted while dispatching are called on the following frame
+     * 
+     * @param frameTimeNanos
+     */
+    protected void doFrame(long frameTimeNanos) {
+
+        mScheduled = false;
+
+        // swap the buffers so that callbacks can post themselves again
+        FrameCallback[] running = mPending;
+        int count = mPendingCount;
+        mPending = mRunning;
+        mRunning = running;
+        mPendingCount = 0;
+
+        mDispatched = running;
+        mDispatchedCount = count;
+
+        for (int i = 0; i < count; i++) {
+            FrameCallback callback = running[i];
+
+            // removed by an earlier callback of this frame
+            if (callback == null)
+                continue;
+
+            running[i] = null;
+            callback.doFrame(frameTimeNanos);
+        }
+
+        mDispatched = null;
+        mDispatchedCount = 0;
+    }
+
+    /**
+     * callback that is invoked once when a new frame starts
+     */
+    interface FrameCallback {
+
+        /**
+         * called at the start of a frame
+         * 
+         * @param frameTimeNanos the frame time in the System.nanoTime() time
+         *            base
+         */
+        public void doFrame(long frameTimeNanos);
+    }
+
+    /**
+     * forwards Choreographer frames to the ticker, kept in its own class so
+     * that the Choreographer is never loaded below API level 16
+     */
+    @TargetApi(16)
+    private static class VsyncSource implements Choreographer.FrameCallback {
+
+        private final FrameTicker mTicker;
+
+        private VsyncSource(FrameTicker ticker) {
+            this.mTicker = ticker;
+        }
+
+        private void schedule() {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mTicker.doFrame(frameTimeNanos);
+        }
+    }
+}
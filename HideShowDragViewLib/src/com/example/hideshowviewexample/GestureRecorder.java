@@ -0,0 +1,138 @@
+package com.example.hideshowviewexample;
+
+import android.graphics.Matrix;
+import android.os.SystemClock;
+import android.support.v4.view.MotionEventCompat;
+import android.view.MotionEvent;
+
+import com.example.hideshowviewexample.core.GestureTrace;
+
+/**
+ * Records the touch events and hide / show calls a HideShowDragView receives
+ * into a GestureTrace, including the historical samples and all pointers of
+ * every event. Set it via HideShowDragView.setGestureRecorder(), write the
+ * trace with getTrace().write() and replay it with the GestureReplayer.
+ * 
+ * @author Philipp Jahoda
+ */
+public class GestureRecorder {
+
+    private final GestureTrace mTrace = new GestureTrace();
+
+    /** buffers of the pointer positions of one sample */
+    private float[] mPoints = new float[4];
+    private float[] mX = new float[2];
+    private float[] mY = new float[2];
+
+    /** position of the parent of the view on the screen */
+    private float mOffsetX;
+    private float mOffsetY;
+
+    /**
+     * returns the trace that has been recorded so far
+     * 
+     * @return
+     */
+    public GestureTrace getTrace() {
+        return mTrace;
+    }
+
+    /**
+     * removes everything that has been recorded
+     */
+    public void clear() {
+        mTrace.clear();
+    }
+
+    /**
+     * records a touch event with all of its samples and pointers in screen
+     * coordinates
+     * 
+     * @param ev the event as the view received it
+     * @param matrix the matrix of the view, null if it has none
+     */
+    void record(MotionEvent ev, Matrix matrix) {
+
+        int pointers = ev.getPointerCount();
+
+        if (mPoints.length < pointers * 2) {
+            mPoints = new float[pointers * 2];
+            mX = new float[pointers];
+            mY = new float[pointers];
+        }
+
+        int action = MotionEventCompat.getActionMasked(ev);
+        boolean pointerAction = action == MotionEventCompat.ACTION_POINTER_DOWN
+                || action == MotionEventCompat.ACTION_POINTER_UP;
+
+        mTrace.beginEvent(action, pointerAction ? MotionEventCompat.getActionIndex(ev) : 0);
+
+        for (int p = 0; p < pointers; p++)
+            mTrace.addPointer(ev.getPointerId(p));
+
+        if (matrix != null && matrix.isIdentity())
+            matrix = null;
+
+        // only the first pointer of the current sample is available in screen
+        // coordinates, its offset to the mapped view coordinates is the
+        // position of the view's parent on the screen
+        mPoints[0] = ev.getX(0);
+        mPoints[1] = ev.getY(0);
+
+        if (matrix != null)
+            matrix.mapPoints(mPoints, 0, mPoints, 0, 1);
+
+        mOffsetX = ev.getRawX() - mPoints[0];
+        mOffsetY = ev.getRawY() - mPoints[1];
+
+        for (int h = 0; h < ev.getHistorySize(); h++) {
+
+            for (int p = 0; p < pointers; p++) {
+                mPoints[p * 2] = ev.getHistoricalX(p, h);
+                mPoints[p * 2 + 1] = ev.getHistoricalY(p, h);
+            }
+
+            addSample(ev.getHistoricalEventTime(h), pointers, matrix);
+        }
+
+        for (int p = 0; p < pointers; p++) {
+            mPoints[p * 2] = ev.getX(p);
+            mPoints[p * 2 + 1] = ev.getY(p);
+        }
+
+        addSample(ev.getEventTime(), pointers, matrix);
+    }
+
+    /**
+     * maps the view coordinates in mPoints to the screen and adds them as a
+     * sample
+     */
+    private void addSample(long time, int pointers, Matrix matrix) {
+
+        if (matrix != null)
+            matrix.mapPoints(mPoints, 0, mPoints, 0, pointers);
+
+        for (int p = 0; p < pointers; p++) {
+            mX[p] = mPoints[p * 2] + mOffsetX;
+            mY[p] = mPoints[p * 2 + 1] + mOffsetY;
+        }
+
+        mTrace.addSample(time, mX, mY);
+    }
+
+    /**
+     * records a call of show()
+     */
+    void recordShow() {
+        mTrace.beginEvent(GestureTrace.ACTION_SHOW);
+        mTrace.addSample(SystemClock.uptimeMillis(), 0, 0);
+    }
+
+    /**
+     * records a call of hide()
+     */
+    void recordHide() {
+        mTrace.beginEvent(GestureTrace.ACTION_HIDE);
+        mTrace.addSample(SystemClock.uptimeMillis(), 0, 0);
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.hideshowviewexample;
+
+import android.annotation.TargetApi;
+import android.graphics.Matrix;
+import android.os.Debug;
+import android.support.v4.view.MotionEventCompat;
+import android.view.InputDevice;
+import android.view.MotionEvent;
+import android.view.MotionEvent.PointerCoords;
+import android.view.MotionEvent.PointerProperties;
+import android.view.View;
+import android.view.ViewParent;
+
+import com.example.hideshowviewexample.HideShowDragView.HideShowDragListener;
+import com.example.hideshowviewexample.core.GestureTrace;
+import com.example.hideshowviewexample.core.ReplayReport;
+
+/**
+ * Feeds a recorded GestureTrace into a HideShowDragView without a device or
+ * a finger, e.g. under Robolectric. Frames are not taken from the display but
+ * stepped at a fixed interval along the timestamps of the trace, so every
+ * replay of a trace runs through exactly the same frames. The events are
+ * handed to dispatchTouchEvent() of the view in the coordinates its parent
+ * would hand them over in. Must be called on the main thread, needs API level
+ * 14.
+ * 
+ * @author Philipp Jahoda
+ */
+public class GestureReplayer {
+
+    /** how long animations may run after the last event of a trace */
+    private static final long MAX_TRAILING_FRAMES_NANOS = 10000000000L;
+
+    /** interval of the simulated frames in nanoseconds, default: 60 fps */
+    private long mFrameIntervalNanos = 16666667L;
+
+    /** buffers of the pointers of one event */
+    private PointerProperties[] mProperties = new PointerProperties[0];
+    private PointerCoords[] mCoords = new PointerCoords[0];
+
+    private final int[] mLocation = new int[2];
+
+    private final Matrix mInverse = new Matrix();
+
+    /**
+     * sets the refresh rate of the simulated display
+     * 
+     * @param framesPerSecond
+     */
+    public void setRefreshRate(float framesPerSecond) {
+        this.mFrameIntervalNanos = (long) (1000000000L / framesPerSecond);
+    }
+
+    /**
+     * replays the trace into the given view, returns after all events have
+     * been dispatched and all running animations have ended
+     * 
+     * @param view
+     * @param trace
+     * @return the CPU time of every event and the callbacks they caused
+     */
+    public ReplayReport replay(HideShowDragView view, GestureTrace trace) {
+
+        ReplayReport report = new ReplayReport(trace.getEventCount());
+
+        CountingListener listener = new CountingListener(report);
+        view.addHideShowListener(listener);
+
+        // callbacks posted before the replay stay with the previous ticker
+        FrameTicker previous = FrameTicker.getInstance();
+        ManualFrameTicker ticker = new ManualFrameTicker();
+        FrameTicker.setInstance(ticker);
+
+        long layoutsBefore = view.getMetrics().getLayoutPasses();
+
+        try {
+            long downTime = 0;
+            long frameNanos = trace.getEventCount() > 0 ? trace.getTime(0, 0) * 1000000L : 0;
+
+            for (int e = 0; e < trace.getEventCount(); e++) {
+
+                // run all frames that would have been drawn before the event
+                long eventNanos = trace.getEventTime(e) * 1000000L;
+                while (frameNanos + mFrameIntervalNanos <= eventNanos) {
+                    frameNanos += mFrameIntervalNanos;
+                    ticker.step(frameNanos);
+                }
+
+                int action = trace.getAction(e);
+
+                if (action == MotionEvent.ACTION_DOWN)
+                    downTime = trace.getEventTime(e);
+
+                MotionEvent ev = action == GestureTrace.ACTION_SHOW
+                        || action == GestureTrace.ACTION_HIDE ? null : obtainEvent(trace, e,
+                        downTime, view);
+
+                long start = cpuTimeNanos();
+
+                if (action == GestureTrace.ACTION_SHOW)
+                    view.show();
+                else if (action == GestureTrace.ACTION_HIDE)
+                    view.hide();
+                else
+                    view.dispatchTouchEvent(ev);
+
+                report.addEventTime(cpuTimeNanos() - start);
+
+                if (ev != null)
+                    ev.recycle();
+            }
+
+            // let settle and hide / show animations run to their end, a
+            // settle waiting for a layout that never comes is given up on
+            long endNanos = frameNanos + MAX_TRAILING_FRAMES_NANOS;
+            while (ticker.hasPendingCallbacks() && frameNanos < endNanos) {
+                frameNanos += mFrameIntervalNanos;
+                ticker.step(frameNanos);
+            }
+
+            report.setFrames(ticker.getFrames());
+            report.setLayoutRequests(view.getMetrics().getLayoutPasses() - layoutsBefore);
+
+        } finally {
+            FrameTicker.setInstance(previous);
+
+            // animations still running after the last trailing frame go on
+            // with the display frames
+            ticker.movePendingCallbacks(previous);
+            view.removeHideShowListener(listener);
+        }
+
+        return report;
+    }
+
+    /**
+     * builds the MotionEvent of the given event of the trace with all of its
+     * pointers, all samples but the last one become historical samples
+     */
+    @TargetApi(14)
+    private MotionEvent obtainEvent(GestureTrace trace, int event, long downTime,
+            HideShowDragView view) {
+
+        int samples = trace.getSampleCount(event);
+        int pointers = trace.getPointerCount(event);
+        int action = trace.getAction(event);
+
+        if (action == MotionEventCompat.ACTION_POINTER_DOWN
+                || action == MotionEventCompat.ACTION_POINTER_UP)
+            action |= trace.getActionIndex(event) << MotionEventCompat.ACTION_POINTER_INDEX_SHIFT;
+
+        if (mCoords.length < pointers) {
+
+            mProperties = new PointerProperties[pointers];
+            mCoords = new PointerCoords[pointers];
+
+            for (int p = 0; p < pointers; p++) {
+                mProperties[p] = new PointerProperties();
+                mCoords[p] = new PointerCoords();
+            }
+        }
+
+        for (int p = 0; p < pointers; p++) {
+            mProperties[p].clear();
+            mProperties[p].id = trace.getPointerId(event, p);
+            mProperties[p].toolType = MotionEvent.TOOL_TYPE_FINGER;
+        }
+
+        setCoords(trace, event, 0, pointers);
+
+        MotionEvent ev = MotionEvent.obtain(downTime, trace.getTime(event, 0), action, pointers,
+                mProperties, mCoords, 0, 0, 1f, 1f, 0, 0, InputDevice.SOURCE_TOUCHSCREEN, 0);
+
+        for (int s = 1; s < samples; s++) {
+            setCoords(trace, event, s, pointers);
+            ev.addBatch(trace.getTime(event, s), mCoords, 0);
+        }
+
+        mapToView(ev, view);
+        return ev;
+    }
+
+    private void setCoords(GestureTrace trace, int event, int sample, int pointers) {
+
+        for (int p = 0; p < pointers; p++) {
+            PointerCoords coords = mCoords[p];
+            coords.clear();
+            coords.x = trace.getX(event, sample, p);
+            coords.y = trace.getY(event, sample, p);
+            coords.pressure = 1f;
+            coords.size = 1f;
+        }
+    }
+
+    /**
+     * moves the event from screen coordinates into the coordinates of the
+     * view, the same way a ViewGroup does before it dispatches an event to a
+     * child, the raw position stays on the screen
+     */
+    @TargetApi(14)
+    private void mapToView(MotionEvent ev, HideShowDragView view) {
+
+        float offsetX = view.getLeft();
+        float offsetY = view.getTop();
+
+        ViewParent parent = view.getParent();
+
+        if (parent instanceof View) {
+            View group = (View) parent;
+            group.getLocationOnScreen(mLocation);
+            offsetX += mLocation[0] - group.getScrollX();
+            offsetY += mLocation[1] - group.getScrollY();
+        }
+
+        ev.offsetLocation(-offsetX, -offsetY);
+
+        Matrix matrix = view.getMatrix();
+
+        if (!matrix.isIdentity()) {
+            matrix.invert(mInverse);
+            ev.transform(mInverse);
+        }
+    }
+
+    /**
+     * returns the CPU time of the current thread, falls back to the wall clock
+     * where it is not available
+     */
+    private static long cpuTimeNanos() {
+
+        long cpu = Debug.threadCpuTimeNanos();
+        return cpu >= 0 ? cpu : System.nanoTime();
+    }
+
+    /**
+     * ticker whose frames are only delivered when step() is called
+     */
+    private static class ManualFrameTicker extends FrameTicker {
+
+        private long mFrames = 0;
+
+        @Override
+        protected void scheduleFrame() {
+            // frames are delivered by step()
+        }
+
+        void step(long frameTimeNanos) {
+
+            if (hasPendingCallbacks()) {
+                mFrames++;
+                doFrame(frameTimeNanos);
+            }
+        }
+
+        long getFrames() {
+            return mFrames;
+        }
+    }
+
+    /**
+     * counts the callbacks of the view, added next to the listeners of the
+     * view for the duration of the replay
+     */
+    private static class CountingListener implements HideShowDragListener {
+
+        private final ReplayReport mReport;
+
+        CountingListener(ReplayReport report) {
+            this.mReport = report;
+        }
+
+        @Override
+        public void onHide(HideShowDragView v, float curX, float curY) {
+            mReport.onHideCallback();
+        }
+
+        @Override
+        public void onShow(HideShowDragView v, float curX, float curY) {
+            mReport.onShowCallback();
+        }
+
+        @Override
+        public void onDragStart(HideShowDragView v, float startX, float startY) {
+            mReport.onDragStartCallback();
+        }
+
+        @Override
+        public void onDragFinished(HideShowDragView v, float stopX, float stopY) {
+            mReport.onDragFinishedCallback();
+        }
+    }
+}
@@ -0,0 +1,497 @@
+package com.example.hideshowviewexample;
+
+import android.content.Context;
+import android.graphics.Matrix;
+import android.graphics.RectF;
+import android.support.v4.view.MotionEventCompat;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.example.hideshowviewexample.core.SpatialGrid;
+
+/**
+ * Parent layout for a large number of HideShowDragViews. Children are placed
+ * at their left / top margin. Touch events are routed to the child under the
+ * finger via a spatial grid instead of walking all children, and a dragged
+ * child is layouted on its own without measuring or layouting its siblings.
+ * Apart from that events are dispatched like by every ViewGroup: they can be
+ * intercepted, and a scaled or rotated child receives them in its own
+ * coordinates and is hit tested against its transformed bounds. Requires API
+ * level 11.
+ * 
+ * @author Philipp Jahoda
+ */
+public class HideShowDragContainer extends ViewGroup {
+
+    /** spatial index of the visible bounds of all children, by grid id */
+    private CollisionIndex mIndex;
+
+    /** the child that receives the events of the current gesture */
+    private View mTouchTarget;
+
+    /** true if the drawing order of the children has to be determined again */
+    private boolean mChildOrderDirty = true;
+
+    /** true if a child has asked not to intercept the current gesture */
+    private boolean mDisallowIntercept = false;
+
+    /** inverse of the matrix of the child an event is dispatched to */
+    private final Matrix mInverseMatrix = new Matrix();
+
+    /** transformed bounds of a child */
+    private final RectF mChildBounds = new RectF();
+
+    /** a point that is mapped into the coordinates of a child */
+    private final float[] mPoint = new float[2];
+
+    private OnHierarchyChangeListener mHierarchyListener;
+
+    public HideShowDragContainer(Context context) {
+        super(context);
+        init();
+    }
+
+    public HideShowDragContainer(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        init();
+    }
+
+    public HideShowDragContainer(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+        init();
+    }
+
+    private void init() {
+
+        float density = getResources().getDisplayMetrics().density;
+        mIndex = new CollisionIndex(new SpatialGrid(
+                (int) (CollisionIndex.DEFAULT_CELL_SIZE_DP * density)));
+
+        super.setOnHierarchyChangeListener(new OnHierarchyChangeListener() {
+
+            @Override
+            public void onChildViewAdded(View parent, View child) {
+
+                addToGrid(child);
+                mChildOrderDirty = true;
+
+                if (mHierarchyListener != null)
+                    mHierarchyListener.onChildViewAdded(parent, child);
+            }
+
+            @Override
+            public void onChildViewRemoved(View parent, View child) {
+
+                removeFromGrid(child);
+                mChildOrderDirty = true;
+
+                if (child == mTouchTarget)
+                    mTouchTarget = null;
+
+                if (mHierarchyListener != null)
+                    mHierarchyListener.onChildViewRemoved(parent, child);
+            }
+        });
+    }
+
+    @Override
+    public void setOnHierarchyChangeListener(OnHierarchyChangeListener listener) {
+        this.mHierarchyListener = listener;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+
+        int count = getChildCount();
+
+        for (int i = 0; i < count; i++) {
+
+            View child = getChildAt(i);
+
+            if (child.getVisibility() != GONE)
+                measureChildWithMargins(child, widthMeasureSpec, 0, heightMeasureSpec, 0);
+        }
+
+        setMeasuredDimension(getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec),
+                getDefaultSize(getSuggestedMinimumHeight(), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+
+        mIndex.setBounds(r - l, b - t);
+
+        int count = getChildCount();
+
+        for (int i = 0; i < count; i++) {
+
+            View child = getChildAt(i);
+
+            if (child.getVisibility() != GONE)
+                layoutChild(child);
+        }
+    }
+
+    /**
+     * layouts the given child at its margins with its current measured size
+     */
+    private void layoutChild(View child) {
+
+        LayoutParams lp = (LayoutParams) child.getLayoutParams();
+
+        int left = getPaddingLeft() + lp.leftMargin;
+        int top = getPaddingTop() + lp.topMargin;
+
+        child.layout(left, top, left + child.getMeasuredWidth(), top + child.getMeasuredHeight());
+        updateGrid(child);
+    }
+
+    /**
+     * moves a child to its current margins without a layout pass of the
+     * container, used by dragged HideShowDragViews instead of
+     * setLayoutParams()
+     * 
+     * @param child
+     */
+    void relayoutChild(View child) {
+
+        // a child that was never measured needs a regular layout pass
+        if (child.getMeasuredWidth() == 0 && child.getMeasuredHeight() == 0) {
+            child.requestLayout();
+            return;
+        }
+
+        layoutChild(child);
+    }
+
+    /**
+     * updates the position of the given child in the spatial grid, called
+     * whenever its translation has changed
+     * 
+     * @param child
+     */
+    void onChildMoved(View child) {
+        updateGrid(child);
+    }
+
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent ev) {
+
+        // e.g. the window is obscured and the container filters such touches
+        if (!onFilterTouchEventForSecurity(ev))
+            return false;
+
+        final int action = MotionEventCompat.getActionMasked(ev);
+
+        if (action == MotionEvent.ACTION_DOWN) {
+
+            // a new gesture, nothing is carried over from the last one
+            mTouchTarget = null;
+            mDisallowIntercept = false;
+        }
+
+        // once the container handles a gesture itself it keeps it
+        boolean intercepted;
+
+        if (action == MotionEvent.ACTION_DOWN || mTouchTarget != null)
+            intercepted = !mDisallowIntercept && onInterceptTouchEvent(ev);
+        else
+            intercepted = true;
+
+        boolean handled = false;
+
+        if (action == MotionEvent.ACTION_DOWN) {
+
+            if (!intercepted)
+                mTouchTarget = findTouchTarget(ev);
+
+            handled = mTouchTarget != null;
+        } else if (mTouchTarget != null) {
+
+            if (intercepted) {
+                cancelTouchTarget(ev);
+                handled = true;
+            } else {
+                handled = dispatchToChild(mTouchTarget, ev);
+            }
+        }
+
+        if (!handled)
+            handled = onTouchEvent(ev);
+
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            mTouchTarget = null;
+            mDisallowIntercept = false;
+        }
+
+        return handled;
+    }
+
+    @Override
+    public void requestDisallowInterceptTouchEvent(boolean disallowIntercept) {
+        mDisallowIntercept = disallowIntercept;
+        super.requestDisallowInterceptTouchEvent(disallowIntercept);
+    }
+
+    /**
+     * tells the touch target that the container has taken over the gesture
+     * 
+     * @param ev
+     */
+    private void cancelTouchTarget(MotionEvent ev) {
+
+        int action = ev.getAction();
+
+        ev.setAction(MotionEvent.ACTION_CANCEL);
+        dispatchToChild(mTouchTarget, ev);
+        ev.setAction(action);
+
+        mTouchTarget = null;
+    }
+
+    /**
+     * hit tests the children under the finger via the spatial grid, the
+     * topmost child that contains the finger within its transformed bounds
+     * and takes the down event becomes the touch target
+     */
+    private View findTouchTarget(MotionEvent ev) {
+
+        float x = ev.getX() + getScrollX();
+        float y = ev.getY() + getScrollY();
+
+        int[] ids = mIndex.getHits();
+        int hits = mIndex.getGrid().queryPoint((int) x, (int) y, ids);
+
+        if (hits > 0 && mChildOrderDirty)
+            updateChildOrder();
+
+        // try the children from top to bottom
+        while (hits > 0) {
+
+            int best = 0;
+            int bestOrder = -1;
+
+            for (int i = 0; i < hits; i++) {
+
+                int order = ((LayoutParams) mIndex.getView(ids[i]).getLayoutParams()).mOrder;
+
+                if (order > bestOrder) {
+                    bestOrder = order;
+                    best = i;
+                }
+            }
+
+            View child = mIndex.getView(ids[best]);
+
+            if (child.getVisibility() == VISIBLE && isInChild(child, x, y)
+                    && dispatchToChild(child, ev))
+                return child;
+
+            ids[best] = ids[--hits];
+        }
+        return null;
+    }
+
+    @Override
+    public void bringChildToFront(View child) {
+        super.bringChildToFront(child);
+        mChildOrderDirty = true;
+    }
+
+    @Override
+    protected void attachViewToParent(View child, int index, ViewGroup.LayoutParams params) {
+        super.attachViewToParent(child, index, params);
+        mChildOrderDirty = true;
+    }
+
+    /**
+     * stores the drawing order of every child in its layout params, done once
+     * after the children have changed instead of on every hit test
+     */
+    private void updateChildOrder() {
+
+        int count = getChildCount();
+
+        for (int i = 0; i < count; i++)
+            ((LayoutParams) getChildAt(i).getLayoutParams()).mOrder = i;
+
+        mChildOrderDirty = false;
+    }
+
+    /**
+     * returns true if the given point of the container lies inside the
+     * transformed bounds of the child, the grid only knows their bounding box
+     * 
+     * @param child
+     * @param x
+     * @param y
+     * @return
+     */
+    private boolean isInChild(View child, float x, float y) {
+
+        float[] point = mPoint;
+        point[0] = x - child.getLeft();
+        point[1] = y - child.getTop();
+
+        Matrix matrix = child.getMatrix();
+
+        if (!matrix.isIdentity()) {
+            matrix.invert(mInverseMatrix);
+            mInverseMatrix.mapPoints(point);
+        }
+
+        return point[0] >= 0 && point[1] >= 0 && point[0] < child.getWidth()
+                && point[1] < child.getHeight();
+    }
+
+    /**
+     * dispatches the event to the child in its own coordinate system, a
+     * transformed child receives a copy mapped through its inverse matrix
+     * like from every ViewGroup
+     */
+    private boolean dispatchToChild(View child, MotionEvent ev) {
+
+        float dx = getScrollX() - child.getLeft();
+        float dy = getScrollY() - child.getTop();
+
+        Matrix matrix = child.getMatrix();
+
+        if (matrix.isIdentity()) {
+            ev.offsetLocation(dx, dy);
+            boolean handled = child.dispatchTouchEvent(ev);
+            ev.offsetLocation(-dx, -dy);
+            return handled;
+        }
+
+        MotionEvent transformed = MotionEvent.obtain(ev);
+        transformed.offsetLocation(dx, dy);
+
+        matrix.invert(mInverseMatrix);
+        transformed.transform(mInverseMatrix);
+
+        boolean handled = child.dispatchTouchEvent(transformed);
+        transformed.recycle();
+
+        return handled;
+    }
+
+    private void addToGrid(View child) {
+
+        LayoutParams lp = (LayoutParams) child.getLayoutParams();
+
+        if (lp.mGridId < 0)
+            lp.mGridId = mIndex.add(child);
+
+        updateGrid(child);
+    }
+
+    private void removeFromGrid(View child) {
+
+        LayoutParams lp = (LayoutParams) child.getLayoutParams();
+
+        if (lp.mGridId >= 0) {
+            mIndex.remove(lp.mGridId);
+            lp.mGridId = -1;
+        }
+    }
+
+    private void updateGrid(View child) {
+
+        LayoutParams lp = (LayoutParams) child.getLayoutParams();
+
+        if (lp.mGridId < 0)
+            return;
+
+        Matrix matrix = child.getMatrix();
+
+        if (matrix.isIdentity()) {
+            mIndex.put(lp.mGridId, child.getLeft(), child.getTop(), child.getRight(),
+                    child.getBottom());
+            return;
+        }
+
+        // the bounding box of the translated, scaled and rotated child
+        RectF bounds = mChildBounds;
+        bounds.set(0, 0, child.getWidth(), child.getHeight());
+        matrix.mapRect(bounds);
+
+        mIndex.put(lp.mGridId, (int) Math.floor(child.getLeft() + bounds.left),
+                (int) Math.floor(child.getTop() + bounds.top),
+                (int) Math.ceil(child.getLeft() + bounds.right),
+                (int) Math.ceil(child.getTop() + bounds.bottom));
+    }
+
+    /**
+     * returns the spatial index of the children, used by children that avoid
+     * overlapping their siblings
+     * 
+     * @return
+     */
+    CollisionIndex getCollisionIndex() {
+        return mIndex;
+    }
+
+    /**
+     * returns the id of the given child in the spatial index, -1 if it is not
+     * a child of the container
+     * 
+     * @param child
+     * @return
+     */
+    int getCollisionId(View child) {
+
+        ViewGroup.LayoutParams params = child.getLayoutParams();
+
+        if (child.getParent() != this || !(params instanceof LayoutParams))
+            return -1;
+
+        return ((LayoutParams) params).mGridId;
+    }
+
+    @Override
+    protected boolean checkLayoutParams(ViewGroup.LayoutParams p) {
+        return p instanceof LayoutParams;
+    }
+
+    @Override
+    protected LayoutParams generateDefaultLayoutParams() {
+        return new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
+    }
+
+    @Override
+    public LayoutParams generateLayoutParams(AttributeSet attrs) {
+        return new LayoutParams(getContext(), attrs);
+    }
+
+    @Override
+    protected LayoutParams generateLayoutParams(ViewGroup.LayoutParams p) {
+        return new LayoutParams(p);
+    }
+
+    /**
+     * layout params of the children, they are placed at their left and top
+     * margin
+     */
+    public static class LayoutParams extends MarginLayoutParams {
+
+        /** id of the child in the spatial grid, -1 if it is not registered */
+        private int mGridId = -1;
+
+        /** index of the child in the drawing order */
+        private int mOrder = 0;
+
+        public LayoutParams(int width, int height) {
+            super(width, height);
+        }
+
+        public LayoutParams(Context c, AttributeSet attrs) {
+            super(c, attrs);
+        }
+
+        public LayoutParams(ViewGroup.LayoutParams source) {
+            super(source);
+        }
+    }
+}
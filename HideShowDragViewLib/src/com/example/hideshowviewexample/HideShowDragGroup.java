@@ -0,0 +1,324 @@
+package com.example.hideshowviewexample;
+
+/**
+ * Hides or shows a set of HideShowDragViews at once, e.g. when entering a
+ * "focus" mode. All views of the group are driven by one shared frame
+ * callback instead of one per view, the start of each view can be staggered
+ * and the group reports once when all of its views have arrived. A view that
+ * is reversed, dragged or reset on its own during a group transition never
+ * arrives, the transition then ends without being reported. Requires API
+ * level 11 for the animations, below the views are moved right away.
+ * 
+ * @author Philipp Jahoda
+ */
+public class HideShowDragGroup {
+
+    /** no group transition is running */
+    private static final int TRANSITION_NONE = 0;
+
+    /** the views of the group are being shown */
+    private static final int TRANSITION_SHOWING = 1;
+
+    /** the views of the group are being hidden */
+    private static final int TRANSITION_HIDING = 2;
+
+    private HideShowDragView[] mViews = new HideShowDragView[8];
+    private int mViewCount = 0;
+
+    /** time between the starts of two consecutive views in milliseconds */
+    private int mStaggerMillis = 0;
+
+    /** the group transition that is currently running */
+    private int mTransition = TRANSITION_NONE;
+
+    /** true while the views of a new transition are being started */
+    private boolean mStarting = false;
+
+    /**
+     * true if a view has left the running transition before it arrived at its
+     * position
+     */
+    private boolean mAborted = false;
+
+    private GroupTicker mTicker = new GroupTicker();
+
+    private OnGroupTransitionListener mListener;
+
+    /**
+     * adds a view to the group, does nothing if it is already part of it
+     * 
+     * @param v
+     */
+    public void addView(HideShowDragView v) {
+
+        if (indexOf(v) >= 0)
+            return;
+
+        if (mViewCount == mViews.length) {
+            HideShowDragView[] grown = new HideShowDragView[mViewCount * 2];
+            System.arraycopy(mViews, 0, grown, 0, mViewCount);
+            mViews = grown;
+        }
+
+        mViews[mViewCount++] = v;
+    }
+
+    /**
+     * removes a view from the group, a transition the view has been started
+     * with by the group is not affected
+     * 
+     * @param v
+     */
+    public void removeView(HideShowDragView v) {
+
+        int index = indexOf(v);
+
+        if (index < 0)
+            return;
+
+        System.arraycopy(mViews, index + 1, mViews, index, mViewCount - index - 1);
+        mViews[--mViewCount] = null;
+    }
+
+    /**
+     * returns the number of views in the group
+     * 
+     * @return
+     */
+    public int getViewCount() {
+        return mViewCount;
+    }
+
+    /**
+     * sets the time between the starts of two consecutive views in the order
+     * they were added, only views that actually change their state count,
+     * default: 0
+     * 
+     * @param millis
+     */
+    public void setStagger(int millis) {
+        this.mStaggerMillis = millis;
+    }
+
+    /**
+     * returns the time between the starts of two consecutive views
+     * 
+     * @return
+     */
+    public int getStagger() {
+        return mStaggerMillis;
+    }
+
+    /**
+     * sets the listener that is informed when all views of the group have been
+     * shown or hidden
+     * 
+     * @param l
+     */
+    public void setOnGroupTransitionListener(OnGroupTransitionListener l) {
+        this.mListener = l;
+    }
+
+    /**
+     * returns true if the views of the group are being shown or hidden
+     * 
+     * @return
+     */
+    public boolean isAnimating() {
+        return mTransition != TRANSITION_NONE;
+    }
+
+    /**
+     * shows all views of the group that are not shown yet, running hide
+     * animations are reversed, replaces a running group transition
+     */
+    public void show() {
+        start(TRANSITION_SHOWING);
+    }
+
+    /**
+     * hides all views of the group that are not hidden yet, running show
+     * animations are reversed, replaces a running group transition
+     */
+    public void hide() {
+        start(TRANSITION_HIDING);
+    }
+
+    /**
+     * starts the given transition on all views, views that are already in the
+     * target state are skipped and do not take a stagger slot
+     * 
+     * @param transition
+     */
+    private void start(int transition) {
+
+        mTransition = transition;
+        mStarting = true;
+        mAborted = false;
+
+        long delay = 0;
+
+        for (int i = 0; i < mViewCount; i++) {
+
+            HideShowDragView v = mViews[i];
+
+            boolean animating = transition == TRANSITION_SHOWING ? v.show(mTicker, delay) : v
+                    .hide(mTicker, delay);
+
+            if (animating)
+                delay += mStaggerMillis;
+        }
+
+        mStarting = false;
+
+        // nothing to animate, or all views were moved right away
+        checkFinished();
+    }
+
+    /**
+     * informs the listener if all views of the running group transition have
+     * arrived, ends the transition silently if one of them has been aborted
+     */
+    private void checkFinished() {
+
+        if (mTransition == TRANSITION_NONE || mStarting || mTicker.mDispatching
+                || mTicker.mViewCount > 0)
+            return;
+
+        int transition = mTransition;
+        mTransition = TRANSITION_NONE;
+
+        if (mListener == null || mAborted)
+            return;
+
+        if (transition == TRANSITION_SHOWING)
+            mListener.onGroupShown(this);
+        else
+            mListener.onGroupHidden(this);
+    }
+
+    private int indexOf(HideShowDragView v) {
+
+        for (int i = 0; i < mViewCount; i++) {
+            if (mViews[i] == v)
+                return i;
+        }
+
+        return -1;
+    }
+
+    /**
+     * collects the frame callbacks of all views of the group and runs them
+     * from a single callback of the ticker of the main thread, keeps track of
+     * the views that are still on their way
+     */
+    private class GroupTicker extends FrameTicker implements FrameTicker.FrameCallback {
+
+        /** true while the views of the group are stepped */
+        private boolean mDispatching = false;
+
+        /** callbacks of the views that have not arrived yet */
+        private FrameCallback[] mViewCallbacks = new FrameCallback[8];
+        private int mViewCount = 0;
+
+        @Override
+        void postFrameCallback(FrameCallback callback) {
+            super.postFrameCallback(callback);
+
+            if (indexOfView(callback) >= 0)
+                return;
+
+            if (mViewCount == mViewCallbacks.length) {
+                FrameCallback[] grown = new FrameCallback[mViewCount * 2];
+                System.arraycopy(mViewCallbacks, 0, grown, 0, mViewCount);
+                mViewCallbacks = grown;
+            }
+
+            mViewCallbacks[mViewCount++] = callback;
+        }
+
+        @Override
+        protected void scheduleFrame() {
+            FrameTicker.getInstance().postFrameCallback(this);
+        }
+
+        /**
+         * called by the ticker of the main thread, steps all views of the
+         * group that are waiting for this frame
+         */
+        @Override
+        public void doFrame(long frameTimeNanos) {
+
+            mDispatching = true;
+            super.doFrame(frameTimeNanos);
+            mDispatching = false;
+
+            // a view that did not ask for another frame has arrived
+            for (int i = mViewCount - 1; i >= 0; i--) {
+                if (!isPending(mViewCallbacks[i]))
+                    removeView(i);
+            }
+
+            checkFinished();
+        }
+
+        @Override
+        void removeFrameCallback(FrameCallback callback) {
+            super.removeFrameCallback(callback);
+
+            int index = indexOfView(callback);
+
+            if (index < 0)
+                return;
+
+            removeView(index);
+
+            // a view that is reversed, dragged or reset on its own leaves the
+            // group before it has arrived, a view that is reversed by a new
+            // group transition posts itself again right away
+            if (!mStarting) {
+                mAborted = true;
+                checkFinished();
+            }
+        }
+
+        private void removeView(int index) {
+            System.arraycopy(mViewCallbacks, index + 1, mViewCallbacks, index, mViewCount
+                    - index - 1);
+            mViewCallbacks[--mViewCount] = null;
+        }
+
+        private int indexOfView(FrameCallback callback) {
+
+            for (int i = 0; i < mViewCount; i++) {
+                if (mViewCallbacks[i] == callback)
+                    return i;
+            }
+
+            return -1;
+        }
+    }
+
+    /**
+     * informed when all views of a group have arrived at their show or hide
+     * position
+     * 
+     * @author Philipp Jahoda
+     */
+    public interface OnGroupTransitionListener {
+
+        /**
+         * called once when all views of the group are shown
+         * 
+         * @param group
+         */
+        public void onGroupShown(HideShowDragGroup group);
+
+        /**
+         * called once when all views of the group are hidden
+         * 
+         * @param group
+         */
+        public void onGroupHidden(HideShowDragGroup group);
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.hideshowviewexample;
+
+import com.example.hideshowviewexample.HideShowDragView.HideShowDragListener;
+import com.example.hideshowviewexample.HideShowDragView.HideShowDragProgressListener;
+import com.example.hideshowviewexample.HideShowDragView.HideShowDragStatsListener;
+import com.example.hideshowviewexample.core.FrameStats;
+
+/**
+ * The listeners of a view. The listener arrays are copied when a listener is
+ * added or removed and never changed afterwards, so dispatching iterates a
+ * plain array without allocating and listeners may add or remove listeners
+ * from within a callback. Listeners that also want the progress or the frame
+ * stats are kept in arrays of their own.
+ * 
+ * @author Philipp Jahoda
+ */
+final class HideShowDragListeners {
+
+    private static final HideShowDragListener[] NO_LISTENERS = new HideShowDragListener[0];
+    private static final HideShowDragProgressListener[] NO_PROGRESS_LISTENERS = new HideShowDragProgressListener[0];
+    private static final HideShowDragStatsListener[] NO_STATS_LISTENERS = new HideShowDragStatsListener[0];
+
+    private HideShowDragListener[] mListeners = NO_LISTENERS;
+    private HideShowDragProgressListener[] mProgressListeners = NO_PROGRESS_LISTENERS;
+    private HideShowDragStatsListener[] mStatsListeners = NO_STATS_LISTENERS;
+
+    /**
+     * adds the listener, does nothing if it has already been added
+     * 
+     * @param l
+     */
+    void add(HideShowDragListener l) {
+
+        if (l == null || indexOf(mListeners, l) >= 0)
+            return;
+
+        HideShowDragListener[] listeners = new HideShowDragListener[mListeners.length + 1];
+        System.arraycopy(mListeners, 0, listeners, 0, mListeners.length);
+        listeners[mListeners.length] = l;
+        mListeners = listeners;
+
+        if (l instanceof HideShowDragProgressListener) {
+            HideShowDragProgressListener[] progress = new HideShowDragProgressListener[mProgressListeners.length + 1];
+            System.arraycopy(mProgressListeners, 0, progress, 0, mProgressListeners.length);
+            progress[mProgressListeners.length] = (HideShowDragProgressListener) l;
+            mProgressListeners = progress;
+        }
+
+        if (l instanceof HideShowDragStatsListener) {
+            HideShowDragStatsListener[] stats = new HideShowDragStatsListener[mStatsListeners.length + 1];
+            System.arraycopy(mStatsListeners, 0, stats, 0, mStatsListeners.length);
+            stats[mStatsListeners.length] = (HideShowDragStatsListener) l;
+            mStatsListeners = stats;
+        }
+    }
+
+    /**
+     * removes the listener
+     * 
+     * @param l
+     */
+    void remove(HideShowDragListener l) {
+
+        int index = indexOf(mListeners, l);
+
+        if (index < 0)
+            return;
+
+        HideShowDragListener[] listeners = NO_LISTENERS;
+
+        if (mListeners.length > 1) {
+            listeners = new HideShowDragListener[mListeners.length - 1];
+            System.arraycopy(mListeners, 0, listeners, 0, index);
+            System.arraycopy(mListeners, index + 1, listeners, index, listeners.length - index);
+        }
+
+        mListeners = listeners;
+
+        if (l instanceof HideShowDragProgressListener) {
+
+            HideShowDragProgressListener[] progress = NO_PROGRESS_LISTENERS;
+
+            for (HideShowDragListener listener : listeners) {
+                if (listener instanceof HideShowDragProgressListener)
+                    progress = append(progress, (HideShowDragProgressListener) listener);
+            }
+
+            mProgressListeners = progress;
+        }
+
+        if (l instanceof HideShowDragStatsListener) {
+
+            HideShowDragStatsListener[] stats = NO_STATS_LISTENERS;
+
+            for (HideShowDragListener listener : listeners) {
+                if (listener instanceof HideShowDragStatsListener)
+                    stats = append(stats, (HideShowDragStatsListener) listener);
+            }
+
+            mStatsListeners = stats;
+        }
+    }
+
+    /**
+     * removes all listeners
+     */
+    void clear() {
+        mListeners = NO_LISTENERS;
+        mProgressListeners = NO_PROGRESS_LISTENERS;
+        mStatsListeners = NO_STATS_LISTENERS;
+    }
+
+    /**
+     * returns true if at least one listener wants the drag and animation
+     * progress
+     * 
+     * @return
+     */
+    boolean hasProgressListeners() {
+        return mProgressListeners.length > 0;
+    }
+
+    /**
+     * returns true if at least one listener wants the frame stats
+     * 
+     * @return
+     */
+    boolean hasStatsListeners() {
+        return mStatsListeners.length > 0;
+    }
+
+    void dispatchHide(HideShowDragView v, float x, float y) {
+
+        HideShowDragListener[] listeners = mListeners;
+
+        for (int i = 0; i < listeners.length; i++)
+            listeners[i].onHide(v, x, y);
+    }
+
+    void dispatchShow(HideShowDragView v, float x, float y) {
+
+        HideShowDragListener[] listeners = mListeners;
+
+        for (int i = 0; i < listeners.length; i++)
+            listeners[i].onShow(v, x, y);
+    }
+
+    void dispatchDragStart(HideShowDragView v, float x, float y) {
+
+        HideShowDragListener[] listeners = mListeners;
+
+        for (int i = 0; i < listeners.length; i++)
+            listeners[i].onDragStart(v, x, y);
+    }
+
+    void dispatchDragFinished(HideShowDragView v, float x, float y) {
+
+        HideShowDragListener[] listeners = mListeners;
+
+        for (int i = 0; i < listeners.length; i++)
+            listeners[i].onDragFinished(v, x, y);
+    }
+
+    void dispatchDragMove(HideShowDragView v, float x, float y) {
+
+        HideShowDragProgressListener[] listeners = mProgressListeners;
+
+        for (int i = 0; i < listeners.length; i++)
+            listeners[i].onDragMove(v, x, y);
+    }
+
+    void dispatchAnimationProgress(HideShowDragView v, float x, float y, float fraction) {
+
+        HideShowDragProgressListener[] listeners = mProgressListeners;
+
+        for (int i = 0; i < listeners.length; i++)
+            listeners[i].onAnimationProgress(v, x, y, fraction);
+    }
+
+    void dispatchTransitionStats(HideShowDragView v, boolean shown, FrameStats stats) {
+
+        HideShowDragStatsListener[] listeners = mStatsListeners;
+
+        for (int i = 0; i < listeners.length; i++)
+            listeners[i].onTransitionStats(v, shown, stats);
+    }
+
+    void dispatchDragStats(HideShowDragView v, FrameStats stats) {
+
+        HideShowDragStatsListener[] listeners = mStatsListeners;
+
+        for (int i = 0; i < listeners.length; i++)
+            listeners[i].onDragStats(v, stats);
+    }
+
+    private static int indexOf(HideShowDragListener[] listeners, HideShowDragListener l) {
+
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == l)
+                return i;
+        }
+
+        return -1;
+    }
+
+    private static HideShowDragProgressListener[] append(HideShowDragProgressListener[] array,
+            HideShowDragProgressListener l) {
+
+        HideShowDragProgressListener[] grown = new HideShowDragProgressListener[array.length + 1];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        grown[array.length] = l;
+        return grown;
+    }
+
+    private static HideShowDragStatsListener[] append(HideShowDragStatsListener[] array,
+            HideShowDragStatsListener l) {
+
+        HideShowDragStatsListener[] grown = new HideShowDragStatsListener[array.length + 1];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        grown[array.length] = l;
+        return grown;
+    }
+}
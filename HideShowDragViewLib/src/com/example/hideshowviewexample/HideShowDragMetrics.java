@@ -0,0 +1,195 @@
+package com.example.hideshowviewexample;
+
+/**
+ * Counters describing how much work a HideShowDragView has done while being
+ * dragged and animated. The counters are plain fields updated on the main
+ * thread, reading them is cheap enough to report them regularly.
+ * 
+ * @author Philipp Jahoda
+ */
+public class HideShowDragMetrics {
+
+    /** default frame budget, 60 frames per second */
+    private static final long DEFAULT_FRAME_BUDGET_NANOS = 16666667L;
+
+    private long mMoveEvents = 0;
+    private long mPositionUpdates = 0;
+    private long mLayoutPasses = 0;
+    private long mAnimationFrames = 0;
+    private long mFramesOverBudget = 0;
+
+    /** predicted drag positions compared to the real finger position */
+    private long mPredictions = 0;
+    private double mPredictionErrorSum = 0;
+    private float mMaxPredictionError = 0;
+
+    /** the time one frame may take at the refresh rate of the display */
+    private long mFrameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+
+    /** time of the previous animation frame, 0 at the start of an animation */
+    private long mLastFrameNanos = 0;
+
+    /**
+     * returns the number of move events the view has received while being
+     * dragged
+     * 
+     * @return
+     */
+    public long getMoveEvents() {
+        return mMoveEvents;
+    }
+
+    /**
+     * returns how often the position of the view was updated while dragging,
+     * lower than the number of move events if drag updates are frame synced
+     * 
+     * @return
+     */
+    public long getPositionUpdates() {
+        return mPositionUpdates;
+    }
+
+    /**
+     * returns the number of layout passes the view has requested by changing
+     * its layout params while being dragged
+     * 
+     * @return
+     */
+    public long getLayoutPasses() {
+        return mLayoutPasses;
+    }
+
+    /**
+     * returns the number of frames the view has been animated for (hide, show
+     * and settle)
+     * 
+     * @return
+     */
+    public long getAnimationFrames() {
+        return mAnimationFrames;
+    }
+
+    /**
+     * returns the number of animation frames that took longer than the frame
+     * budget, meaning at least one frame was dropped before them
+     * 
+     * @return
+     */
+    public long getFramesOverBudget() {
+        return mFramesOverBudget;
+    }
+
+    /**
+     * returns how many predicted drag positions have been compared to the
+     * real position of the finger, see setPredictiveDrag()
+     * 
+     * @return
+     */
+    public long getPredictions() {
+        return mPredictions;
+    }
+
+    /**
+     * returns the average distance in pixels between a predicted drag position
+     * and the real position of the finger at the predicted time
+     * 
+     * @return
+     */
+    public float getMeanPredictionError() {
+        return mPredictions == 0 ? 0f : (float) (mPredictionErrorSum / mPredictions);
+    }
+
+    /**
+     * returns the largest distance in pixels between a predicted drag
+     * position and the real position of the finger at the predicted time
+     * 
+     * @return
+     */
+    public float getMaxPredictionError() {
+        return mMaxPredictionError;
+    }
+
+    /**
+     * returns the time in nanoseconds one frame may take
+     * 
+     * @return
+     */
+    public long getFrameBudgetNanos() {
+        return mFrameBudgetNanos;
+    }
+
+    /**
+     * sets all counters back to 0
+     */
+    public void reset() {
+        mMoveEvents = 0;
+        mPositionUpdates = 0;
+        mLayoutPasses = 0;
+        mAnimationFrames = 0;
+        mFramesOverBudget = 0;
+        mPredictions = 0;
+        mPredictionErrorSum = 0;
+        mMaxPredictionError = 0;
+        mLastFrameNanos = 0;
+    }
+
+    /**
+     * sets the frame budget from the refresh rate of the display
+     * 
+     * @param refreshRate frames per second
+     */
+    void setRefreshRate(float refreshRate) {
+
+        if (refreshRate > 0)
+            mFrameBudgetNanos = (long) (1000000000L / refreshRate);
+    }
+
+    void onMoveEvent() {
+        mMoveEvents++;
+    }
+
+    void onPositionUpdate() {
+        mPositionUpdates++;
+    }
+
+    void onLayoutRequested() {
+        mLayoutPasses++;
+    }
+
+    /**
+     * called when a predicted drag position has been compared to the real
+     * position of the finger
+     * 
+     * @param error distance in pixels
+     */
+    void onPredictionError(float error) {
+        mPredictions++;
+        mPredictionErrorSum += error;
+        mMaxPredictionError = Math.max(mMaxPredictionError, error);
+    }
+
+    /**
+     * called before the first frame of an animation so that the gap between
+     * two animations is not counted as a long frame
+     */
+    void onAnimationStart() {
+        mLastFrameNanos = 0;
+    }
+
+    /**
+     * called for every animation frame
+     * 
+     * @param frameTimeNanos
+     */
+    void onAnimationFrame(long frameTimeNanos) {
+
+        mAnimationFrames++;
+
+        // allow for some jitter of the frame times before counting a frame as
+        // dropped
+        if (mLastFrameNanos != 0 && frameTimeNanos - mLastFrameNanos > mFrameBudgetNanos * 3 / 2)
+            mFramesOverBudget++;
+
+        mLastFrameNanos = frameTimeNanos;
+    }
+}
@@ -2,27 +2,48 @@
 package com.example.hideshowviewexample;
 
 import android.animation.TimeInterpolator;
-import android.app.Activity;
 import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Canvas;
+import android.graphics.Path;
+import android.graphics.Rect;
 import android.os.Build;
-import android.os.Handler;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.support.v4.view.MotionEventCompat;
 import android.util.AttributeSet;
 import android.util.Log;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.VelocityTracker;
 import android.view.View.OnLongClickListener;
-import android.view.animation.DecelerateInterpolator;
+import android.view.ViewConfiguration;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
+import android.view.Window;
+import android.view.WindowManager;
 import android.widget.FrameLayout;
 import android.widget.LinearLayout;
 import android.widget.RelativeLayout;
 import android.widget.Toast;
 
+import com.example.hideshowviewexample.core.AnchorIndex;
+import com.example.hideshowviewexample.core.DragConstraints;
+import com.example.hideshowviewexample.core.DragMath;
+import com.example.hideshowviewexample.core.FrameStats;
+import com.example.hideshowviewexample.core.OverlapResolver;
+import com.example.hideshowviewexample.core.PathKeyframes;
+import com.example.hideshowviewexample.core.PositionStore;
+import com.example.hideshowviewexample.core.SettleSimulation;
+import com.example.hideshowviewexample.core.TouchPredictor;
+import com.example.hideshowviewexample.core.TransformGesture;
+
 /**
  * Superclass that all views that can be hidden / shown or dragged inherit from.
  * 
  * IMPORTANT: Parent layout (layout that contains the view) needs to be a
- * RelativeLayout, FrameLayout or LinearLayout
+ * RelativeLayout, FrameLayout, LinearLayout or HideShowDragContainer
  * 
  * @author Philipp Jahoda
  */
@@ -30,6 +51,91 @@ public abstract class HideShowDragView extends FrameLayout {
 
     private static final String LOG_TAG = "HideShowView";
 
+    /** if true, state changes of all views are logged, default: false */
+    private static boolean sLogging = false;
+
+    /** instrumentation used by all views unless another one is set */
+    private static final HideShowDragInstrumentation DEFAULT_INSTRUMENTATION = new TraceInstrumentation();
+
+    /** no hide or show animation is running */
+    private static final int TRANSITION_NONE = 0;
+
+    /** the view is being animated to its show position */
+    private static final int TRANSITION_SHOWING = 1;
+
+    /** the view is being animated to its hide position */
+    private static final int TRANSITION_HIDING = 2;
+
+    /** a hardware layer is held while hiding, showing or settling */
+    private static final int LAYER_FOR_ANIMATION = 1;
+
+    /** a hardware layer is held while the view is being dragged */
+    private static final int LAYER_FOR_DRAG = 2;
+
+    /** the view is never rendered into a hardware layer */
+    public static final int LAYER_POLICY_NONE = 0;
+
+    /**
+     * the view is rendered into a hardware layer while it is hidden, shown or
+     * settling, so its content is only drawn once per animation
+     */
+    public static final int LAYER_POLICY_ANIMATION = 1;
+
+    /** like LAYER_POLICY_ANIMATION, additionally while the view is dragged */
+    public static final int LAYER_POLICY_ANIMATION_AND_DRAG = 2;
+
+    /**
+     * drag mode in which every move event is written into the layout margins
+     * of the view, this requests a layout pass for every touch sample
+     */
+    public static final int DRAG_MODE_MARGIN = 0;
+
+    /**
+     * drag mode in which move events only change the translation of the view,
+     * the final position is written into the layout margins once when the view
+     * is dropped, requires API level 11, falls back to margin mode below
+     */
+    public static final int DRAG_MODE_TRANSLATION = 1;
+
+    /** the view may overlap its siblings */
+    public static final int COLLISION_MODE_NONE = 0;
+
+    /**
+     * the dragged view is pushed out of the siblings it runs into and slides
+     * along their edges
+     */
+    public static final int COLLISION_MODE_PUSH = 1;
+
+    /**
+     * the view may overlap its siblings while it is dragged, when it is
+     * dropped it snaps to the nearest position next to them
+     */
+    public static final int COLLISION_MODE_SNAP = 2;
+
+    /** maximum number of siblings looked at per collision pass */
+    private static final int MAX_COLLISION_NEIGHBORS = 32;
+
+    /** the view can be dragged anywhere */
+    public static final int DRAG_BOUNDS_NONE = 0;
+
+    /** the view is kept inside the padding of its parent while dragged */
+    public static final int DRAG_BOUNDS_PARENT = 1;
+
+    /**
+     * the view is kept inside a rectangle in the coordinates of its parent
+     * while dragged, set via setDragBounds(Rect)
+     */
+    public static final int DRAG_BOUNDS_RECT = 2;
+
+    /** the view can be dragged in both directions */
+    public static final int DRAG_AXIS_BOTH = DragConstraints.AXIS_BOTH;
+
+    /** the view can only be dragged horizontally */
+    public static final int DRAG_AXIS_HORIZONTAL = DragConstraints.AXIS_HORIZONTAL;
+
+    /** the view can only be dragged vertically */
+    public static final int DRAG_AXIS_VERTICAL = DragConstraints.AXIS_VERTICAL;
+
     /** interpolator for the showing animation */
     private TimeInterpolator mShowInterpolator;
 
@@ -42,11 +148,75 @@ public abstract class HideShowDragView extends FrameLayout {
     /** indicator if the view is currently being animated */
     private boolean mIsAnimating = false;
 
+    /** the hide / show animation that is currently running */
+    private int mTransition = TRANSITION_NONE;
+
+    /** animates position, alpha and scale of the view when hiding / showing */
+    private TransitionAnimator mTransitionAnimator;
+
+    /** shape of the path between hide and show position, null for a line */
+    private Path mTransitionPath;
+
+    /**
+     * the transition path flattened for the current hide and show position,
+     * written by the background thread, null until it is ready
+     */
+    private volatile PathKeyframes mPathKeyframes;
+
+    /**
+     * changed whenever the transition path is replaced, keyframes of a job
+     * that was started for another path are dropped, guarded by mPathTarget
+     */
+    private int mPathGeneration = 0;
+
+    /** receives the flattened transition path from the background thread */
+    private final PathFlattener.Target mPathTarget = new PathFlattener.Target() {
+
+        @Override
+        public void onKeyframesReady(int generation, PathKeyframes keyframes) {
+
+            synchronized (this) {
+                if (generation == mPathGeneration)
+                    mPathKeyframes = keyframes;
+            }
+        }
+    };
+
+    /** alpha of the view in hide state */
+    private float mHiddenAlpha = 1f;
+
+    /** scale of the view in hide state */
+    private float mHiddenScale = 1f;
+
+    /** when the view is rendered into a hardware layer */
+    private int mLayerPolicy = LAYER_POLICY_ANIMATION;
+
+    /** the reasons for which a hardware layer is currently held */
+    private int mLayerReasons = 0;
+
+    /** the layer type of the view before the hardware layer was requested */
+    private int mLayerTypeBeforeAnimation = LAYER_TYPE_NONE;
+
+    /** if true, a snapshot of the children is drawn while the view moves */
+    private boolean mSnapshotWhileMoving = false;
+
+    /** bitmap of the children, created when first needed */
+    private ContentSnapshot mSnapshot;
+
+    /** the reasons for which the snapshot is currently drawn */
+    private int mSnapshotReasons = 0;
+
     /** the duration of the hide and show process in millisecionds */
     private int mHideShowDuration = 500;
 
-    /** listener for the hiding and showing process */
-    private HideShowDragListener mListener;
+    /** listeners for the hiding and showing process */
+    private final HideShowDragListeners mListeners = new HideShowDragListeners();
+
+    /** frame stats of the running or the last hide, show or settle */
+    private final FrameStats mTransitionStats = new FrameStats();
+
+    /** frame stats of the running or the last drag */
+    private final FrameStats mDragStats = new FrameStats();
 
     /**
      * if set to true, the view will acutally be made invisible once the hiding
@@ -63,6 +233,101 @@ public abstract class HideShowDragView extends FrameLayout {
     /** indicates if the view is draggable or not */
     private boolean mDragEnabled = true;
 
+    /** the way the view is moved while being dragged, default: margin */
+    private int mDragMode = DRAG_MODE_MARGIN;
+
+    /**
+     * if true, drag updates are applied once per display frame instead of once
+     * per touch event
+     */
+    private boolean mFrameSyncedDrag = false;
+
+    /**
+     * if true, the dragged view is placed where the finger is predicted to be
+     * when the frame is displayed
+     */
+    private boolean mPredictiveDrag = false;
+
+    /**
+     * if true, the view is flung and settles at the nearest of the show and
+     * hide positions when it is released
+     */
+    private boolean mSettleOnRelease = false;
+
+    /** positions the view docks to when it is dropped, may be null */
+    private AnchorIndex mAnchors;
+
+    /** informed about the anchor the view is previewing and docking to */
+    private OnAnchorListener mAnchorListener;
+
+    /**
+     * if true, the view is moved, scaled and rotated with one or more fingers
+     * via its render properties instead of being dragged
+     */
+    private boolean mMultiTouchTransform = false;
+
+    /** the transform of the view by the fingers of the current gesture */
+    private final TransformGesture mTransformGesture = new TransformGesture();
+
+    /** informed about the transform of the view by multiple fingers */
+    private OnTransformListener mTransformListener;
+
+    /** how the view avoids overlapping its siblings, default: none */
+    private int mCollisionMode = COLLISION_MODE_NONE;
+
+    /** space in pixels that is kept to the siblings */
+    private int mCollisionGap = 0;
+
+    /** moves the view out of its siblings, null without collision mode */
+    private OverlapResolver mOverlapResolver;
+
+    /**
+     * the index of the siblings the view is registered in if the parent is
+     * not a HideShowDragContainer, null if it is not registered
+     */
+    private CollisionIndex mCollisionIndex;
+
+    /** id of the view in mCollisionIndex */
+    private int mCollisionId = -1;
+
+    /** the area the view is kept in while dragged, default: none */
+    private int mDragBounds = DRAG_BOUNDS_NONE;
+
+    /** area in the coordinates of the parent for DRAG_BOUNDS_RECT */
+    private final Rect mDragBoundsRect = new Rect();
+
+    /** axis lock, bounds and over-drag of the current drag */
+    private final DragConstraints mDragConstraints = new DragConstraints();
+
+    /**
+     * true while the cached geometry of the parent is up to date, it is
+     * invalidated before every frame that is drawn
+     */
+    private boolean mParentGeometryValid = false;
+
+    /** position of the parent on the screen minus its scroll offset */
+    private int mParentScreenX, mParentScreenY;
+
+    /** the area inside the padding of the parent */
+    private final Rect mParentArea = new Rect();
+
+    /** statusbar height when the geometry of the parent was cached */
+    private int mStatusBarInset = 0;
+
+    /**
+     * invalidates the geometry of the parent before every frame, an ancestor
+     * may have been moved by a layout pass, a scroll, its translation or an
+     * animation, none of which the view is told about
+     */
+    private final ViewTreeObserver.OnPreDrawListener mGeometryPreDrawListener = new ViewTreeObserver.OnPreDrawListener() {
+
+        @Override
+        public boolean onPreDraw() {
+            mParentGeometryValid = false;
+            return true;
+        }
+    };
+
     /** x-coordinate destination of the show animation */
     private float mShowX = 0f;
 
@@ -75,8 +340,38 @@ public abstract class HideShowDragView extends FrameLayout {
     /** y-coordinate destination of the hide animation */
     private float mHideY = 0f;
 
-    /** the height of the statusbar in pixels */
-    private int mStatusBarHeight = 0;
+    /** content that is inflated when it is first needed, may be null */
+    private LazyContent mLazyContent;
+
+    /** if true, the lazy content is inflated while the main thread is idle */
+    private boolean mPreInflateWhenIdle = false;
+
+    /** keeps the positions of the view across process death, may be null */
+    private PositionStore mPositionStore;
+
+    /**
+     * true if the positions have been restored from the saved instance state,
+     * they are not read from the position store then
+     */
+    private boolean mPositionsRestored = false;
+
+    /** the window the view is shown in, null if it is not in an activity */
+    private Window mWindow;
+
+    /** hooks around drag updates, hide, show and layout, may be null */
+    private HideShowDragInstrumentation mInstrumentation = DEFAULT_INSTRUMENTATION;
+
+    /** counters of the work done while dragging and animating */
+    private final HideShowDragMetrics mMetrics = new HideShowDragMetrics();
+
+    /** records the touch events and hide / show calls, may be null */
+    private GestureRecorder mGestureRecorder;
+
+    /** reused buffer for the location of the view on the screen */
+    private final int[] mLocation = new int[2];
+
+    /** maximum velocity of a fling in pixels per second */
+    private float mMaxFlingVelocity = 0f;
 
     /** default constructor */
     public HideShowDragView(Context context) {
@@ -101,16 +396,69 @@ public abstract class HideShowDragView extends FrameLayout {
      */
     private void init() {
 
-        mShowInterpolator = new DecelerateInterpolator(0.5f);
-        mHideInterpolator = new DecelerateInterpolator(0.5f);
+        // shared by all views, the curve is not calculated for every frame
+        mShowInterpolator = LookupTableInterpolator.decelerate(0.5f);
+        mHideInterpolator = mShowInterpolator;
+
+        mTransitionAnimator = new TransitionAnimator(this, mTransitionListener);
+
+        WindowManager wm = (WindowManager) getContext().getSystemService(Context.WINDOW_SERVICE);
+        if (wm != null)
+            mMetrics.setRefreshRate(wm.getDefaultDisplay().getRefreshRate());
+
+        mWindow = WindowInsetCache.findWindow(getContext());
+        mMaxFlingVelocity = ViewConfiguration.get(getContext()).getScaledMaximumFlingVelocity();
+
+        if (sLogging)
+            Log.i(LOG_TAG, "HideShowView init(), status-bar height: " + getStatusBarHeight());
+    }
+
+    /**
+     * set this to true to log position and state changes of all hide / show
+     * views, logging allocates and should stay off outside of debugging,
+     * default: false
+     * 
+     * @param enabled
+     */
+    public static void setLoggingEnabled(boolean enabled) {
+        sLogging = enabled;
+    }
+
+    /**
+     * sets the instrumentation that is called around drag updates, hide, show
+     * and layout, null to disable instrumentation, default: a
+     * TraceInstrumentation emitting systrace sections
+     * 
+     * @param instrumentation
+     */
+    public void setInstrumentation(HideShowDragInstrumentation instrumentation) {
+        this.mInstrumentation = instrumentation;
+    }
 
-        mStatusBarHeight = getStatusBarHeight();
+    /**
+     * sets a recorder that records all touch events and hide / show calls of
+     * this view so that they can be replayed via the GestureReplayer, null to
+     * stop recording
+     * 
+     * @param recorder
+     */
+    public void setGestureRecorder(GestureRecorder recorder) {
+        this.mGestureRecorder = recorder;
+    }
 
-        Log.i(LOG_TAG, "HideShowView init(), status-bar height: " + mStatusBarHeight);
+    /**
+     * returns the counters of the work this view has done while being dragged
+     * and animated
+     * 
+     * @return
+     */
+    public HideShowDragMetrics getMetrics() {
+        return mMetrics;
     }
 
     /**
-     * set an interpolator for the showing animation, default: decelerate 0.5f
+     * set an interpolator for the showing animation, e.g. a shared
+     * LookupTableInterpolator, default: LookupTableInterpolator.decelerate(0.5f)
      * 
      * @param i
      */
@@ -119,7 +467,8 @@ public abstract class HideShowDragView extends FrameLayout {
     }
 
     /**
-     * set an interpolator for the hiding animation, default: decelerate 0.5f
+     * set an interpolator for the hiding animation, e.g. a shared
+     * LookupTableInterpolator, default: LookupTableInterpolator.decelerate(0.5f)
      * 
      * @param i
      */
@@ -128,12 +477,35 @@ public abstract class HideShowDragView extends FrameLayout {
     }
 
     /**
-     * add a hideshowlistener to the view
+     * set the hideshowlistener of the view, replaces all listeners that have
+     * been added before, null removes them
      * 
      * @param l
      */
     public void setHideShowListener(HideShowDragListener l) {
-        this.mListener = l;
+        mListeners.clear();
+        mListeners.add(l);
+    }
+
+    /**
+     * add a hideshowlistener to the view, if it is a
+     * HideShowDragProgressListener it also receives the drag and animation
+     * progress, if it is a HideShowDragStatsListener the frame stats of every
+     * animation and drag
+     * 
+     * @param l
+     */
+    public void addHideShowListener(HideShowDragListener l) {
+        mListeners.add(l);
+    }
+
+    /**
+     * removes a hideshowlistener that has been added before
+     * 
+     * @param l
+     */
+    public void removeHideShowListener(HideShowDragListener l) {
+        mListeners.remove(l);
     }
 
     /**
@@ -153,6 +525,8 @@ public abstract class HideShowDragView extends FrameLayout {
         this.mHideY = yHide;
 
         mNotMeasured = false;
+        flattenTransitionPath();
+        savePositions();
     }
 
     /**
@@ -165,33 +539,38 @@ public abstract class HideShowDragView extends FrameLayout {
      */
     public void setPosition(float x, float y) {
 
-        int[] loc = new int[] {
-                0, 0
-        };
-
-        getLocationOnScreen(loc);
+        // the current position in the coordinates of the parent, which the
+        // animations, the saved state and the position store use
+        float left = getLeft();
+        float top = getTop();
 
-        // take statusbar and view height into consideration
-        loc[1] = loc[1] - getHeight() / 2 - mStatusBarHeight;
+        if (Utils.supportsAPILevel(11)) {
+            left += getTranslationX();
+            top += getTranslationY();
+        }
 
         if (isShown()) {
 
             mHideX = x;
             mHideY = y;
 
-            mShowX = loc[0];
-            mShowY = loc[1];
+            mShowX = left;
+            mShowY = top;
 
         } else {
             mShowX = x;
             mShowY = y;
 
-            mHideX = loc[0];
-            mHideY = loc[1];
+            mHideX = left;
+            mHideY = top;
         }
 
-        Log.i(LOG_TAG, "set position: show: " + mShowX + " / " + mShowY + ", hide: " + mHideX
-                + " / " + mHideY + ", shown: " + mIsShown);
+        flattenTransitionPath();
+        savePositions();
+
+        if (sLogging)
+            Log.i(LOG_TAG, "set position: show: " + mShowX + " / " + mShowY + ", hide: "
+                    + mHideX + " / " + mHideY + ", shown: " + mIsShown);
     }
 
     /**
@@ -221,6 +600,7 @@ public abstract class HideShowDragView extends FrameLayout {
      */
     public void setIsShown(boolean shown) {
         this.mIsShown = shown;
+        savePositions();
     }
 
     /**
@@ -250,6 +630,115 @@ public abstract class HideShowDragView extends FrameLayout {
         this.mHideShowDuration = duration;
     }
 
+    /**
+     * sets the shape of the path the view follows from its hide to its show
+     * position and back, in a space in which the path starts at (0, 0) and
+     * ends at (1, 0), e.g. quadTo(0.5f, -0.5f, 1f, 0f) for an arc, the path is
+     * rotated and scaled onto the line between the two positions, only its
+     * first contour is used and it must not be changed afterwards, the path
+     * is measured on a background thread whenever the positions change,
+     * until that is done the view moves in a straight line, null for a
+     * straight line, default: null
+     * 
+     * @param path
+     */
+    public void setTransitionPath(Path path) {
+        this.mTransitionPath = path;
+        dropPathKeyframes();
+        flattenTransitionPath();
+    }
+
+    /**
+     * drops the keyframes of the current transition path and of all jobs
+     * that are still flattening it
+     */
+    private void dropPathKeyframes() {
+
+        synchronized (mPathTarget) {
+            mPathGeneration++;
+            mPathKeyframes = null;
+        }
+    }
+
+    /**
+     * flattens the transition path for the current hide and show position
+     * in the background
+     */
+    private void flattenTransitionPath() {
+
+        if (mTransitionPath == null)
+            return;
+
+        PathKeyframes keyframes = mPathKeyframes;
+
+        if (keyframes != null && keyframes.matches(mHideX, mHideY, mShowX, mShowY))
+            return;
+
+        PathFlattener.flatten(mTransitionPath, mHideX, mHideY, mShowX, mShowY, mPathGeneration,
+                mPathTarget);
+    }
+
+    /**
+     * sets the alpha and the scale the view is animated to when hiding, both
+     * are animated back to 1 when showing, default: 1 / 1
+     * 
+     * @param alpha
+     * @param scale
+     */
+    public void setHiddenAlphaAndScale(float alpha, float scale) {
+        this.mHiddenAlpha = alpha;
+        this.mHiddenScale = scale;
+    }
+
+    /**
+     * sets when the view should be rendered into a hardware layer,
+     * LAYER_POLICY_NONE, LAYER_POLICY_ANIMATION or
+     * LAYER_POLICY_ANIMATION_AND_DRAG, default: LAYER_POLICY_ANIMATION
+     * 
+     * @param policy
+     */
+    public void setLayerPolicy(int policy) {
+        this.mLayerPolicy = policy;
+    }
+
+    /**
+     * returns when the view is rendered into a hardware layer
+     * 
+     * @return
+     */
+    public int getLayerPolicy() {
+        return mLayerPolicy;
+    }
+
+    /**
+     * set this to true if the children of the view should be captured into a
+     * bitmap when a drag, hide, show or settle starts and only that bitmap
+     * should be drawn until the view stops moving, so that a frame of a view
+     * with complex content costs a single bitmap draw, the bitmap is captured
+     * again when a child is invalidated, mostly useful where no hardware layer
+     * is used (LAYER_POLICY_NONE or software rendering), default: false
+     * 
+     * @param enabled
+     */
+    public void setSnapshotWhileMoving(boolean enabled) {
+        this.mSnapshotWhileMoving = enabled;
+
+        if (!enabled && mSnapshotReasons != 0) {
+            mSnapshotReasons = 0;
+            mSnapshot.end();
+            invalidate();
+        }
+    }
+
+    /**
+     * returns true if a snapshot of the children is drawn while the view moves
+     * 
+     * @return
+     */
+    public boolean isSnapshotWhileMoving() {
+        return mSnapshotWhileMoving;
+    }
+
     /**
      * set this to true if you want the view to be set invisible once the hide
      * animation is finished, default: true
@@ -280,247 +769,2376 @@ public abstract class HideShowDragView extends FrameLayout {
     }
 
     /**
-     * show the view if its currently not visible it is advised to set the
-     * isVisible variable to true within this method
+     * set this to true if the position of the view should only be updated once
+     * per display frame while dragging, no matter how many touch events arrive
+     * in between, default: false
+     * 
+     * @param enabled
      */
-    public void show() {
-
-        if (!mIsShown && !mIsAnimating) {
-
-            invalidate();
-
-            setVisibility(View.VISIBLE);
-            mIsAnimating = true;
-
-            Log.i(LOG_TAG, "Showing, to: " + mShowX + " / " + mShowY);
+    public void setFrameSyncedDrag(boolean enabled) {
+        this.mFrameSyncedDrag = enabled;
 
-            if (Utils.supportsAPILevel(16)) {
-
-                animate().y(mShowY).setDuration(mHideShowDuration)
-                        .setInterpolator(mShowInterpolator).withLayer();
-                animate().x(mShowX).setDuration(mHideShowDuration)
-                        .setInterpolator(mShowInterpolator).withLayer();
-            }
-            else if (Utils.supportsAPILevel(12)) {
-
-                animate().y(mShowY).setDuration(mHideShowDuration)
-                        .setInterpolator(mShowInterpolator);
-                animate().x(mShowX).setDuration(mHideShowDuration)
-                        .setInterpolator(mShowInterpolator);
-            }
-
-            Handler h = new Handler();
-            h.postDelayed(new Runnable() {
-
-                @Override
-                public void run() {
-
-                    mIsShown = true;
-                    mIsAnimating = false;
-                    if (mListener != null)
-                        mListener.onShow(HideShowDragView.this, mShowX, mShowY);
-                }
-            }, mHideShowDuration);
-        }
+        if (!enabled)
+            flushPendingDrag();
     }
 
     /**
-     * hide the view if its currently visible it is advised to set the isVisible
-     * variable to false within this method
+     * returns true if drag updates are applied once per display frame
+     * 
+     * @return
      */
-    public void hide() {
-
-        if (mIsShown && !mIsAnimating) {
-
-            invalidate();
-
-            mIsAnimating = true;
-            Log.i(LOG_TAG, "Hiding, to: " + mHideX + " / " + mHideY);
-
-            if (Utils.supportsAPILevel(16)) {
-
-                animate().y(mHideY).setDuration(mHideShowDuration)
-                        .setInterpolator(mHideInterpolator).withLayer();
-                animate().x(mHideX).setDuration(mHideShowDuration)
-                        .setInterpolator(mHideInterpolator).withLayer();
-            }
-            else if (Utils.supportsAPILevel(12)) {
-
-                animate().y(mHideY).setDuration(mHideShowDuration)
-                        .setInterpolator(mHideInterpolator);
-                animate().x(mHideX).setDuration(mHideShowDuration)
-                        .setInterpolator(mHideInterpolator);
-            }
-
-            Handler h = new Handler();
-            h.postDelayed(new Runnable() {
-
-                @Override
-                public void run() {
-
-                    if (mMakeInvisible)
-                        setVisibility(View.INVISIBLE);
-                    mIsShown = false;
-                    mIsAnimating = false;
+    public boolean isFrameSyncedDrag() {
+        return mFrameSyncedDrag;
+    }
 
-                    if (mListener != null)
-                        mListener.onHide(HideShowDragView.this, mHideX, mHideY);
-                }
-            }, mHideShowDuration);
-        }
+    /**
+     * set this to true if the dragged view should be placed where the finger
+     * is predicted to be when the next frame is displayed instead of where it
+     * was at the latest touch event, the prediction uses the historical samples
+     * of the touch events and is stopped when the finger turns around, the
+     * prediction error is reported by the metrics of the view, default: false
+     * 
+     * @param enabled
+     */
+    public void setPredictiveDrag(boolean enabled) {
+        this.mPredictiveDrag = enabled;
     }
 
     /**
-     * calculates the height of the statusbar
+     * returns true if the dragged view is placed at the predicted position of
+     * the finger
      * 
      * @return
      */
-    private int getStatusBarHeight() {
-
-        if (isFullScreen())
-            return 0;
-
-        int result = 0;
-        int resourceId = getResources().getIdentifier("status_bar_height", "dimen", "android");
-
-        if (resourceId > 0) {
-            result = getResources().getDimensionPixelSize(resourceId);
-        }
+    public boolean isPredictiveDrag() {
+        return mPredictiveDrag;
+    }
 
-        return result;
+    /**
+     * set this to true if the view should keep its release velocity and settle
+     * at the nearest of the show and hide positions when it is dropped instead
+     * of staying where it was released, requires API level 11, default: false
+     * 
+     * @param enabled
+     */
+    public void setSettleOnRelease(boolean enabled) {
+        this.mSettleOnRelease = enabled;
     }
 
     /**
-     * determine if the app is running in fullscreen mode
+     * returns true if the view settles at the show or hide position when it is
+     * released
      * 
      * @return
      */
-    public boolean isFullScreen() {
-
-        int flg = ((Activity) getContext()).getWindow().getAttributes().flags;
-        boolean flag = false;
-
-        if ((flg & 1024) == 1024) {
-            flag = true;
-        }
-        return flag;
+    public boolean isSettleOnRelease() {
+        return mSettleOnRelease;
     }
 
-    /** distance between the dragging finger and the left edge of the view */
+    /**
+     * sets the friction that slows down the view after it has been flung,
+     * higher values make it come to rest sooner, default: 4
+     * 
+     * @param friction
+     */
+    public void setFlingFriction(float friction) {
+        mSettle.setFriction(friction);
+    }
+
+    /**
+     * sets the spring that moves the view to its show or hide position after
+     * it has been released, dampingRatio between 0 and 1, 1 means the view
+     * does not overshoot, default: 200 / 0.8
+     * 
+     * @param stiffness
+     * @param dampingRatio
+     */
+    public void setSettleSpring(float stiffness, float dampingRatio) {
+        mSettle.setSpring(stiffness, dampingRatio);
+    }
+
+    /**
+     * sets the anchors the view docks to, while dragging the nearest anchor is
+     * previewed and the view is animated to it when dropped, the anchor then
+     * becomes the show or hide position of the current state, anchors are
+     * positions like the ones of setPositions(), requires API level 11, null
+     * to remove all anchors
+     * 
+     * @param anchors can be shared by multiple views
+     */
+    public void setAnchors(AnchorIndex anchors) {
+        this.mAnchors = anchors;
+    }
+
+    /**
+     * returns the anchors the view docks to, null if there are none
+     * 
+     * @return
+     */
+    public AnchorIndex getAnchors() {
+        return mAnchors;
+    }
+
+    /**
+     * returns the id of the anchor nearest to the view during the running or
+     * the last drag, -1 if there is none
+     * 
+     * @return
+     */
+    public int getPreviewAnchor() {
+        return mPreviewAnchor;
+    }
+
+    /**
+     * sets the listener that is informed when the previewed anchor changes
+     * while dragging and when the view has docked to an anchor
+     * 
+     * @param l
+     */
+    public void setOnAnchorListener(OnAnchorListener l) {
+        this.mAnchorListener = l;
+    }
+
+    /**
+     * if set to true, the view is moved, pinch-scaled and rotated with one or
+     * more fingers instead of being dragged, the transform is applied via
+     * translation, scale and rotation without any layout pass, the position
+     * of the view when the last finger is lifted becomes its show or hide
+     * position, settling, anchors and predictive drag do not apply, requires
+     * API level 11, default: false
+     * 
+     * @param enabled
+     */
+    public void setMultiTouchTransform(boolean enabled) {
+        this.mMultiTouchTransform = enabled;
+    }
+
+    /**
+     * returns true if the view is transformed with multiple fingers instead of
+     * being dragged
+     * 
+     * @return
+     */
+    public boolean isMultiTouchTransform() {
+        return mMultiTouchTransform;
+    }
+
+    /**
+     * sets the range the scale of a multi-touch transform is clamped to,
+     * default: 0.25 to 4
+     * 
+     * @param min
+     * @param max
+     */
+    public void setTransformScaleRange(float min, float max) {
+        mTransformGesture.setScaleRange(min, max);
+    }
+
+    /**
+     * sets the listener that is informed about the transform of the view while
+     * it is manipulated with multiple fingers
+     * 
+     * @param l
+     */
+    public void setOnTransformListener(OnTransformListener l) {
+        this.mTransformListener = l;
+    }
+
+    /**
+     * sets how the view avoids overlapping its siblings when it is dragged,
+     * COLLISION_MODE_NONE, COLLISION_MODE_PUSH or COLLISION_MODE_SNAP, the
+     * bounds of the siblings are kept in a spatial grid shared by all
+     * children of the parent, in a HideShowDragContainer the view avoids all
+     * siblings, in other parents only the siblings that avoid collisions
+     * themselves, not applied to multi-touch transforms, default:
+     * COLLISION_MODE_NONE
+     * 
+     * @param mode
+     */
+    public void setCollisionMode(int mode) {
+
+        this.mCollisionMode = mode;
+
+        if (mode == COLLISION_MODE_NONE) {
+            unregisterCollisionBounds();
+            return;
+        }
+
+        if (mOverlapResolver == null)
+            mOverlapResolver = new OverlapResolver(MAX_COLLISION_NEIGHBORS);
+
+        updateCollisionBounds();
+    }
+
+    /**
+     * returns how the view avoids overlapping its siblings
+     * 
+     * @return
+     */
+    public int getCollisionMode() {
+        return mCollisionMode;
+    }
+
+    /**
+     * sets the space in pixels that is kept to the siblings when avoiding
+     * overlaps, default: 0
+     * 
+     * @param gap
+     */
+    public void setCollisionGap(int gap) {
+        this.mCollisionGap = gap;
+    }
+
+    /**
+     * sets the area the view is kept in while it is dragged, DRAG_BOUNDS_NONE
+     * or DRAG_BOUNDS_PARENT, use setDragBounds(Rect) for a custom area, the
+     * geometry of the parent is cached once per layout pass, not applied to
+     * multi-touch transforms, default: DRAG_BOUNDS_NONE
+     * 
+     * @param bounds
+     */
+    public void setDragBounds(int bounds) {
+        this.mDragBounds = bounds;
+    }
+
+    /**
+     * keeps the view inside the given rectangle in the coordinates of its
+     * parent while it is dragged, the rectangle is copied
+     * 
+     * @param bounds
+     */
+    public void setDragBounds(Rect bounds) {
+        mDragBoundsRect.set(bounds);
+        mDragBounds = DRAG_BOUNDS_RECT;
+    }
+
+    /**
+     * returns the area the view is kept in while it is dragged
+     * 
+     * @return
+     */
+    public int getDragBounds() {
+        return mDragBounds;
+    }
+
+    /**
+     * sets the direction the view can be dragged in, DRAG_AXIS_BOTH,
+     * DRAG_AXIS_HORIZONTAL or DRAG_AXIS_VERTICAL, default: DRAG_AXIS_BOTH
+     * 
+     * @param axis
+     */
+    public void setDragAxis(int axis) {
+        mDragConstraints.setAxis(axis);
+    }
+
+    /**
+     * returns the direction the view can be dragged in
+     * 
+     * @return
+     */
+    public int getDragAxis() {
+        return mDragConstraints.getAxis();
+    }
+
+    /**
+     * sets how far in pixels the view can be dragged past its drag bounds,
+     * it resists like a rubber band the further it is dragged out and is
+     * animated back into the bounds when it is dropped (moved back at once
+     * below API level 11), 0 stops it at the bounds, default: 0
+     * 
+     * @param overDrag
+     */
+    public void setOverDrag(float overDrag) {
+        mDragConstraints.setOverDrag(overDrag);
+    }
+
+    /**
+     * returns how far the view can be dragged past its drag bounds
+     * 
+     * @return
+     */
+    public float getOverDrag() {
+        return mDragConstraints.getOverDrag();
+    }
+
+    /**
+     * sets how the view is moved while being dragged, DRAG_MODE_MARGIN or
+     * DRAG_MODE_TRANSLATION, default: DRAG_MODE_MARGIN
+     * 
+     * @param mode
+     */
+    public void setDragMode(int mode) {
+        this.mDragMode = mode;
+    }
+
+    /**
+     * returns the mode that is used to move the view while being dragged
+     * 
+     * @return
+     */
+    public int getDragMode() {
+        return mDragMode;
+    }
+
+    /**
+     * show the view if its currently not visible, a running hide animation is
+     * reversed from the current position of the view
+     */
+    public void show() {
+        show(null, 0);
+    }
+
+    /**
+     * shows the view driven by the given ticker, used by HideShowDragGroup
+     * to animate many views with one frame callback, returns true if an
+     * animation has been started
+     * 
+     * @param ticker null for the ticker of the main thread
+     * @param delayMillis
+     * @return
+     */
+    boolean show(FrameTicker ticker, long delayMillis) {
+
+        if (mGestureRecorder != null)
+            mGestureRecorder.recordShow();
+
+        if (mTransition == TRANSITION_SHOWING || (mTransition == TRANSITION_NONE && mIsShown))
+            return false;
+
+        beginSection(HideShowDragInstrumentation.SECTION_SHOW);
+
+        stopSettle();
+        invalidate();
+
+        // the content is needed from the first frame of the animation on
+        inflateLazyContent(false);
+
+        setVisibility(View.VISIBLE);
+
+        if (sLogging)
+            Log.i(LOG_TAG, "Showing, to: " + mShowX + " / " + mShowY);
+
+        boolean animating = startTransition(TRANSITION_SHOWING, mShowX, mShowY,
+                mShowInterpolator, ticker, delayMillis);
+
+        endSection(HideShowDragInstrumentation.SECTION_SHOW);
+        return animating;
+    }
+
+    /**
+     * hide the view if its currently visible, a running show animation is
+     * reversed from the current position of the view
+     */
+    public void hide() {
+        hide(null, 0);
+    }
+
+    /**
+     * hides the view driven by the given ticker, used by HideShowDragGroup
+     * to animate many views with one frame callback, returns true if an
+     * animation has been started
+     * 
+     * @param ticker null for the ticker of the main thread
+     * @param delayMillis
+     * @return
+     */
+    boolean hide(FrameTicker ticker, long delayMillis) {
+
+        if (mGestureRecorder != null)
+            mGestureRecorder.recordHide();
+
+        if (mTransition == TRANSITION_HIDING || (mTransition == TRANSITION_NONE && !mIsShown))
+            return false;
+
+        beginSection(HideShowDragInstrumentation.SECTION_HIDE);
+
+        stopSettle();
+        invalidate();
+
+        if (sLogging)
+            Log.i(LOG_TAG, "Hiding, to: " + mHideX + " / " + mHideY);
+
+        boolean animating = startTransition(TRANSITION_HIDING, mHideX, mHideY,
+                mHideInterpolator, ticker, delayMillis);
+
+        endSection(HideShowDragInstrumentation.SECTION_HIDE);
+        return animating;
+    }
+
+    /**
+     * animates the view to the given position, if the opposite transition is
+     * running it is canceled and the new one only takes as long as the
+     * canceled one has been running, returns false if the view has been moved
+     * to the position right away
+     * 
+     * @param transition
+     * @param x
+     * @param y
+     * @param interpolator
+     * @param ticker
+     * @param delayMillis
+     * @return
+     */
+    private boolean startTransition(int transition, float x, float y,
+            TimeInterpolator interpolator, FrameTicker ticker, long delayMillis) {
+
+        long duration = mHideShowDuration;
+
+        // a reversed transition goes back along its path
+        float pathFraction = -1f;
+
+        if (mTransition != TRANSITION_NONE) {
+
+            if (mTransitionAnimator.isOnPath())
+                pathFraction = mTransitionAnimator.getPathFraction();
+
+            // going back takes as long as the way that has been covered
+            duration = Math.max(0, mHideShowDuration - mTransitionAnimator.getRemainingMillis());
+
+            // the hardware layer is kept for the reversed transition
+            mTransitionAnimator.cancel();
+        }
+
+        mTransition = transition;
+        mIsAnimating = true;
+        beginStats(mTransitionStats);
+
+        if (!Utils.supportsAPILevel(11)) {
+            finishTransition();
+            return false;
+        }
+
+        acquireLayer(LAYER_FOR_ANIMATION);
+
+        mMetrics.onAnimationStart();
+
+        setTransitionPathFrom(transition, pathFraction);
+
+        float alpha = transition == TRANSITION_SHOWING ? 1f : mHiddenAlpha;
+        float scale = transition == TRANSITION_SHOWING ? 1f : mHiddenScale;
+
+        mTransitionAnimator.start(getX(), getY(), x, y, getAlpha(), alpha, getScaleX(), scale,
+                duration, interpolator, ticker, delayMillis);
+        return true;
+    }
+
+    /**
+     * lets the transition follow the flattened transition path if it is ready
+     * and the view is on the path, a straight line is used otherwise
+     * 
+     * @param transition
+     * @param pathFraction fraction of the path the view is at, -1 if the view
+     *            is not moving along the path
+     */
+    private void setTransitionPathFrom(int transition, float pathFraction) {
+
+        PathKeyframes keyframes = mTransitionPath != null ? mPathKeyframes : null;
+
+        if (keyframes != null && !keyframes.matches(mHideX, mHideY, mShowX, mShowY))
+            keyframes = null;
+
+        if (keyframes != null && pathFraction < 0) {
+
+            // the path can only be followed from one of its ends
+            if (transition == TRANSITION_SHOWING && isAt(mHideX, mHideY))
+                pathFraction = 0f;
+            else if (transition == TRANSITION_HIDING && isAt(mShowX, mShowY))
+                pathFraction = 1f;
+            else
+                keyframes = null;
+        }
+
+        mTransitionAnimator.setPath(keyframes, pathFraction,
+                transition == TRANSITION_SHOWING ? 1f : 0f);
+    }
+
+    /**
+     * returns true if the view is within a pixel of the given position
+     * 
+     * @param x
+     * @param y
+     * @return
+     */
+    private boolean isAt(float x, float y) {
+        return Math.abs(getX() - x) < 1f && Math.abs(getY() - y) < 1f;
+    }
+
+    /**
+     * cancels the running hide or show animation, the view stays where it
+     * currently is
+     */
+    private void cancelTransition() {
+
+        if (mTransition == TRANSITION_NONE)
+            return;
+
+        mTransition = TRANSITION_NONE;
+        mIsAnimating = false;
+
+        mTransitionAnimator.cancel();
+        releaseLayer(LAYER_FOR_ANIMATION);
+        notifyContainerMoved();
+    }
+
+    /**
+     * called when the hide or show animation has reached its end
+     */
+    private void finishTransition() {
+
+        int transition = mTransition;
+
+        mTransition = TRANSITION_NONE;
+        mIsAnimating = false;
+
+        releaseLayer(LAYER_FOR_ANIMATION);
+        notifyContainerMoved();
+
+        mListeners.dispatchTransitionStats(this, transition == TRANSITION_SHOWING,
+                mTransitionStats);
+
+        if (transition == TRANSITION_SHOWING) {
+
+            mIsShown = true;
+            savePositions();
+            mListeners.dispatchShow(this, mShowX, mShowY);
+
+        } else if (transition == TRANSITION_HIDING) {
+
+            if (mMakeInvisible)
+                setVisibility(View.INVISIBLE);
+            mIsShown = false;
+            savePositions();
+            mListeners.dispatchHide(this, mHideX, mHideY);
+        }
+    }
+
+    /**
+     * returns the number of frames that were rendered by the running or the
+     * last hide / show animation
+     * 
+     * @return
+     */
+    public int getLastTransitionFrameCount() {
+        return mTransitionAnimator.getFrameCount();
+    }
+
+    /**
+     * completes the hide / show state as soon as the animation has ended
+     */
+    private final TransitionAnimator.Listener mTransitionListener = new TransitionAnimator.Listener() {
+
+        @Override
+        public void onTransitionFrame(TransitionAnimator animator, long frameTimeNanos) {
+            mMetrics.onAnimationFrame(frameTimeNanos);
+            mTransitionStats.onFrame(frameTimeNanos);
+
+            if (mListeners.hasProgressListeners())
+                mListeners.dispatchAnimationProgress(HideShowDragView.this, getX(), getY(),
+                        animator.getFraction());
+        }
+
+        @Override
+        public void onTransitionEnd(TransitionAnimator animator) {
+            finishTransition();
+        }
+
+        @Override
+        public void onTransitionCancel(TransitionAnimator animator) {
+            // transitions are only canceled by the view itself, which resets
+            // the transition state on its own
+        }
+    };
+
+    /**
+     * requests a hardware layer for the given reason if the layer policy
+     * allows it, the layer is kept until all reasons have been released
+     * 
+     * @param reason
+     */
+    private void acquireLayer(int reason) {
+
+        if (mSnapshotWhileMoving)
+            beginSnapshot(reason);
+
+        if (mLayerPolicy == LAYER_POLICY_NONE || !Utils.supportsAPILevel(11))
+            return;
+
+        if (reason == LAYER_FOR_DRAG && mLayerPolicy != LAYER_POLICY_ANIMATION_AND_DRAG)
+            return;
+
+        if (mLayerReasons == 0 && isHardwareAccelerated()) {
+
+            mLayerTypeBeforeAnimation = getLayerType();
+
+            if (mLayerTypeBeforeAnimation != LAYER_TYPE_HARDWARE) {
+                setLayerType(LAYER_TYPE_HARDWARE, null);
+
+                // rasterize the content right away instead of on the first
+                // animated frame
+                if (getWindowToken() != null)
+                    buildLayer();
+            }
+
+            mLayerReasons = reason;
+        } else if (mLayerReasons != 0) {
+            mLayerReasons |= reason;
+        }
+    }
+
+    /**
+     * releases the hardware layer requested for the given reason, restores
+     * the previous layer type once no reason is left
+     * 
+     * @param reason
+     */
+    private void releaseLayer(int reason) {
+
+        endSnapshot(reason);
+
+        if ((mLayerReasons & reason) == 0)
+            return;
+
+        mLayerReasons &= ~reason;
+
+        if (mLayerReasons == 0 && getLayerType() != mLayerTypeBeforeAnimation)
+            setLayerType(mLayerTypeBeforeAnimation, null);
+    }
+
+    /**
+     * starts drawing the snapshot of the children for the given reason
+     * 
+     * @param reason
+     */
+    private void beginSnapshot(int reason) {
+
+        if (mSnapshotReasons == 0) {
+
+            if (mSnapshot == null)
+                mSnapshot = new ContentSnapshot();
+
+            mSnapshot.begin();
+            invalidate();
+        }
+
+        mSnapshotReasons |= reason;
+    }
+
+    /**
+     * switches back to drawing the children live once no reason for the
+     * snapshot is left
+     * 
+     * @param reason
+     */
+    private void endSnapshot(int reason) {
+
+        if ((mSnapshotReasons & reason) == 0)
+            return;
+
+        mSnapshotReasons &= ~reason;
+
+        if (mSnapshotReasons == 0) {
+            mSnapshot.end();
+            invalidate();
+        }
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+
+        if (mSnapshot == null || !mSnapshot.isActive()) {
+            super.dispatchDraw(canvas);
+            return;
+        }
+
+        if (!mSnapshot.isValid()) {
+
+            Canvas capture = mSnapshot.beginCapture(getWidth(), getHeight());
+
+            // no bitmap available, the children are drawn live
+            if (capture == null) {
+                super.dispatchDraw(canvas);
+                return;
+            }
+
+            super.dispatchDraw(capture);
+            mSnapshot.endCapture();
+        }
+
+        mSnapshot.draw(canvas);
+    }
+
+    @Override
+    public ViewParent invalidateChildInParent(int[] location, Rect dirty) {
+
+        // a child has changed, the snapshot is captured again on the next
+        // frame, the view itself has to be redrawn for that
+        if (mSnapshot != null && mSnapshot.isActive()) {
+            mSnapshot.invalidate();
+            invalidate();
+        }
+
+        return super.invalidateChildInParent(location, dirty);
+    }
+
+    /**
+     * called instead of invalidateChildInParent() on API level 26+ when the
+     * window is hardware accelerated
+     * 
+     * @param child
+     * @param target
+     */
+    @Override
+    public void onDescendantInvalidated(View child, View target) {
+
+        super.onDescendantInvalidated(child, target);
+
+        if (mSnapshot != null && mSnapshot.isActive()) {
+            mSnapshot.invalidate();
+            invalidate();
+        }
+    }
+
+    /**
+     * returns the height of the statusbar, 0 in fullscreen mode, read from a
+     * cache shared by all views
+     * 
+     * @return
+     */
+    private int getStatusBarHeight() {
+        return WindowInsetCache.getStatusBarInset(getResources(), mWindow);
+    }
+
+    /**
+     * determine if the app is running in fullscreen mode
+     * 
+     * @return
+     */
+    public boolean isFullScreen() {
+        return WindowInsetCache.isFullScreen(mWindow);
+    }
+
+    @Override
+    protected void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+
+        WindowInsetCache.invalidate(mWindow);
+        mParentGeometryValid = false;
+    }
+
+    @Override
+    protected boolean fitSystemWindows(Rect insets) {
+
+        // called whenever the insets of the window change, e.g. when it
+        // switches to fullscreen
+        WindowInsetCache.invalidate(mWindow);
+        mParentGeometryValid = false;
+
+        return super.fitSystemWindows(insets);
+    }
+
+    @Override
+    public void onWindowSystemUiVisibilityChanged(int visible) {
+        super.onWindowSystemUiVisibilityChanged(visible);
+
+        WindowInsetCache.invalidate(mWindow);
+        mParentGeometryValid = false;
+    }
+
+    /** distance between the dragging finger and the left edge of the view */
     private float mOffsetX = 0;
 
-    /** distance between the dragging finger and the top edge of the view */
-    private float mOffsetY = 0;
-    
+    /** distance between the dragging finger and the top edge of the view */
+    private float mOffsetY = 0;
+
+    /** x-translation of the view when the drag was started */
+    private float mDragStartTranslationX = 0;
+
+    /** y-translation of the view when the drag was started */
+    private float mDragStartTranslationY = 0;
+
+    /** latest raw x-position of the dragging finger not yet applied */
+    private float mPendingRawX = 0;
+
+    /** latest raw y-position of the dragging finger not yet applied */
+    private float mPendingRawY = 0;
+
+    /** x-position of the view at a left margin of 0 while dragging */
+    private float mDragOriginX = 0;
+
+    /** y-position of the view at a top margin of 0 while dragging */
+    private float mDragOriginY = 0;
+
+    /** left margin of the latest drag update */
+    private int mDragLeft = 0;
+
+    /** top margin of the latest drag update */
+    private int mDragTop = 0;
+
+    /** x-position of the view in its parent after the latest drag update */
+    private float mDragX = 0;
+
+    /** y-position of the view in its parent after the latest drag update */
+    private float mDragY = 0;
+
+    /** true if the listeners have not been told about the latest drag update */
+    private boolean mDragMovePending = false;
+
+    /** tells the listeners about the drag updates once per frame */
+    private final FrameTicker.FrameCallback mDragMoveFrameCallback = new FrameTicker.FrameCallback() {
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+
+            // already dispatched or cancelled earlier in this frame
+            if (!mDragMovePending)
+                return;
+
+            mDragMovePending = false;
+            mListeners.dispatchDragMove(HideShowDragView.this, mDragX, mDragY);
+        }
+    };
+
+    /** anchor nearest to the dragged view, -1 if there is none */
+    private int mPreviewAnchor = -1;
+
+    /** anchor the view is settling to, -1 if it settles to show or hide */
+    private int mSettleAnchor = -1;
+
+    /** true if a drag position is waiting for the next frame */
+    private boolean mDragPending = false;
+
+    /** applies the latest drag position once per frame */
+    private final FrameTicker.FrameCallback mDragFrameCallback = new FrameTicker.FrameCallback() {
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+
+            if (mPredictiveDrag && mDragPending) {
+
+                // the frame is displayed about one frame after it starts
+                cancelPendingDrag();
+                updatePredictedDragPosition(frameTimeNanos + mMetrics.getFrameBudgetNanos());
+            } else {
+                flushPendingDrag();
+            }
+
+            // the update already waited for this frame, the listeners do not
+            // need to wait for the next one
+            dispatchPendingDragMove();
+        }
+    };
+
+    /** true if the next frame is recorded into the drag stats */
+    private boolean mDragStatsFramePending = false;
+
+    /** time of the oldest touch sample the next frame shows */
+    private long mDragStatsEventNanos = 0;
+
+    /** records the frames that show drag updates */
+    private final FrameTicker.FrameCallback mDragStatsFrameCallback = new FrameTicker.FrameCallback() {
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+
+            mDragStatsFramePending = false;
+            mDragStats.onFrame(frameTimeNanos, mDragStatsEventNanos);
+            mDragStats.onLatency(frameTimeNanos - mDragStatsEventNanos);
+        }
+    };
+
+    /** extrapolates the position of the dragging finger */
+    private final TouchPredictor mPredictor = new TouchPredictor();
+
+    /** tracks the velocity of the dragging finger for settling */
+    private VelocityTracker mVelocityTracker;
+
+    /** moves the view to its show or hide position after it was released */
+    private final SettleSimulation mSettle = new SettleSimulation();
+
+    /** true while the view is settling or waiting for the layout to settle */
+    private boolean mSettling = false;
+
+    /** true if the view is settling towards the show position */
+    private boolean mSettleToShow = false;
+
+    /**
+     * true if the view is settling back to its dropped position, inside its
+     * bounds and out of its siblings
+     */
+    private boolean mSettleReturn = false;
+
+    /** translation the view settling back to its dropped position rests at */
+    private float mReturnTranslationX = 0;
+
+    /** translation the view settling back to its dropped position rests at */
+    private float mReturnTranslationY = 0;
+
+    /** x-velocity of the view when it was released */
+    private float mReleaseVelocityX = 0;
+
+    /** y-velocity of the view when it was released */
+    private float mReleaseVelocityY = 0;
+
+    /** time of the last settle frame */
+    private long mLastSettleFrameNanos = 0;
+
+    /** steps the settle simulation once per frame */
+    private final FrameTicker.FrameCallback mSettleFrameCallback = new FrameTicker.FrameCallback() {
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            doSettleFrame(frameTimeNanos);
+        }
+    };
+
+    @Override
+    public boolean onTouchEvent(MotionEvent ev) {
+
+        if (!mDragEnabled)
+            return false;
+
+        if (mGestureRecorder != null)
+            mGestureRecorder.record(ev, Utils.supportsAPILevel(11) ? getMatrix() : null);
+
+        final int action = MotionEventCompat.getActionMasked(ev);
+
+        if (mMultiTouchTransform && Utils.supportsAPILevel(11))
+            return onTransformEvent(ev, action);
+
+        if (mSettleOnRelease)
+            trackVelocity(ev, action);
+
+        if (mPredictiveDrag)
+            addPredictorSamples(ev, action);
+
+        switch (action) {
+            case MotionEvent.ACTION_DOWN: {
+
+                cancelPendingDrag();
+                stopSettle();
+                cancelTransition();
+                acquireLayer(LAYER_FOR_DRAG);
+
+                mDragX = getLeft();
+                mDragY = getTop();
+
+                if (Utils.supportsAPILevel(11)) {
+                    mDragX += getTranslationX();
+                    mDragY += getTranslationY();
+                }
+
+                MarginLayoutParams params = getMarginParams();
+
+                if (params != null) {
+
+                    mOffsetX = DragMath.touchOffset(ev.getRawX(), params.leftMargin);
+                    mOffsetY = DragMath.touchOffset(ev.getRawY(), params.topMargin);
+
+                    if (isTranslationDrag()) {
+                        mDragStartTranslationX = getTranslationX();
+                        mDragStartTranslationY = getTranslationY();
+                    }
+
+                    mPreviewAnchor = -1;
+                    mDragLeft = params.leftMargin;
+                    mDragTop = params.topMargin;
+                    cancelDragStatsFrame();
+                    beginStats(mDragStats);
+
+                    mDragOriginX = getLeft() - params.leftMargin;
+                    mDragOriginY = getTop() - params.topMargin;
+
+                    if (Utils.supportsAPILevel(11)) {
+                        mDragOriginX += getTranslationX();
+                        mDragOriginY += getTranslationY();
+                    }
+
+                    beginDragConstraints(params.leftMargin, params.topMargin);
+
+                    mListeners.dispatchDragStart(this, params.leftMargin, params.topMargin);
+                }
+
+                break;
+            }
+
+            case MotionEvent.ACTION_MOVE: {
+
+                mMetrics.onMoveEvent();
+
+                if (mListeners.hasStatsListeners())
+                    requestDragStatsFrame(ev);
+
+                if (mFrameSyncedDrag) {
+
+                    // historical samples are always older than the current
+                    // one, so the current sample is the latest position
+                    mPendingRawX = ev.getRawX();
+                    mPendingRawY = ev.getRawY();
+
+                    if (!mDragPending) {
+                        mDragPending = true;
+                        FrameTicker.getInstance().postFrameCallback(mDragFrameCallback);
+                    }
+                } else if (mPredictiveDrag) {
+                    updatePredictedDragPosition(ev.getEventTime() * 1000000L
+                            + mMetrics.getFrameBudgetNanos());
+                } else {
+                    updateDragPosition(ev.getRawX(), ev.getRawY());
+                }
+                break;
+            }
+
+            case MotionEvent.ACTION_UP: {
+
+                // the position of the view needs to be up to date before it
+                // is read
+                applyFinalDragPosition(ev);
+
+                // a view with anchors is always animated to one of them
+                finishDrag((mSettleOnRelease && Utils.supportsAPILevel(11)) || hasAnchors());
+                break;
+            }
+
+            case MotionEvent.ACTION_CANCEL: {
+
+                // e.g. a scrolling parent has taken over the gesture, the
+                // view is dropped where it is without settling
+                applyFinalDragPosition(ev);
+                finishDrag(false);
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * ends a drag when the view is released or the gesture is cancelled: the
+     * dropped position becomes the show or hide position, or the view starts
+     * settling, and the listeners are told where the view was dropped
+     * 
+     * @param settle
+     */
+    private void finishDrag(boolean settle) {
+
+        int[] loc = mLocation;
+
+        // a settling view is animated on from where it was released, any
+        // other one is moved into its bounds and out of its siblings
+        boolean returning = !settle && resolveDropPosition();
+
+        // the position is taken from the dragged position, which is already up
+        // to date while the layout pass of margin mode or the commit of
+        // translation mode is still pending, when settling the translation is
+        // kept and animated further, the listeners receive it in the
+        // coordinates of the screen
+        toAnimationLocation(mDragX, mDragY, loc);
+        if (!settle && !returning)
+            commitDragPosition();
+
+        if (settle) {
+            startSettle();
+        } else if (isShown()) {
+            mShowX = mDragX;
+            mShowY = mDragY;
+            flattenTransitionPath();
+            savePositions();
+        } else {
+            mHideX = mDragX;
+            mHideY = mDragY;
+            flattenTransitionPath();
+            savePositions();
+        }
+
+        releaseLayer(LAYER_FOR_DRAG);
+        notifyContainerMoved();
+
+        dispatchPendingDragMove();
+        mListeners.dispatchDragFinished(this, loc[0], loc[1]);
+
+        finishDragStats();
+    }
+
+    /**
+     * moves, scales and rotates the view with the fingers of the event, the
+     * pointers are read in the coordinates of the parent, which does not move
+     * with the view
+     * 
+     * @param event
+     * @param action
+     * @return
+     */
+    private boolean onTransformEvent(MotionEvent event, int action) {
+
+        // every parent, ViewGroup and HideShowDragContainer alike, hands the
+        // event over mapped through the inverse matrix of the view, a copy
+        // is mapped back so that the event itself stays untouched
+        MotionEvent ev = MotionEvent.obtain(event);
+        ev.transform(getMatrix());
+        ev.offsetLocation(getLeft(), getTop());
+
+        TransformGesture gesture = mTransformGesture;
+
+        switch (action) {
+            case MotionEvent.ACTION_DOWN: {
+
+                stopSettle();
+                cancelTransition();
+                acquireLayer(LAYER_FOR_DRAG);
+
+                gesture.begin(getLeft() + getPivotX(), getTop() + getPivotY(),
+                        getTranslationX(), getTranslationY(), getScaleX(), getRotation());
+                gesture.pointerDown(ev.getPointerId(0), ev.getX(0), ev.getY(0));
+
+                mListeners.dispatchDragStart(this, getX(), getY());
+                break;
+            }
+
+            case MotionEventCompat.ACTION_POINTER_DOWN: {
+
+                int index = MotionEventCompat.getActionIndex(ev);
+                gesture.pointerDown(ev.getPointerId(index), ev.getX(index), ev.getY(index));
+                break;
+            }
+
+            case MotionEvent.ACTION_MOVE: {
+
+                mMetrics.onMoveEvent();
+
+                for (int i = 0, count = ev.getPointerCount(); i < count; i++)
+                    gesture.pointerMove(ev.getPointerId(i), ev.getX(i), ev.getY(i));
+
+                gesture.update();
+                applyTransform();
+                break;
+            }
+
+            case MotionEventCompat.ACTION_POINTER_UP: {
+
+                gesture.pointerUp(ev.getPointerId(MotionEventCompat.getActionIndex(ev)));
+                break;
+            }
+
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL: {
+
+                // a cancelled gesture can end with several fingers down
+                gesture.end();
+                finishTransform();
+                break;
+            }
+        }
+
+        ev.recycle();
+        return true;
+    }
+
+    /**
+     * applies the transform of the fingers to the render properties of the
+     * view
+     */
+    private void applyTransform() {
+
+        TransformGesture gesture = mTransformGesture;
+
+        beginSection(HideShowDragInstrumentation.SECTION_DRAG_UPDATE);
+        mMetrics.onPositionUpdate();
+
+        setTranslationX(gesture.getTranslationX());
+        setTranslationY(gesture.getTranslationY());
+        setScaleX(gesture.getScale());
+        setScaleY(gesture.getScale());
+        setRotation(gesture.getRotation());
+
+        endSection(HideShowDragInstrumentation.SECTION_DRAG_UPDATE);
+
+        if (mTransformListener != null)
+            mTransformListener.onTransform(this, gesture.getTranslationX(),
+                    gesture.getTranslationY(), gesture.getScale(), gesture.getRotation());
+    }
+
+    /**
+     * called when the last finger of a multi-touch transform has been lifted,
+     * the position of the view becomes its show or hide position
+     */
+    private void finishTransform() {
+
+        TransformGesture gesture = mTransformGesture;
+
+        if (mIsShown) {
+            mShowX = getX();
+            mShowY = getY();
+        } else {
+            mHideX = getX();
+            mHideY = getY();
+        }
+
+        flattenTransitionPath();
+        savePositions();
+        releaseLayer(LAYER_FOR_DRAG);
+        notifyContainerMoved();
+
+        if (mTransformListener != null)
+            mTransformListener.onTransformEnd(this, gesture.getTranslationX(),
+                    gesture.getTranslationY(), gesture.getScale(), gesture.getRotation());
+
+        mListeners.dispatchDragFinished(this, getX(), getY());
+    }
+
+    /**
+     * moves the view so that the dragging finger keeps its distance to the
+     * top left corner of the view, depending on the drag mode either via the
+     * layout margins or via the translation of the view
+     * 
+     * @param rawX
+     * @param rawY
+     */
+    private void updateDragPosition(float rawX, float rawY) {
+
+        MarginLayoutParams params = getMarginParams();
+
+        if (params == null)
+            return;
+
+        beginSection(HideShowDragInstrumentation.SECTION_DRAG_UPDATE);
+        mMetrics.onPositionUpdate();
+
+        int left = mDragConstraints.constrainLeft(DragMath.dragMargin(rawX, mOffsetX));
+        int top = mDragConstraints.constrainTop(DragMath.dragMargin(rawY, mOffsetY));
+
+        if (mCollisionMode == COLLISION_MODE_PUSH) {
+            resolveOverlap(left, top);
+        } else {
+            mDragLeft = left;
+            mDragTop = top;
+        }
+
+        moveToDragMargins(params, mDragLeft, mDragTop);
+
+        if (hasAnchors())
+            updatePreviewAnchor(mDragX, mDragY);
+
+        if (mListeners.hasProgressListeners() && !mDragMovePending) {
+            mDragMovePending = true;
+            FrameTicker.getInstance().postFrameCallback(mDragMoveFrameCallback);
+        }
+
+        endSection(HideShowDragInstrumentation.SECTION_DRAG_UPDATE);
+    }
+
+    /**
+     * moves the view to the given drag margins, depending on the drag mode
+     * either via the layout margins or via the translation of the view
+     * 
+     * @param params
+     * @param left
+     * @param top
+     */
+    private void moveToDragMargins(MarginLayoutParams params, int left, int top) {
+
+        if (isTranslationDrag()) {
+            setTranslationX(DragMath.dragTranslation(mDragStartTranslationX, left,
+                    params.leftMargin));
+            setTranslationY(DragMath.dragTranslation(mDragStartTranslationY, top,
+                    params.topMargin));
+        } else {
+            params.setMargins(left, top, 0, 0);
+            applyMargins(params);
+        }
+
+        mDragX = mDragOriginX + left;
+        mDragY = mDragOriginY + top;
+
+        // the siblings see the dragged view where it is, not where it was
+        // dropped the last time
+        if (mCollisionMode != COLLISION_MODE_NONE)
+            putCollisionBounds((int) mDragX, (int) mDragY);
+    }
+
+    /**
+     * moves the given drag margins out of the siblings of the view, the result
+     * is written into mDragLeft and mDragTop
+     * 
+     * @param left
+     * @param top
+     */
+    private void resolveOverlap(int left, int top) {
+
+        mDragLeft = left;
+        mDragTop = top;
+
+        if (!(getParent() instanceof ViewGroup))
+            return;
+
+        CollisionIndex index = CollisionIndex.of((ViewGroup) getParent());
+
+        int x = (int) (mDragOriginX + left);
+        int y = (int) (mDragOriginY + top);
+
+        if (mOverlapResolver.resolve(index.getGrid(), getCollisionId(index), x, y, getWidth(),
+                getHeight(), mCollisionGap)) {
+            mDragLeft = left + mOverlapResolver.getLeft() - x;
+            mDragTop = top + mOverlapResolver.getTop() - y;
+        }
+    }
+
+    /**
+     * moves a view that has been dropped past its bounds back into them and
+     * then out of the siblings it overlaps, without leaving the bounds, on API
+     * level 11+ the view is laid out at its new position right away and
+     * animated there from where it was released
+     * 
+     * @return true if the view is animated to its new position
+     */
+    private boolean resolveDropPosition() {
+
+        MarginLayoutParams params = getMarginParams();
+
+        if (params == null)
+            return false;
+
+        int releasedLeft = mDragLeft;
+        int releasedTop = mDragTop;
+
+        int left = mDragConstraints.clampLeft(mDragLeft);
+        int top = mDragConstraints.clampTop(mDragTop);
+
+        if (mCollisionMode != COLLISION_MODE_NONE) {
+            resolveOverlap(left, top);
+        } else {
+            mDragLeft = left;
+            mDragTop = top;
+        }
+
+        if (mDragLeft == releasedLeft && mDragTop == releasedTop)
+            return false;
+
+        float releasedX = mDragX;
+        float releasedY = mDragY;
+
+        moveToDragMargins(params, mDragLeft, mDragTop);
+
+        if (!Utils.supportsAPILevel(11))
+            return false;
+
+        commitDragPosition();
+
+        // the translation keeps the view where it was released until it is
+        // animated back to the translation it has at rest
+        mReturnTranslationX = getTranslationX();
+        mReturnTranslationY = getTranslationY();
+        setTranslationX(mReturnTranslationX + releasedX - mDragX);
+        setTranslationY(mReturnTranslationY + releasedY - mDragY);
+
+        mSettleReturn = true;
+        startSettle();
+        return true;
+    }
+
+    /**
+     * starts the axis lock and the bounds of a drag from the given margins,
+     * the bounds are converted into margins once, so that constraining a move
+     * only takes a few comparisons
+     * 
+     * @param left
+     * @param top
+     */
+    private void beginDragConstraints(int left, int top) {
+
+        DragConstraints constraints = mDragConstraints;
+        constraints.begin(left, top);
+
+        if (mDragBounds == DRAG_BOUNDS_NONE) {
+            constraints.clearBounds();
+
+            if (mOverlapResolver != null)
+                mOverlapResolver.clearBounds();
+            return;
+        }
+
+        updateParentGeometry();
+
+        Rect area = mDragBounds == DRAG_BOUNDS_RECT ? mDragBoundsRect : mParentArea;
+
+        // the margins that place the view at the edges of the area
+        int originX = (int) mDragOriginX;
+        int originY = (int) mDragOriginY;
+
+        int maxX = area.right - getWidth();
+        int maxY = area.bottom - getHeight();
+
+        constraints.setBounds(area.left - originX, area.top - originY, maxX - originX, maxY
+                - originY);
+
+        // siblings do not push the view out of the area
+        if (mOverlapResolver != null)
+            mOverlapResolver.setBounds(area.left, area.top, maxX, maxY);
+    }
+
+    /**
+     * caches the position of the parent on the screen, its area inside the
+     * padding and the statusbar height until the next frame is drawn, at
+     * most once per frame
+     */
+    private void updateParentGeometry() {
+
+        if (mParentGeometryValid)
+            return;
+
+        mParentGeometryValid = true;
+        mStatusBarInset = getStatusBarHeight();
+
+        ViewParent parent = getParent();
+
+        if (!(parent instanceof View)) {
+            mParentScreenX = 0;
+            mParentScreenY = 0;
+            mParentArea.setEmpty();
+            return;
+        }
+
+        View view = (View) parent;
+
+        int[] loc = mLocation;
+        view.getLocationOnScreen(loc);
+
+        mParentScreenX = loc[0] - view.getScrollX();
+        mParentScreenY = loc[1] - view.getScrollY();
+
+        mParentArea.set(view.getPaddingLeft(), view.getPaddingTop(), view.getWidth()
+                - view.getPaddingRight(), view.getHeight() - view.getPaddingBottom());
+    }
+
+    /**
+     * writes the location reported to the drag listeners for the given
+     * position in the parent into loc, in the coordinates of the screen
+     * taking statusbar and view height into consideration, from the cached
+     * geometry of the parent
+     * 
+     * @param x
+     * @param y
+     * @param loc
+     */
+    private void toAnimationLocation(float x, float y, int[] loc) {
+
+        updateParentGeometry();
+
+        loc[0] = (int) (mParentScreenX + x);
+        loc[1] = DragMath.screenToAnimationY((int) (mParentScreenY + y), getHeight(),
+                mStatusBarInset);
+    }
+
+    /**
+     * returns the id of the view in the given index, -1 if it is not in it
+     * 
+     * @param index
+     * @return
+     */
+    private int getCollisionId(CollisionIndex index) {
+
+        if (getParent() instanceof HideShowDragContainer)
+            return ((HideShowDragContainer) getParent()).getCollisionId(this);
+
+        return index == mCollisionIndex ? mCollisionId : -1;
+    }
+
+    /**
+     * writes the given bounds of the view into the index of its siblings
+     * 
+     * @param left
+     * @param top
+     */
+    private void putCollisionBounds(int left, int top) {
+
+        if (!(getParent() instanceof ViewGroup))
+            return;
+
+        ViewGroup parent = (ViewGroup) getParent();
+        CollisionIndex index = CollisionIndex.of(parent);
+
+        if (!(parent instanceof HideShowDragContainer) && mCollisionIndex != index) {
+
+            unregisterCollisionBounds();
+            mCollisionIndex = index;
+            mCollisionId = index.add(this);
+        }
+
+        int id = getCollisionId(index);
+
+        if (id < 0)
+            return;
+
+        index.setBounds(parent.getWidth(), parent.getHeight());
+        index.put(id, left, top, left + getWidth(), top + getHeight());
+    }
+
+    /**
+     * writes the current bounds of the view into the index of its siblings if
+     * the view avoids collisions, a HideShowDragContainer keeps the bounds of
+     * its children on its own
+     */
+    private void updateCollisionBounds() {
+
+        if (mCollisionMode == COLLISION_MODE_NONE || getWindowToken() == null
+                || getParent() instanceof HideShowDragContainer)
+            return;
+
+        int left = getLeft();
+        int top = getTop();
+
+        if (Utils.supportsAPILevel(11)) {
+            left += (int) getTranslationX();
+            top += (int) getTranslationY();
+        }
+
+        putCollisionBounds(left, top);
+    }
+
+    /**
+     * removes the view from the index of its siblings
+     */
+    private void unregisterCollisionBounds() {
+
+        if (mCollisionIndex != null) {
+            mCollisionIndex.remove(mCollisionId);
+            mCollisionIndex = null;
+            mCollisionId = -1;
+        }
+    }
+
+    /**
+     * tells the listeners about the latest drag update right away if they
+     * have not been told yet
+     */
+    private void dispatchPendingDragMove() {
+
+        if (!mDragMovePending)
+            return;
+
+        cancelDragMove();
+        mListeners.dispatchDragMove(this, mDragX, mDragY);
+    }
+
+    private void cancelDragMove() {
+
+        if (mDragMovePending) {
+            mDragMovePending = false;
+            FrameTicker.getInstance().removeFrameCallback(mDragMoveFrameCallback);
+        }
+    }
+
+    /**
+     * looks up the anchor nearest to the given position of the dragged view
+     * and informs the listener if it has changed
+     * 
+     * @param x
+     * @param y
+     */
+    private void updatePreviewAnchor(float x, float y) {
+
+        int anchor = mAnchors.nearest(x, y);
+
+        if (anchor == mPreviewAnchor)
+            return;
+
+        mPreviewAnchor = anchor;
+
+        if (mAnchorListener != null)
+            mAnchorListener.onAnchorPreview(this, anchor, mAnchors.getX(anchor),
+                    mAnchors.getY(anchor));
+    }
+
+    /**
+     * returns true if the view has anchors to dock to
+     * 
+     * @return
+     */
+    private boolean hasAnchors() {
+        return mAnchors != null && mAnchors.size() > 0 && Utils.supportsAPILevel(11);
+    }
+
+    /**
+     * clears the given stats and sets the frame budget of the display
+     * 
+     * @param stats
+     */
+    private void beginStats(FrameStats stats) {
+        stats.setFrameBudgetNanos(mMetrics.getFrameBudgetNanos());
+        stats.begin();
+    }
+
+    /**
+     * records the next frame into the drag stats, the latency is measured from
+     * the oldest touch sample that has not been shown by a frame yet to the
+     * start of that frame
+     * 
+     * @param ev
+     */
+    private void requestDragStatsFrame(MotionEvent ev) {
+
+        if (mDragStatsFramePending)
+            return;
+
+        long eventMillis = ev.getHistorySize() > 0 ? ev.getHistoricalEventTime(0) : ev
+                .getEventTime();
+
+        mDragStatsEventNanos = eventMillis * 1000000L;
+        mDragStatsFramePending = true;
+        FrameTicker.getInstance().postFrameCallback(mDragStatsFrameCallback);
+    }
+
+    private void cancelDragStatsFrame() {
+
+        if (mDragStatsFramePending) {
+            mDragStatsFramePending = false;
+            FrameTicker.getInstance().removeFrameCallback(mDragStatsFrameCallback);
+        }
+    }
+
+    /**
+     * hands the stats of the finished drag to the listener
+     */
+    private void finishDragStats() {
+
+        // a frame that has not been drawn yet is not part of the drag
+        cancelDragStatsFrame();
+
+        mListeners.dispatchDragStats(this, mDragStats);
+    }
+
+    /**
+     * feeds the touch samples of the event into the predictor in screen
+     * coordinates, historical samples first
+     * 
+     * @param ev
+     * @param action
+     */
+    private void addPredictorSamples(MotionEvent ev, int action) {
+
+        if (action == MotionEvent.ACTION_DOWN)
+            mPredictor.reset();
+
+        float dx = ev.getRawX() - ev.getX();
+        float dy = ev.getRawY() - ev.getY();
+
+        for (int i = 0, size = ev.getHistorySize(); i < size; i++)
+            addPredictorSample(ev.getHistoricalEventTime(i), ev.getHistoricalX(i) + dx,
+                    ev.getHistoricalY(i) + dy);
+
+        addPredictorSample(ev.getEventTime(), ev.getRawX(), ev.getRawY());
+    }
+
+    private void addPredictorSample(long timeMillis, float rawX, float rawY) {
+
+        float error = mPredictor.addSample(timeMillis * 1000000L, rawX, rawY);
+
+        if (error >= 0)
+            mMetrics.onPredictionError(error);
+    }
+
+    /**
+     * moves the view to where the dragging finger is predicted to be at the
+     * given time
+     * 
+     * @param timeNanos
+     */
+    private void updatePredictedDragPosition(long timeNanos) {
+
+        mPredictor.predict(timeNanos);
+        updateDragPosition(mPredictor.getPredictedX(), mPredictor.getPredictedY());
+    }
+
+    /**
+     * moves the view to the position of the finger when it was lifted, a
+     * predicted position is replaced by the real one
+     * 
+     * @param ev
+     */
+    private void applyFinalDragPosition(MotionEvent ev) {
+
+        if (mPredictiveDrag) {
+            cancelPendingDrag();
+            updateDragPosition(ev.getRawX(), ev.getRawY());
+        } else {
+            flushPendingDrag();
+        }
+    }
+
+    /**
+     * applies the latest drag position that is waiting for the next frame
+     * right away
+     */
+    private void flushPendingDrag() {
+
+        if (!mDragPending)
+            return;
+
+        cancelPendingDrag();
+        updateDragPosition(mPendingRawX, mPendingRawY);
+    }
+
+    /**
+     * drops the drag position that is waiting for the next frame
+     */
+    private void cancelPendingDrag() {
+
+        if (mDragPending) {
+            mDragPending = false;
+            FrameTicker.getInstance().removeFrameCallback(mDragFrameCallback);
+        }
+    }
+
+    /**
+     * feeds the event into the velocity tracker in screen coordinates, the
+     * view itself moves while being dragged so its local coordinates can not
+     * be used
+     * 
+     * @param ev
+     * @param action
+     */
+    private void trackVelocity(MotionEvent ev, int action) {
+
+        if (action == MotionEvent.ACTION_DOWN) {
+            if (mVelocityTracker == null)
+                mVelocityTracker = VelocityTracker.obtain();
+            else
+                mVelocityTracker.clear();
+        }
+
+        if (mVelocityTracker == null)
+            return;
+
+        float dx = ev.getRawX() - ev.getX();
+        float dy = ev.getRawY() - ev.getY();
+
+        ev.offsetLocation(dx, dy);
+        mVelocityTracker.addMovement(ev);
+        ev.offsetLocation(-dx, -dy);
+    }
+
+    /**
+     * releases the velocity tracker, it is kept between gestures otherwise so
+     * that dragging does not allocate
+     */
+    private void recycleVelocityTracker() {
+
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+    }
+
+    /**
+     * takes the release velocity and starts settling on the next frame
+     */
+    private void startSettle() {
+
+        if (mSettleOnRelease && mVelocityTracker != null) {
+            mVelocityTracker.computeCurrentVelocity(1000, mMaxFlingVelocity);
+            mReleaseVelocityX = mVelocityTracker.getXVelocity();
+            mReleaseVelocityY = mVelocityTracker.getYVelocity();
+        } else {
+            mReleaseVelocityX = 0;
+            mReleaseVelocityY = 0;
+        }
+
+        mSettling = true;
+        mIsAnimating = true;
+        acquireLayer(LAYER_FOR_ANIMATION);
+        mMetrics.onAnimationStart();
+        beginStats(mTransitionStats);
+        FrameTicker.getInstance().postFrameCallback(mSettleFrameCallback);
+    }
+
+    /**
+     * moves the view one frame further towards its settle target
+     * 
+     * @param frameTimeNanos
+     */
+    private void doSettleFrame(long frameTimeNanos) {
+
+        // stopped by a callback that ran earlier in this frame
+        if (!mSettling)
+            return;
+
+        if (!mSettle.isRunning()) {
+
+            // in margin mode the last drag update may not be laid out yet,
+            // the view has to be at its dropped position before settling
+            if (!isLayoutRequested())
+                beginSettle();
+
+            mLastSettleFrameNanos = frameTimeNanos;
+            FrameTicker.getInstance().postFrameCallback(mSettleFrameCallback);
+            return;
+        }
+
+        // limit the step so that a stalled frame does not skip the motion
+        long elapsed = Math.min(frameTimeNanos - mLastSettleFrameNanos, 50000000L);
+        mLastSettleFrameNanos = frameTimeNanos;
+
+        boolean running = mSettle.step(elapsed / 1000000000f);
+        mMetrics.onAnimationFrame(frameTimeNanos);
+        mTransitionStats.onFrame(frameTimeNanos);
+
+        setX(mSettle.getX());
+        setY(mSettle.getY());
+
+        if (mListeners.hasProgressListeners())
+            mListeners.dispatchAnimationProgress(this, mSettle.getX(), mSettle.getY(), -1f);
+
+        if (running)
+            FrameTicker.getInstance().postFrameCallback(mSettleFrameCallback);
+        else
+            finishSettle();
+    }
+
+    /**
+     * projects where the fling would come to rest and starts the spring
+     * towards the nearer of the show and hide position, or towards the anchor
+     * nearest to the rest position if there are anchors
+     */
+    private void beginSettle() {
+
+        float x = getX();
+        float y = getY();
+
+        if (mSettleReturn) {
+            mSettle.start(x, y, 0f, 0f, getLeft() + mReturnTranslationX, getTop()
+                    + mReturnTranslationY);
+            return;
+        }
+
+        float restX = mSettle.projectRest(x, mReleaseVelocityX);
+        float restY = mSettle.projectRest(y, mReleaseVelocityY);
+
+        if (hasAnchors()) {
+
+            // the view keeps its state, the anchor becomes its new position
+            mSettleAnchor = mAnchors.nearest(restX, restY);
+            mSettleToShow = mIsShown;
+
+            if (mIsShown) {
+                mShowX = mAnchors.getX(mSettleAnchor);
+                mShowY = mAnchors.getY(mSettleAnchor);
+            } else {
+                mHideX = mAnchors.getX(mSettleAnchor);
+                mHideY = mAnchors.getY(mSettleAnchor);
+            }
+
+            flattenTransitionPath();
+        } else {
+            mSettleAnchor = -1;
+            mSettleToShow = DragMath.isNearerToFirst(restX, restY, mShowX, mShowY, mHideX,
+                    mHideY);
+        }
+
+        if (mSettleToShow)
+            mSettle.start(x, y, mReleaseVelocityX, mReleaseVelocityY, mShowX, mShowY);
+        else
+            mSettle.start(x, y, mReleaseVelocityX, mReleaseVelocityY, mHideX, mHideY);
+    }
+
+    /**
+     * called once the view has come to rest at the show or hide position, at
+     * an anchor or back at its dropped position
+     */
+    private void finishSettle() {
+
+        mSettling = false;
+        mIsAnimating = false;
+        releaseLayer(LAYER_FOR_ANIMATION);
+        notifyContainerMoved();
+
+        // the positions have been saved when the view was dropped
+        if (mSettleReturn) {
+            mSettleReturn = false;
+            return;
+        }
+
+        mListeners.dispatchTransitionStats(this, mSettleToShow, mTransitionStats);
+
+        if (mSettleAnchor >= 0) {
+
+            int anchor = mSettleAnchor;
+            mSettleAnchor = -1;
+            savePositions();
+
+            if (mAnchorListener != null)
+                mAnchorListener.onAnchorReached(this, anchor, getX(), getY());
+            return;
+        }
+
+        if (mSettleToShow) {
+
+            mIsShown = true;
+            savePositions();
+            mListeners.dispatchShow(this, mShowX, mShowY);
+        } else {
+
+            if (mMakeInvisible)
+                setVisibility(View.INVISIBLE);
+            mIsShown = false;
+            savePositions();
+            mListeners.dispatchHide(this, mHideX, mHideY);
+        }
+    }
+
+    /**
+     * stops settling, the view stays where it currently is
+     */
+    private void stopSettle() {
+
+        if (!mSettling)
+            return;
+
+        mSettling = false;
+        mIsAnimating = false;
+        mSettleAnchor = -1;
+        mSettleReturn = false;
+        releaseLayer(LAYER_FOR_ANIMATION);
+        mSettle.stop();
+        FrameTicker.getInstance().removeFrameCallback(mSettleFrameCallback);
+        notifyContainerMoved();
+    }
+
+    /**
+     * writes the translation that was added while dragging into the layout
+     * margins of the view, this triggers the only layout pass of a drag in
+     * translation mode, does nothing in margin mode
+     */
+    private void commitDragPosition() {
+
+        if (!isTranslationDrag())
+            return;
+
+        MarginLayoutParams params = getMarginParams();
 
-    @Override
-    public boolean onTouchEvent(MotionEvent ev) {
+        if (params == null)
+            return;
 
-        if (!mDragEnabled)
-            return false;
+        int dx = (int) (getTranslationX() - mDragStartTranslationX);
+        int dy = (int) (getTranslationY() - mDragStartTranslationY);
 
-        final int action = MotionEventCompat.getActionMasked(ev);
+        if (dx == 0 && dy == 0)
+            return;
 
-        switch (action) {
-            case MotionEvent.ACTION_DOWN: {
+        setTranslationX(mDragStartTranslationX);
+        setTranslationY(mDragStartTranslationY);
+
+        params.setMargins(params.leftMargin + dx, params.topMargin + dy, 0, 0);
+        applyMargins(params);
+    }
+
+    /**
+     * moves the view to its changed margins, inside a HideShowDragContainer
+     * only the view itself is layouted, other parents need a layout pass
+     * 
+     * @param params
+     */
+    private void applyMargins(MarginLayoutParams params) {
 
-                if (getLayoutParams() instanceof FrameLayout.LayoutParams) {
+        if (getParent() instanceof HideShowDragContainer) {
+            ((HideShowDragContainer) getParent()).relayoutChild(this);
+        } else {
+            setLayoutParams(params);
+            mMetrics.onLayoutRequested();
+        }
+    }
 
-                    FrameLayout.LayoutParams params = (android.widget.FrameLayout.LayoutParams) getLayoutParams();
+    /**
+     * informs a HideShowDragContainer parent that the view has been moved via
+     * its translation, in other parents the bounds the siblings avoid are
+     * updated
+     */
+    private void notifyContainerMoved() {
 
-                    mOffsetX = ev.getRawX() - params.leftMargin;
-                    mOffsetY = ev.getRawY() - params.topMargin;
-                    
-                    if(mListener != null) mListener.onDragStart(this, params.leftMargin, params.topMargin);
+        if (getParent() instanceof HideShowDragContainer)
+            ((HideShowDragContainer) getParent()).onChildMoved(this);
+        else
+            updateCollisionBounds();
+    }
 
-                } else if (getLayoutParams() instanceof RelativeLayout.LayoutParams) {
+    /**
+     * returns the layout params of the view if the parent layout is one of the
+     * supported layouts, null if not
+     * 
+     * @return
+     */
+    private MarginLayoutParams getMarginParams() {
 
-                    RelativeLayout.LayoutParams params = (android.widget.RelativeLayout.LayoutParams) getLayoutParams();
+        ViewGroup.LayoutParams params = getLayoutParams();
 
-                    mOffsetX = ev.getRawX() - params.leftMargin;
-                    mOffsetY = ev.getRawY() - params.topMargin;
-                    
-                    if(mListener != null) mListener.onDragStart(this, params.leftMargin, params.topMargin);
-                    
-                } else if (getLayoutParams() instanceof LinearLayout.LayoutParams) {
-                    
-                    LinearLayout.LayoutParams params = (android.widget.LinearLayout.LayoutParams) getLayoutParams();
+        if (params instanceof FrameLayout.LayoutParams
+                || params instanceof RelativeLayout.LayoutParams
+                || params instanceof LinearLayout.LayoutParams
+                || params instanceof HideShowDragContainer.LayoutParams)
+            return (MarginLayoutParams) params;
 
-                    mOffsetX = ev.getRawX() - params.leftMargin;
-                    mOffsetY = ev.getRawY() - params.topMargin;
-                    
-                    if(mListener != null) mListener.onDragStart(this, params.leftMargin, params.topMargin);
-                }              
+        return null;
+    }
 
-                break;
+    /**
+     * returns true if drag updates are applied via the translation of the view
+     * 
+     * @return
+     */
+    private boolean isTranslationDrag() {
+        return mDragMode == DRAG_MODE_TRANSLATION && Utils.supportsAPILevel(11);
+    }
+
+    /**
+     * puts the view back into the state of a freshly created one so that it
+     * can be reused, e.g. by a HideShowDragViewPool: running animations,
+     * settling, pending drag updates and path jobs are stopped, listeners,
+     * anchors, the transition path, lazy content that has not been inflated
+     * yet and the gesture recorder are removed, the view leaves the collision
+     * index of its siblings, its margins are cleared, the view is shown and
+     * its show and hide positions are taken from the next layout again,
+     * settings like interpolators, duration and drag mode are kept
+     */
+    public void reset() {
+
+        cancelPendingDrag();
+        cancelDragMove();
+        cancelDragStatsFrame();
+        stopSettle();
+        cancelTransition();
+        releaseLayer(LAYER_FOR_DRAG);
+        unregisterCollisionBounds();
+
+        // inflated content stays, it is a child of the view like any other
+        IdleInflater.remove(this);
+        mLazyContent = null;
+
+        mListeners.clear();
+        mAnchorListener = null;
+        mTransformListener = null;
+        mAnchors = null;
+        mPreviewAnchor = -1;
+        mGestureRecorder = null;
+        mTransitionPath = null;
+        dropPathKeyframes();
+
+        mIsShown = true;
+        mIsAnimating = false;
+        mShowX = 0f;
+        mShowY = 0f;
+        mHideX = 0f;
+        mHideY = 0f;
+        mNotMeasured = true;
+        mPositionsRestored = false;
+
+        MarginLayoutParams params = getMarginParams();
+
+        if (params != null && (params.leftMargin != 0 || params.topMargin != 0
+                || params.rightMargin != 0 || params.bottomMargin != 0)) {
+            params.setMargins(0, 0, 0, 0);
+            setLayoutParams(params);
+        }
+
+        if (Utils.supportsAPILevel(11)) {
+            setTranslationX(0f);
+            setTranslationY(0f);
+            setAlpha(1f);
+            setScaleX(1f);
+            setScaleY(1f);
+            setRotation(0f);
+        }
+
+        setVisibility(View.VISIBLE);
+
+        if (mSnapshot != null)
+            mSnapshot.invalidate();
+    }
+
+    /**
+     * sets the store that keeps the show and hide positions and the shown
+     * state of the view across process death, the view is stored under its
+     * id and is only stored if it has one, positions found in the store are
+     * restored when the view is attached to a window before its first layout,
+     * they replace positions set via setPositions() / setPosition() before,
+     * the store can be shared by all views and written to a file via
+     * PositionStore.writeTo(), null to stop storing the positions
+     * 
+     * @param store
+     */
+    public void setPositionStore(PositionStore store) {
+        this.mPositionStore = store;
+    }
+
+    /**
+     * returns the store that keeps the positions of the view, null if there is
+     * none
+     * 
+     * @return
+     */
+    public PositionStore getPositionStore() {
+        return mPositionStore;
+    }
+
+    /**
+     * writes the positions and the shown state into the position store
+     */
+    private void savePositions() {
+
+        if (mPositionStore != null && getId() != View.NO_ID)
+            mPositionStore.put(getId(), mShowX, mShowY, mHideX, mHideY, mIsShown);
+    }
+
+    /**
+     * places the view at its restored show or hide position via its layout
+     * margins, called before the first layout so that the view is laid out
+     * there right away instead of being moved afterwards, the positions are in
+     * the coordinates of the parent like all show and hide positions
+     * 
+     * @param showX
+     * @param showY
+     * @param hideX
+     * @param hideY
+     * @param shown
+     */
+    private void restorePositions(float showX, float showY, float hideX, float hideY,
+            boolean shown) {
+
+        mShowX = showX;
+        mShowY = showY;
+        mHideX = hideX;
+        mHideY = hideY;
+        mIsShown = shown;
+        mNotMeasured = false;
+
+        MarginLayoutParams params = getMarginParams();
+        ViewParent parent = getParent();
+
+        if (params != null && parent instanceof ViewGroup) {
+
+            ViewGroup group = (ViewGroup) parent;
+
+            int left = (int) (shown ? showX : hideX) - group.getPaddingLeft();
+            int top = (int) (shown ? showY : hideY) - group.getPaddingTop();
+
+            if (params.leftMargin != left || params.topMargin != top) {
+                params.setMargins(left, top, 0, 0);
+
+                // the first layout pass is pending anyway
+                setLayoutParams(params);
             }
+        }
 
-            case MotionEvent.ACTION_MOVE: {
+        if (Utils.supportsAPILevel(11)) {
+            setTranslationX(0f);
+            setTranslationY(0f);
+            setAlpha(shown ? 1f : mHiddenAlpha);
+            setScaleX(shown ? 1f : mHiddenScale);
+            setScaleY(shown ? 1f : mHiddenScale);
+        }
 
-                if (getLayoutParams() instanceof FrameLayout.LayoutParams) {
+        if (shown)
+            setVisibility(View.VISIBLE);
+        else if (mMakeInvisible)
+            setVisibility(View.INVISIBLE);
 
-                    FrameLayout.LayoutParams params = (android.widget.FrameLayout.LayoutParams) getLayoutParams();
+        flattenTransitionPath();
 
-                    params.setMargins((int) (ev.getRawX() - mOffsetX),
-                            (int) (ev.getRawY() - mOffsetY), 0, 0);
-                    setLayoutParams(params);
+        if (sLogging)
+            Log.i(LOG_TAG, "restored positions: show: " + mShowX + " / " + mShowY + ", hide: "
+                    + mHideX + " / " + mHideY + ", shown: " + mIsShown);
+    }
 
-                } else if (getLayoutParams() instanceof RelativeLayout.LayoutParams) {
+    /**
+     * sets content that is only inflated when it is needed: while the view is
+     * hidden it measures as the placeholder of the content and has no
+     * children, the content is inflated right before the view is shown for
+     * the first time, or right away if the view is shown already, null to
+     * remove content that has not been inflated yet
+     * 
+     * @param content
+     */
+    public void setLazyContent(LazyContent content) {
 
-                    RelativeLayout.LayoutParams params = (android.widget.RelativeLayout.LayoutParams) getLayoutParams();
+        IdleInflater.remove(this);
+        this.mLazyContent = content;
 
-                    params.setMargins((int) (ev.getRawX() - mOffsetX),
-                            (int) (ev.getRawY() - mOffsetY), 0, 0);
-                    setLayoutParams(params);
-                    
-                } else if (getLayoutParams() instanceof LinearLayout.LayoutParams) {
-                    
-                    LinearLayout.LayoutParams params = (android.widget.LinearLayout.LayoutParams) getLayoutParams();
+        if (content == null || content.isInflated())
+            return;
 
-                    params.setMargins((int) (ev.getRawX() - mOffsetX),
-                            (int) (ev.getRawY() - mOffsetY), 0, 0);
-                    setLayoutParams(params);
-                }
+        if (getWindowToken() != null) {
+            if (mIsShown)
+                inflateLazyContent(false);
+            else if (mPreInflateWhenIdle)
+                IdleInflater.enqueue(this);
+        }
 
-                break;
+        requestLayout();
+    }
+
+    /**
+     * returns the lazy content of the view, null if there is none
+     * 
+     * @return
+     */
+    public LazyContent getLazyContent() {
+        return mLazyContent;
+    }
+
+    /**
+     * if set to true, the lazy content of a hidden view is inflated as soon
+     * as the main thread is idle after the view has been attached, one view
+     * per idle pass, instead of right before the view is shown, so that the
+     * first show() does not have to wait for the inflation, default: false
+     * 
+     * @param enabled
+     */
+    public void setPreInflateWhenIdle(boolean enabled) {
+
+        this.mPreInflateWhenIdle = enabled;
+
+        if (!enabled)
+            IdleInflater.remove(this);
+        else if (getWindowToken() != null && mLazyContent != null
+                && !mLazyContent.isInflated())
+            IdleInflater.enqueue(this);
+    }
+
+    /**
+     * returns true if the lazy content is inflated while the main thread is
+     * idle
+     * 
+     * @return
+     */
+    public boolean isPreInflateWhenIdle() {
+        return mPreInflateWhenIdle;
+    }
+
+    /**
+     * inflates the lazy content and adds it to the view if it has not been
+     * inflated yet
+     * 
+     * @param idle true if called while the main thread is idle
+     */
+    void inflateLazyContent(boolean idle) {
+
+        if (mLazyContent == null || mLazyContent.isInflated())
+            return;
+
+        IdleInflater.remove(this);
+        addView(mLazyContent.create(this, idle));
+
+        if (sLogging)
+            Log.i(LOG_TAG, "inflated lazy content in " + mLazyContent.getInflateNanos() / 1000000f
+                    + "ms" + (idle ? " while idle" : ""));
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+
+        if (mLazyContent != null && !mLazyContent.isInflated()) {
+
+            if (!mIsShown) {
+                setMeasuredDimension(
+                        resolveSize(mLazyContent.getPlaceholderWidth(), widthMeasureSpec),
+                        resolveSize(mLazyContent.getPlaceholderHeight(), heightMeasureSpec));
+                return;
             }
 
-            case MotionEvent.ACTION_UP: {
+            // shown without having been inflated, e.g. via setIsShown()
+            inflateLazyContent(false);
+        }
 
-                int[] loc = new int[] {
-                        0, 0
-                };
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
 
-                getLocationOnScreen(loc);
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
 
-                // take statusbar and view height into consideration
-                loc[1] = loc[1] - getHeight() / 2 - mStatusBarHeight;
+        mParentGeometryValid = false;
+        getViewTreeObserver().addOnPreDrawListener(mGeometryPreDrawListener);
 
-                if (isShown()) {
-                    mShowX = loc[0];
-                    mShowY = loc[1];
-                } else {
-                    mHideX = loc[0];
-                    mHideY = loc[1];
-                }
-                
-                if(mListener != null) mListener.onDragFinished(this, loc[0], loc[1]);
+        if (mPositionStore != null && !mPositionsRestored && getId() != View.NO_ID) {
 
-                break;
+            int index = mPositionStore.indexOf(getId());
+
+            if (index >= 0) {
+                mPositionsRestored = true;
+                restorePositions(mPositionStore.getShowX(index),
+                        mPositionStore.getShowY(index), mPositionStore.getHideX(index),
+                        mPositionStore.getHideY(index), mPositionStore.isShown(index));
             }
         }
-        return true;
+
+        if (mLazyContent != null && !mLazyContent.isInflated()) {
+
+            // inflated before the first measure pass instead of during it
+            if (mIsShown)
+                inflateLazyContent(false);
+            else if (mPreInflateWhenIdle)
+                IdleInflater.enqueue(this);
+        }
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+
+        SavedState state = new SavedState(super.onSaveInstanceState());
+        state.showX = mShowX;
+        state.showY = mShowY;
+        state.hideX = mHideX;
+        state.hideY = mHideY;
+        state.shown = mIsShown;
+
+        savePositions();
+        return state;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+
+        SavedState saved = (SavedState) state;
+        super.onRestoreInstanceState(saved.getSuperState());
+
+        mPositionsRestored = true;
+        restorePositions(saved.showX, saved.showY, saved.hideX, saved.hideY, saved.shown);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+
+        getViewTreeObserver().removeOnPreDrawListener(mGeometryPreDrawListener);
+
+        IdleInflater.remove(this);
+        unregisterCollisionBounds();
+        cancelPendingDrag();
+        cancelDragMove();
+        cancelDragStatsFrame();
+        stopSettle();
+        recycleVelocityTracker();
+        cancelTransition();
+        releaseLayer(LAYER_FOR_DRAG);
+
+        if (mSnapshot != null)
+            mSnapshot.release();
     }
 
     @Override
     protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+
+        beginSection(HideShowDragInstrumentation.SECTION_LAYOUT);
+
         super.onLayout(changed, left, top, right, bottom);
 
         if (mNotMeasured) {
 
             mNotMeasured = false;
-            Log.i(LOG_TAG, "onLayout: left: " + left + ", top: " + top + ", right: " + right
-                    + ", bottom: " + bottom);
+            if (sLogging)
+                Log.i(LOG_TAG, "onLayout: left: " + left + ", top: " + top + ", right: "
+                        + right + ", bottom: " + bottom);
 
             if (isShown()) {
                 mShowX = left;
@@ -529,7 +3147,73 @@ public abstract class HideShowDragView extends FrameLayout {
                 mHideX = left;
                 mHideY = top;
             }
+
+            savePositions();
+        }
+
+        updateCollisionBounds();
+
+        endSection(HideShowDragInstrumentation.SECTION_LAYOUT);
+    }
+
+    private void beginSection(int section) {
+
+        if (mInstrumentation != null)
+            mInstrumentation.beginSection(this, section);
+    }
+
+    private void endSection(int section) {
+
+        if (mInstrumentation != null)
+            mInstrumentation.endSection(this, section);
+    }
+
+    /**
+     * show and hide positions and the shown state of the view
+     * 
+     * @author Philipp Jahoda
+     */
+    static class SavedState extends BaseSavedState {
+
+        float showX, showY, hideX, hideY;
+
+        boolean shown;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            showX = in.readFloat();
+            showY = in.readFloat();
+            hideX = in.readFloat();
+            hideY = in.readFloat();
+            shown = in.readInt() != 0;
         }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeFloat(showX);
+            out.writeFloat(showY);
+            out.writeFloat(hideX);
+            out.writeFloat(hideY);
+            out.writeInt(shown ? 1 : 0);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
     }
 
     /**
@@ -599,11 +3283,173 @@ public abstract class HideShowDragView extends FrameLayout {
         public void onDragStart(HideShowDragView v, float startX, float startY);
         
         /**
-         * called when the dragging of the view is stopped (when the view is dropped)
+         * called when the dragging of the view is stopped (when the view is dropped
+         * or the gesture is cancelled)
          * @param v
          * @param stopX
          * @param stopY
          */
         public void onDragFinished(HideShowDragView v, float stopX, float stopY);
     }
+
+    /**
+     * HideShowDragListener that is additionally informed how smooth every
+     * animation and drag of the view was, add it via addHideShowListener()
+     * 
+     * @author Philipp Jahoda
+     */
+    public interface HideShowDragStatsListener extends HideShowDragListener {
+
+        /**
+         * called when a hide, show or settle animation has finished, before
+         * onShow() / onHide(), the stats are reused and only valid during the
+         * call
+         * 
+         * @param v
+         * @param shown true if the view has been shown, false if hidden
+         * @param stats
+         */
+        public void onTransitionStats(HideShowDragView v, boolean shown, FrameStats stats);
+
+        /**
+         * called when a drag has finished, after onDragFinished(), the stats
+         * are reused and only valid during the call
+         * 
+         * @param v
+         * @param stats
+         */
+        public void onDragStats(HideShowDragView v, FrameStats stats);
+    }
+
+    /**
+     * HideShowDragListener that is additionally informed about every position
+     * of the view while it is dragged or animated, at most once per frame, add
+     * it via addHideShowListener()
+     * 
+     * @author Philipp Jahoda
+     */
+    public interface HideShowDragProgressListener extends HideShowDragListener {
+
+        /**
+         * called at most once per frame while the view is dragged, with its
+         * position in the parent
+         * 
+         * @param v
+         * @param x
+         * @param y
+         */
+        public void onDragMove(HideShowDragView v, float x, float y);
+
+        /**
+         * called for every frame of a hide, show or settle animation, after
+         * the frame has been applied, with the position of the view in the
+         * parent
+         * 
+         * @param v
+         * @param x
+         * @param y
+         * @param fraction elapsed fraction of the hide / show animation, -1
+         *            while settling
+         */
+        public void onAnimationProgress(HideShowDragView v, float x, float y, float fraction);
+    }
+
+    /**
+     * listener that is informed about the anchors a view is dragged to
+     * 
+     * @author Philipp Jahoda
+     */
+    public interface OnAnchorListener {
+
+        /**
+         * called while dragging when another anchor has become the nearest one
+         * to the view, e.g. to highlight it
+         * 
+         * @param v
+         * @param anchor id of the anchor in the AnchorIndex
+         * @param x
+         * @param y
+         */
+        public void onAnchorPreview(HideShowDragView v, int anchor, float x, float y);
+
+        /**
+         * called when the dropped view has docked to an anchor
+         * 
+         * @param v
+         * @param anchor id of the anchor in the AnchorIndex
+         * @param x
+         * @param y
+         */
+        public void onAnchorReached(HideShowDragView v, int anchor, float x, float y);
+    }
+
+    /**
+     * listener that is informed about the transform of a view that is moved,
+     * scaled and rotated with multiple fingers
+     * 
+     * @author Philipp Jahoda
+     */
+    public interface OnTransformListener {
+
+        /**
+         * called for every touch event that has changed the transform
+         * 
+         * @param v
+         * @param translationX
+         * @param translationY
+         * @param scale
+         * @param rotation in degrees
+         */
+        public void onTransform(HideShowDragView v, float translationX, float translationY,
+                float scale, float rotation);
+
+        /**
+         * called when the last finger has been lifted
+         * 
+         * @param v
+         * @param translationX
+         * @param translationY
+         * @param scale
+         * @param rotation in degrees
+         */
+        public void onTransformEnd(HideShowDragView v, float translationX, float translationY,
+                float scale, float rotation);
+    }
+
+    /**
+     * hooks that are called around the steps of dragging, hiding, showing and
+     * layouting a view, e.g. to emit trace sections
+     * 
+     * @author Philipp Jahoda
+     */
+    public interface HideShowDragInstrumentation {
+
+        /** the position of the view is updated while dragging */
+        public static final int SECTION_DRAG_UPDATE = 0;
+
+        /** the show animation is started */
+        public static final int SECTION_SHOW = 1;
+
+        /** the hide animation is started */
+        public static final int SECTION_HIDE = 2;
+
+        /** the view is layouted */
+        public static final int SECTION_LAYOUT = 3;
+
+        /**
+         * called before the given section is executed
+         * 
+         * @param v
+         * @param section
+         */
+        public void beginSection(HideShowDragView v, int section);
+
+        /**
+         * called after the given section has been executed
+         * 
+         * @param v
+         * @param section
+         */
+        public void endSection(HideShowDragView v, int section);
+    }
 }
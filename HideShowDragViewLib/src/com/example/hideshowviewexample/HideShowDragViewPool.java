@@ -0,0 +1,201 @@
+package com.example.hideshowviewexample;
+
+import java.util.ArrayList;
+
+import android.view.ViewGroup;
+import android.view.ViewParent;
+
+/**
+ * Keeps released HideShowDragViews to hand them out again instead of creating
+ * new ones, so screens that add and remove views repeatedly do not inflate
+ * their content and initialize them again every time. Released views are
+ * reset via HideShowDragView.reset(). Not thread-safe, use it on the main
+ * thread.
+ * 
+ * @author Philipp Jahoda
+ * @param <T>
+ */
+public class HideShowDragViewPool<T extends HideShowDragView> {
+
+    /** default number of views the pool keeps */
+    private static final int DEFAULT_MAX_SIZE = 8;
+
+    /** creates a new view if the pool is empty */
+    private final Factory<T> mFactory;
+
+    /** released views ready to be handed out again */
+    private final ArrayList<T> mViews;
+
+    /** maximum number of views the pool keeps */
+    private int mMaxSize;
+
+    /** number of views handed out from the pool */
+    private int mHits = 0;
+
+    /** number of views that had to be created because the pool was empty */
+    private int mMisses = 0;
+
+    /**
+     * creates a pool that keeps up to 8 views
+     * 
+     * @param factory
+     */
+    public HideShowDragViewPool(Factory<T> factory) {
+        this(factory, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param factory creates a new view if the pool is empty
+     * @param maxSize maximum number of views the pool keeps
+     */
+    public HideShowDragViewPool(Factory<T> factory, int maxSize) {
+
+        if (maxSize < 0)
+            throw new IllegalArgumentException("The size of the pool must not be negative");
+
+        this.mFactory = factory;
+        this.mMaxSize = maxSize;
+        this.mViews = new ArrayList<T>(maxSize);
+    }
+
+    /**
+     * returns a view from the pool, or a new one if the pool is empty
+     * 
+     * @return
+     */
+    public T acquire() {
+
+        int size = mViews.size();
+
+        if (size > 0) {
+            mHits++;
+            return mViews.remove(size - 1);
+        }
+
+        mMisses++;
+        return mFactory.create();
+    }
+
+    /**
+     * removes the view from its parent, resets it and puts it into the pool,
+     * the view is dropped if the pool is full
+     * 
+     * @param view
+     * @return true if the view has been put into the pool
+     */
+    public boolean release(T view) {
+
+        ViewParent parent = view.getParent();
+
+        if (parent instanceof ViewGroup)
+            ((ViewGroup) parent).removeView(view);
+
+        view.reset();
+
+        if (mViews.size() >= mMaxSize || mViews.contains(view))
+            return false;
+
+        mViews.add(view);
+        return true;
+    }
+
+    /**
+     * creates views until the pool holds the given number of views or is
+     * full, e.g. while a screen is loading, the created views do not count as
+     * misses
+     * 
+     * @param count
+     */
+    public void warmUp(int count) {
+
+        int target = Math.min(count, mMaxSize);
+
+        while (mViews.size() < target)
+            mViews.add(mFactory.create());
+    }
+
+    /**
+     * sets the maximum number of views the pool keeps, views above the new
+     * size are dropped
+     * 
+     * @param maxSize
+     */
+    public void setMaxSize(int maxSize) {
+
+        if (maxSize < 0)
+            throw new IllegalArgumentException("The size of the pool must not be negative");
+
+        this.mMaxSize = maxSize;
+
+        while (mViews.size() > maxSize)
+            mViews.remove(mViews.size() - 1);
+    }
+
+    /**
+     * returns the maximum number of views the pool keeps
+     * 
+     * @return
+     */
+    public int getMaxSize() {
+        return mMaxSize;
+    }
+
+    /**
+     * returns the number of views currently in the pool
+     * 
+     * @return
+     */
+    public int size() {
+        return mViews.size();
+    }
+
+    /**
+     * drops all views of the pool
+     */
+    public void clear() {
+        mViews.clear();
+    }
+
+    /**
+     * returns the number of views handed out from the pool
+     * 
+     * @return
+     */
+    public int getHits() {
+        return mHits;
+    }
+
+    /**
+     * returns the number of views that had to be created because the pool was
+     * empty
+     * 
+     * @return
+     */
+    public int getMisses() {
+        return mMisses;
+    }
+
+    /**
+     * sets the hit and miss counters to 0
+     */
+    public void resetCounters() {
+        mHits = 0;
+        mMisses = 0;
+    }
+
+    /**
+     * creates the views of a pool
+     * 
+     * @author Philipp Jahoda
+     * @param <T>
+     */
+    public interface Factory<T extends HideShowDragView> {
+
+        /**
+         * creates a new view, called when the pool is empty
+         * 
+         * @return
+         */
+        public T create();
+    }
+}
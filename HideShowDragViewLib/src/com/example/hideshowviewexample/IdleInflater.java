@@ -0,0 +1,69 @@
+package com.example.hideshowviewexample;
+
+import java.util.ArrayList;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+
+/**
+ * Inflates the lazy content of queued views while the main thread is idle,
+ * one view each time the message queue runs empty, so that pre-inflating many
+ * views does not block a single frame with all of them. Views are inflated on
+ * the main thread because views must not be created on other threads. Must
+ * only be used from the main thread.
+ * 
+ * @author Philipp Jahoda
+ */
+final class IdleInflater {
+
+    /** views waiting for the main thread to become idle */
+    private static final ArrayList<HideShowDragView> sQueue = new ArrayList<HideShowDragView>();
+
+    /** true while the idle handler is registered */
+    private static boolean sRegistered = false;
+
+    private static final MessageQueue.IdleHandler sIdleHandler = new MessageQueue.IdleHandler() {
+
+        @Override
+        public boolean queueIdle() {
+
+            if (!sQueue.isEmpty())
+                sQueue.remove(0).inflateLazyContent(true);
+
+            // stay registered until the queue is empty
+            sRegistered = !sQueue.isEmpty();
+            return sRegistered;
+        }
+    };
+
+    private IdleInflater() {
+    }
+
+    /**
+     * queues the view to be inflated when the main thread is idle
+     * 
+     * @param view
+     */
+    static void enqueue(HideShowDragView view) {
+
+        if (sQueue.contains(view))
+            return;
+
+        sQueue.add(view);
+
+        if (!sRegistered) {
+            sRegistered = true;
+            Looper.myQueue().addIdleHandler(sIdleHandler);
+        }
+    }
+
+    /**
+     * removes the view from the queue, e.g. because it has been inflated or
+     * detached
+     * 
+     * @param view
+     */
+    static void remove(HideShowDragView view) {
+        sQueue.remove(view);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.hideshowviewexample;
+
+import android.view.View;
+
+/**
+ * Content of a HideShowDragView that is only inflated when it is needed, set
+ * via HideShowDragView.setLazyContent(). Until then the view measures as a
+ * placeholder of a fixed size and has no children, so hidden panels cost no
+ * inflation and no measuring at startup. The content is inflated just before
+ * the view is shown for the first time, or earlier while the main thread is
+ * idle if the view pre-inflates. Reports how long the inflation took.
+ * 
+ * @author Philipp Jahoda
+ */
+public abstract class LazyContent {
+
+    private final int mPlaceholderWidth;
+    private final int mPlaceholderHeight;
+
+    /** the inflated content, null until it is inflated */
+    private View mView;
+
+    /** time the inflation took in nanoseconds */
+    private long mInflateNanos = 0;
+
+    /** true if the content has been inflated while the main thread was idle */
+    private boolean mInflatedWhileIdle = false;
+
+    /**
+     * @param placeholderWidth width in pixels the view measures with before
+     *            the content is inflated
+     * @param placeholderHeight height in pixels the view measures with before
+     *            the content is inflated
+     */
+    protected LazyContent(int placeholderWidth, int placeholderHeight) {
+        this.mPlaceholderWidth = placeholderWidth;
+        this.mPlaceholderHeight = placeholderHeight;
+    }
+
+    /**
+     * creates the content, e.g. via LayoutInflater, called once on the main
+     * thread, the returned view is added to the given parent
+     * 
+     * @param parent
+     * @return
+     */
+    protected abstract View onCreateView(HideShowDragView parent);
+
+    /**
+     * creates the content and measures the time it takes
+     * 
+     * @param parent
+     * @param idle true if the main thread is idle
+     * @return
+     */
+    View create(HideShowDragView parent, boolean idle) {
+
+        long start = System.nanoTime();
+
+        mView = onCreateView(parent);
+        mInflateNanos = System.nanoTime() - start;
+        mInflatedWhileIdle = idle;
+
+        return mView;
+    }
+
+    /**
+     * returns true if the content has been inflated
+     * 
+     * @return
+     */
+    public boolean isInflated() {
+        return mView != null;
+    }
+
+    /**
+     * returns the inflated content, null if it has not been inflated yet
+     * 
+     * @return
+     */
+    public View getView() {
+        return mView;
+    }
+
+    /**
+     * returns the time the inflation took in nanoseconds, 0 if the content has
+     * not been inflated yet, this is the time saved at startup for every view
+     * that is not shown right away
+     * 
+     * @return
+     */
+    public long getInflateNanos() {
+        return mInflateNanos;
+    }
+
+    /**
+     * returns true if the content has been inflated while the main thread was
+     * idle instead of right before the view was shown
+     * 
+     * @return
+     */
+    public boolean isInflatedWhileIdle() {
+        return mInflatedWhileIdle;
+    }
+
+    public int getPlaceholderWidth() {
+        return mPlaceholderWidth;
+    }
+
+    public int getPlaceholderHeight() {
+        return mPlaceholderHeight;
+    }
+}
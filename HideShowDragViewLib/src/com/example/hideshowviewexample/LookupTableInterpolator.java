@@ -0,0 +1,85 @@
+package com.example.hideshowviewexample;
+
+import java.util.HashMap;
+
+import android.view.animation.Interpolator;
+
+import com.example.hideshowviewexample.core.CurveTable;
+
+/**
+ * Interpolator that reads its curve from a table sampled once, instead of
+ * calculating it for every frame. Instances are shared process-wide, asking
+ * twice for the same curve and factor returns the same interpolator, so all
+ * views with the default interpolators use one table.
+ * 
+ * @author Philipp Jahoda
+ */
+public final class LookupTableInterpolator implements Interpolator {
+
+    /** interpolators by curve and factor */
+    private static final HashMap<Long, LookupTableInterpolator> sCache = new HashMap<Long, LookupTableInterpolator>();
+
+    private final CurveTable mTable;
+
+    private LookupTableInterpolator(CurveTable table) {
+        this.mTable = table;
+    }
+
+    /**
+     * returns the shared interpolator with the curve of
+     * AccelerateInterpolator(factor)
+     * 
+     * @param factor
+     * @return
+     */
+    public static LookupTableInterpolator accelerate(float factor) {
+        return get(CurveTable.CURVE_ACCELERATE, factor);
+    }
+
+    /**
+     * returns the shared interpolator with the curve of
+     * DecelerateInterpolator(factor)
+     * 
+     * @param factor
+     * @return
+     */
+    public static LookupTableInterpolator decelerate(float factor) {
+        return get(CurveTable.CURVE_DECELERATE, factor);
+    }
+
+    /**
+     * returns the shared interpolator with the curve of
+     * AccelerateDecelerateInterpolator
+     * 
+     * @return
+     */
+    public static LookupTableInterpolator accelerateDecelerate() {
+        return get(CurveTable.CURVE_ACCELERATE_DECELERATE, 1f);
+    }
+
+    /**
+     * returns the interpolator of the given curve, the table is sampled when
+     * the curve is requested for the first time
+     * 
+     * @param curve
+     * @param factor
+     * @return
+     */
+    private static synchronized LookupTableInterpolator get(int curve, float factor) {
+
+        Long key = ((long) curve << 32) | (Float.floatToIntBits(factor) & 0xffffffffL);
+        LookupTableInterpolator interpolator = sCache.get(key);
+
+        if (interpolator == null) {
+            interpolator = new LookupTableInterpolator(new CurveTable(curve, factor));
+            sCache.put(key, interpolator);
+        }
+
+        return interpolator;
+    }
+
+    @Override
+    public float getInterpolation(float input) {
+        return mTable.valueAt(input);
+    }
+}
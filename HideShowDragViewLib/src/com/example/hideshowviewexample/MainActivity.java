@@ -7,7 +7,6 @@ import android.util.Log;
 import android.view.View;
 import android.view.WindowManager;
 import android.view.View.OnClickListener;
-import android.view.animation.DecelerateInterpolator;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.Toast;
@@ -45,9 +44,9 @@ public class MainActivity extends Activity implements OnClickListener, HideShowD
         
         myView.setDragEnabled(false);
         
-        myView.setShowInterpolator(new DecelerateInterpolator(0.5f));
+        myView.setShowInterpolator(LookupTableInterpolator.decelerate(0.5f));
         
-        myView.setHideInterpolator(new DecelerateInterpolator(0.5f));
+        myView.setHideInterpolator(LookupTableInterpolator.decelerate(0.5f));
 
         myView.setHideShowDuration(800); 
     } 
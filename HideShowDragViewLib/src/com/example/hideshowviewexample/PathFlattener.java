@@ -0,0 +1,100 @@
+package com.example.hideshowviewexample;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import android.graphics.Path;
+import android.graphics.PathMeasure;
+
+import com.example.hideshowviewexample.core.PathKeyframes;
+
+/**
+ * Flattens transition paths into PathKeyframes on a background thread shared
+ * by all views, so that the path is never measured on the main thread. Jobs
+ * run one after another in the order they were submitted.
+ * 
+ * @author Philipp Jahoda
+ */
+final class PathFlattener {
+
+    /** number of segments between the keyframes of a path */
+    private static final int SEGMENTS = 128;
+
+    private static ExecutorService sExecutor;
+
+    private PathFlattener() {
+    }
+
+    /**
+     * measures the given path in the background and hands the keyframes
+     * between the two points to the target, on the background thread
+     * 
+     * @param unitPath path from (0, 0) to (1, 0), must not be changed
+     *            afterwards
+     * @param fromX
+     * @param fromY
+     * @param toX
+     * @param toY
+     * @param generation handed back to the target with the keyframes
+     * @param target
+     */
+    static void flatten(final Path unitPath, final float fromX, final float fromY,
+            final float toX, final float toY, final int generation, final Target target) {
+
+        getExecutor().execute(new Runnable() {
+
+            @Override
+            public void run() {
+
+                float[] x = new float[SEGMENTS + 1];
+                float[] y = new float[SEGMENTS + 1];
+                float[] position = new float[2];
+
+                PathMeasure measure = new PathMeasure(unitPath, false);
+                float length = measure.getLength();
+
+                for (int i = 0; i <= SEGMENTS; i++) {
+                    measure.getPosTan(length * i / SEGMENTS, position, null);
+                    x[i] = position[0];
+                    y[i] = position[1];
+                }
+
+                target.onKeyframesReady(generation, new PathKeyframes(x, y, fromX, fromY, toX,
+                        toY));
+            }
+        });
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+
+        if (sExecutor == null) {
+            sExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "HideShowDragPaths");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+            });
+        }
+
+        return sExecutor;
+    }
+
+    /**
+     * receives the flattened path
+     */
+    interface Target {
+
+        /**
+         * called on the background thread once the keyframes are ready
+         * 
+         * @param generation the generation the job was started with
+         * @param keyframes
+         */
+        public void onKeyframesReady(int generation, PathKeyframes keyframes);
+    }
+}
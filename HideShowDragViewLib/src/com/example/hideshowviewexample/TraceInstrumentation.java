@@ -0,0 +1,52 @@
+package com.example.hideshowviewexample;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+
+import com.example.hideshowviewexample.HideShowDragView.HideShowDragInstrumentation;
+
+/**
+ * Default instrumentation of the HideShowDragView, emits a systrace section
+ * for every instrumented step on API level 18+ and does nothing below.
+ * 
+ * @author Philipp Jahoda
+ */
+public class TraceInstrumentation implements HideShowDragInstrumentation {
+
+    private static final String[] SECTION_NAMES = new String[] {
+            "HideShowDragView#drag", "HideShowDragView#show", "HideShowDragView#hide",
+            "HideShowDragView#layout"
+    };
+
+    private static final boolean TRACE_SUPPORTED = Build.VERSION.SDK_INT >= 18;
+
+    @Override
+    public void beginSection(HideShowDragView v, int section) {
+
+        if (TRACE_SUPPORTED)
+            TraceCompat.beginSection(SECTION_NAMES[section]);
+    }
+
+    @Override
+    public void endSection(HideShowDragView v, int section) {
+
+        if (TRACE_SUPPORTED)
+            TraceCompat.endSection();
+    }
+
+    /**
+     * kept in its own class so that Trace is never loaded below API level 18
+     */
+    @TargetApi(18)
+    private static class TraceCompat {
+
+        static void beginSection(String name) {
+            Trace.beginSection(name);
+        }
+
+        static void endSection() {
+            Trace.endSection();
+        }
+    }
+}
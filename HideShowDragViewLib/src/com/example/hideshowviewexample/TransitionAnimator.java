@@ -0,0 +1,287 @@
+package com.example.hideshowviewexample;
+
+import android.animation.TimeInterpolator;
+import android.view.View;
+
+import com.example.hideshowviewexample.core.DragMath;
+import com.example.hideshowviewexample.core.PathKeyframes;
+
+/**
+ * Animates position, alpha and scale of a view in one update per frame. Used
+ * for the hide and show animations instead of one property animation per
+ * axis. A single instance is reused for all transitions of a view.
+ * 
+ * @author Philipp Jahoda
+ */
+class TransitionAnimator implements FrameTicker.FrameCallback {
+
+    private final View mView;
+
+    private final Listener mListener;
+
+    private TimeInterpolator mInterpolator;
+
+    private float mFromX, mFromY, mToX, mToY;
+    private float mFromAlpha, mToAlpha;
+    private float mFromScale, mToScale;
+
+    /** the path the view follows instead of a line, may be null */
+    private PathKeyframes mPath;
+
+    /** fractions of the path between which the view is animated */
+    private float mFromPathFraction, mToPathFraction;
+
+    /** fraction of the path the view has been moved to by the latest frame */
+    private float mPathFraction;
+
+    /** true if alpha / scale differ between start and end */
+    private boolean mAnimateAlpha, mAnimateScale;
+
+    private long mDurationNanos = 0;
+
+    /** time between the first frame and the start of the transition */
+    private long mDelayNanos = 0;
+
+    /** the ticker that drives the running transition */
+    private FrameTicker mTicker;
+
+    /**
+     * frame time at which the transition starts, -1 if no frame has been
+     * drawn yet
+     */
+    private long mStartNanos = -1;
+
+    /** time of the latest frame */
+    private long mFrameNanos = 0;
+
+    /** elapsed fraction of the duration at the latest frame */
+    private float mFraction = 0;
+
+    private boolean mRunning = false;
+
+    /** number of frames of the running or the last transition */
+    private int mFrameCount = 0;
+
+    TransitionAnimator(View view, Listener listener) {
+        this.mView = view;
+        this.mListener = listener;
+    }
+
+    /**
+     * sets the values the view is animated between, the transition starts on
+     * the next frame
+     * 
+     * @param fromX
+     * @param fromY
+     * @param toX
+     * @param toY
+     * @param fromAlpha
+     * @param toAlpha
+     * @param fromScale
+     * @param toScale
+     * @param durationMillis
+     * @param interpolator
+     * @param ticker the ticker that drives the transition, null for the
+     *            ticker of the main thread
+     * @param delayMillis time the view stays untouched before it starts moving
+     */
+    void start(float fromX, float fromY, float toX, float toY, float fromAlpha, float toAlpha,
+            float fromScale, float toScale, long durationMillis, TimeInterpolator interpolator,
+            FrameTicker ticker, long delayMillis) {
+
+        mFromX = fromX;
+        mFromY = fromY;
+        mToX = toX;
+        mToY = toY;
+        mFromAlpha = fromAlpha;
+        mToAlpha = toAlpha;
+        mFromScale = fromScale;
+        mToScale = toScale;
+        mAnimateAlpha = fromAlpha != toAlpha;
+        mAnimateScale = fromScale != toScale;
+        mDurationNanos = durationMillis * 1000000L;
+        mInterpolator = interpolator;
+        mDelayNanos = delayMillis * 1000000L;
+        mTicker = ticker != null ? ticker : FrameTicker.getInstance();
+
+        mStartNanos = -1;
+        mFraction = 0;
+        mFrameCount = 0;
+        mRunning = true;
+
+        mTicker.postFrameCallback(this);
+    }
+
+    /**
+     * moves the view along the given path instead of the line between the
+     * positions of the next transition, null for a line
+     * 
+     * @param path
+     * @param fromFraction fraction of the path the transition starts at
+     * @param toFraction fraction of the path the transition ends at
+     */
+    void setPath(PathKeyframes path, float fromFraction, float toFraction) {
+        mPath = path;
+        mFromPathFraction = fromFraction;
+        mToPathFraction = toFraction;
+        mPathFraction = fromFraction;
+    }
+
+    /**
+     * returns true if the running or the last transition follows a path
+     * 
+     * @return
+     */
+    boolean isOnPath() {
+        return mPath != null;
+    }
+
+    /**
+     * returns the fraction of the path the view has been moved to
+     * 
+     * @return
+     */
+    float getPathFraction() {
+        return mPathFraction;
+    }
+
+    /**
+     * stops the transition where it currently is, the listener is informed
+     * via onTransitionCancel()
+     */
+    void cancel() {
+
+        if (!mRunning)
+            return;
+
+        mRunning = false;
+        mTicker.removeFrameCallback(this);
+        mListener.onTransitionCancel(this);
+    }
+
+    /**
+     * returns true if the transition has not reached its end yet
+     * 
+     * @return
+     */
+    boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * returns the time in milliseconds the running transition still needs
+     * 
+     * @return
+     */
+    long getRemainingMillis() {
+
+        if (!mRunning)
+            return 0;
+
+        if (mStartNanos < 0)
+            return mDurationNanos / 1000000L;
+
+        long elapsed = Math.max(0, mFrameNanos - mStartNanos);
+        return Math.max(0, mDurationNanos - elapsed) / 1000000L;
+    }
+
+    /**
+     * returns the elapsed fraction of the duration at the last frame, before
+     * the interpolator is applied
+     * 
+     * @return
+     */
+    float getFraction() {
+        return mFraction;
+    }
+
+    /**
+     * returns the number of frames of the running or the last transition
+     * 
+     * @return
+     */
+    int getFrameCount() {
+        return mFrameCount;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+
+        if (!mRunning)
+            return;
+
+        if (mStartNanos < 0)
+            mStartNanos = frameTimeNanos + mDelayNanos;
+
+        mFrameNanos = frameTimeNanos;
+
+        // the view is not touched until its delay has passed
+        if (frameTimeNanos < mStartNanos) {
+            mTicker.postFrameCallback(this);
+            return;
+        }
+
+        mFrameCount++;
+
+        long elapsed = frameTimeNanos - mStartNanos;
+        float fraction = DragMath.animationFraction(elapsed, mDurationNanos);
+        mFraction = fraction;
+        float value = mInterpolator != null ? mInterpolator.getInterpolation(fraction) : fraction;
+
+        if (mPath != null) {
+            mPathFraction = DragMath.interpolate(mFromPathFraction, mToPathFraction, value);
+            mView.setX(mPath.getX(mPathFraction));
+            mView.setY(mPath.getY(mPathFraction));
+        } else {
+            mView.setX(DragMath.interpolate(mFromX, mToX, value));
+            mView.setY(DragMath.interpolate(mFromY, mToY, value));
+        }
+
+        if (mAnimateAlpha)
+            mView.setAlpha(DragMath.interpolate(mFromAlpha, mToAlpha, value));
+
+        if (mAnimateScale) {
+            float scale = DragMath.interpolate(mFromScale, mToScale, value);
+            mView.setScaleX(scale);
+            mView.setScaleY(scale);
+        }
+
+        mListener.onTransitionFrame(this, frameTimeNanos);
+
+        if (fraction < 1f) {
+            mTicker.postFrameCallback(this);
+        } else {
+            mRunning = false;
+            mListener.onTransitionEnd(this);
+        }
+    }
+
+    /**
+     * informed about the frames of a transition and when it ends or is
+     * canceled
+     */
+    interface Listener {
+
+        /**
+         * called for every frame of the transition after it has been applied
+         * 
+         * @param animator
+         * @param frameTimeNanos
+         */
+        public void onTransitionFrame(TransitionAnimator animator, long frameTimeNanos);
+
+        /**
+         * called after the last frame of the transition has been applied
+         * 
+         * @param animator
+         */
+        public void onTransitionEnd(TransitionAnimator animator);
+
+        /**
+         * called when the transition has been canceled before its end
+         * 
+         * @param animator
+         */
+        public void onTransitionCancel(TransitionAnimator animator);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.hideshowviewexample;
+
+import java.util.WeakHashMap;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.Resources;
+import android.util.DisplayMetrics;
+import android.view.Window;
+import android.view.WindowManager;
+
+/**
+ * Process wide cache of the statusbar height and the fullscreen state of the
+ * window, shared by all hide / show views. The statusbar height is looked up
+ * once per display configuration, the fullscreen state once per window and
+ * kept for every window that is alive, so views in a dialog or a popup over
+ * an activity do not evict each other. The views invalidate the cache of
+ * their window when the configuration or the window insets change. Must only
+ * be used from the main thread.
+ * 
+ * @author Philipp Jahoda
+ */
+final class WindowInsetCache {
+
+    /** the cached statusbar height, -1 if it needs to be looked up */
+    private static int sStatusBarHeight = -1;
+
+    /** the display configuration the statusbar height was looked up for */
+    private static int sWidthPixels, sHeightPixels, sDensityDpi;
+
+    /** the fullscreen state of every window it has been read from */
+    private static final WeakHashMap<Window, Boolean> sFullScreen = new WeakHashMap<Window, Boolean>();
+
+    private WindowInsetCache() {
+    }
+
+    /**
+     * returns the space the statusbar takes at the top of the given window, 0
+     * if the window is fullscreen
+     * 
+     * @param res
+     * @param window the window of the view, may be null
+     * @return
+     */
+    static int getStatusBarInset(Resources res, Window window) {
+
+        if (isFullScreen(window))
+            return 0;
+
+        DisplayMetrics metrics = res.getDisplayMetrics();
+
+        if (sStatusBarHeight < 0 || metrics.widthPixels != sWidthPixels
+                || metrics.heightPixels != sHeightPixels || metrics.densityDpi != sDensityDpi) {
+
+            sWidthPixels = metrics.widthPixels;
+            sHeightPixels = metrics.heightPixels;
+            sDensityDpi = metrics.densityDpi;
+
+            int resourceId = res.getIdentifier("status_bar_height", "dimen", "android");
+            sStatusBarHeight = resourceId > 0 ? res.getDimensionPixelSize(resourceId) : 0;
+        }
+
+        return sStatusBarHeight;
+    }
+
+    /**
+     * returns true if the given window is fullscreen, false if it is not or if
+     * there is no window
+     * 
+     * @param window
+     * @return
+     */
+    static boolean isFullScreen(Window window) {
+
+        if (window == null)
+            return false;
+
+        Boolean fullScreen = sFullScreen.get(window);
+
+        if (fullScreen == null) {
+            int flags = window.getAttributes().flags;
+            fullScreen = (flags & WindowManager.LayoutParams.FLAG_FULLSCREEN) != 0 ? Boolean.TRUE
+                    : Boolean.FALSE;
+            sFullScreen.put(window, fullScreen);
+        }
+
+        return fullScreen.booleanValue();
+    }
+
+    /**
+     * drops the statusbar height and the fullscreen state of the given
+     * window, they are looked up again on the next access, the other windows
+     * keep their state
+     * 
+     * @param window the window of the view, may be null
+     */
+    static void invalidate(Window window) {
+
+        sStatusBarHeight = -1;
+
+        if (window != null)
+            sFullScreen.remove(window);
+    }
+
+    /**
+     * returns the window of the activity the given context belongs to, also
+     * through wrappers like a ContextThemeWrapper, null if there is none
+     * 
+     * @param context
+     * @return
+     */
+    static Window findWindow(Context context) {
+
+        while (context instanceof ContextWrapper) {
+
+            if (context instanceof Activity)
+                return ((Activity) context).getWindow();
+
+            context = ((ContextWrapper) context).getBaseContext();
+        }
+        return null;
+    }
+}